@@ -0,0 +1,39 @@
+package com.example.userservice.controller;
+
+import com.example.userservice.dto.UserNameDto;
+import com.example.userservice.service.UserService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/users")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class UserLookupController {
+
+    private static final int MAX_IDS = 500;
+
+    private final UserService userService;
+
+    public UserLookupController(UserService userService) {
+        this.userService = userService;
+    }
+
+    // ✅ GET /api/users/names?ids=1,2,3 (batch lookup for review listings, usernames only)
+    @GetMapping("/names")
+    public ResponseEntity<?> getUsernames(@RequestParam List<Long> ids) {
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        distinct.removeIf(Objects::isNull);
+        if (distinct.size() > MAX_IDS) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "At most " + MAX_IDS + " ids per request"));
+        }
+        List<UserNameDto> names = userService.getUsernames(distinct);
+        return ResponseEntity.ok(names);
+    }
+}
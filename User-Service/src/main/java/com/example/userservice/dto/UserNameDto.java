@@ -0,0 +1,19 @@
+package com.example.userservice.dto;
+
+// Public display name of a user (no email, no roles), for other services' listings
+public class UserNameDto {
+    private Long id;
+    private String username;
+
+    public UserNameDto() {}
+    public UserNameDto(Long id, String username) {
+        this.id = id;
+        this.username = username;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+}
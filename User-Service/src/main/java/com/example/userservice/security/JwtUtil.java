@@ -3,6 +3,7 @@ package com.example.userservice.security;
 import io.jsonwebtoken.*;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import java.util.Collection;
 import java.util.Date;
 
 @Component
@@ -17,12 +18,13 @@ public class JwtUtil {
     @Value("${jwt.refresh.expiration:604800000}") // 7 days
     private long refreshTokenExpirationInMs;
 
-    // ✅ Generate Access Token
-    public String generateAccessToken(String username, Long userId) {
+    // ✅ Generate Access Token (roles let other services authorise admin calls)
+    public String generateAccessToken(String username, Long userId, Collection<String> roles) {
         return Jwts.builder()
                 .setSubject(username)
                 .claim("userId", userId)
                 .claim("type", "ACCESS")
+                .claim("roles", roles)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationInMs))
                 .signWith(SignatureAlgorithm.HS256, jwtSecret)
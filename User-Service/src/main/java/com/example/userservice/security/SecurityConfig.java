@@ -1,8 +1,13 @@
 package com.example.userservice.security;
 
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authorization.AuthenticatedAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -11,18 +16,32 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    public static final String SERVICE_TOKEN_HEADER = "X-Service-Token";
+
+    private static final AuthenticatedAuthorizationManager<RequestAuthorizationContext> AUTHENTICATED =
+            AuthenticatedAuthorizationManager.authenticated();
+
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
 
-    public SecurityConfig(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    // Shared with the services allowed to look up user names (search-service); blank: none
+    private final byte[] serviceToken;
+
+    public SecurityConfig(JwtUtil jwtUtil, UserDetailsService userDetailsService,
+                          @Value("${users.lookup.service-token:}") String serviceToken) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.serviceToken = serviceToken.getBytes(StandardCharsets.UTF_8);
     }
 
     @Bean
@@ -55,6 +74,13 @@ public class SecurityConfig {
                         "/api/auth/refresh")
                 .permitAll()
 
+                // Display names for other services (reviews): signed-in users or a service holding
+                // the shared token, so usernames cannot be enumerated anonymously
+                .requestMatchers(HttpMethod.GET, "/api/users/names")
+                .access((authentication, context) -> new AuthorizationDecision(
+                        isServiceCall(context.getRequest())
+                                || AUTHENTICATED.check(authentication, context).isGranted()))
+
                 .anyRequest().authenticated()
         );
 
@@ -62,4 +88,10 @@ public class SecurityConfig {
 
         return http.build();
     }
+
+    private boolean isServiceCall(HttpServletRequest request) {
+        String token = request.getHeader(SERVICE_TOKEN_HEADER);
+        return serviceToken.length > 0 && token != null
+                && MessageDigest.isEqual(serviceToken, token.getBytes(StandardCharsets.UTF_8));
+    }
 }
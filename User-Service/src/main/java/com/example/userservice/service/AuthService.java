@@ -1,6 +1,7 @@
 package com.example.userservice.service;
 
 import com.example.userservice.dto.*;
+import com.example.userservice.entity.Role;
 import com.example.userservice.entity.User;
 import com.example.userservice.entity.RefreshToken;
 import com.example.userservice.exception.ResourceNotFoundException;
@@ -14,6 +15,8 @@ import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+
 @Service
 @Transactional
 public class AuthService {
@@ -76,7 +79,7 @@ public class AuthService {
                     user.getId(), user.getUsername(), user.getEmail());
 
             // Generate tokens
-            String accessToken = jwtUtil.generateAccessToken(user.getUsername(), user.getId());
+            String accessToken = jwtUtil.generateAccessToken(user.getUsername(), user.getId(), roleNames(user));
             String refreshToken = jwtUtil.generateRefreshToken(user.getUsername(), user.getId());
 
             logger.debug("🎫 Tokens generated for user: {}", user.getId());
@@ -119,7 +122,7 @@ public class AuthService {
             User user = userService.findByUsername(jwtUtil.getUsernameFromToken(request.getRefreshToken()));
 
             // Generate new access token
-            String newAccessToken = jwtUtil.generateAccessToken(user.getUsername(), user.getId());
+            String newAccessToken = jwtUtil.generateAccessToken(user.getUsername(), user.getId(), roleNames(user));
             logger.info("🎫 New access token generated for user: {}", user.getId());
 
             return new LoginResponse(
@@ -156,8 +159,9 @@ public class AuthService {
     public String getUsernameFromToken(String token) {
         return jwtUtil.getUsernameFromToken(token);
     }
-}
-
-
-
 
+    // Role names carried in the access token ("USER", "ADMIN")
+    private static List<String> roleNames(User user) {
+        return user.getRoles().stream().map(Role::getName).sorted().toList();
+    }
+}
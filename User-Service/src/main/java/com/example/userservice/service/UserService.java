@@ -1,6 +1,7 @@
 package com.example.userservice.service;
 
 import com.example.userservice.dto.UserDto;
+import com.example.userservice.dto.UserNameDto;
 import com.example.userservice.entity.User;
 import com.example.userservice.entity.Role;
 import com.example.userservice.exception.ResourceNotFoundException;
@@ -111,6 +112,17 @@ public class UserService {
         return new UserDto(user.getId(), user.getUsername(), user.getEmail(), roles);
     }
 
+    // ✅ Usernames of many users in one query (unknown ids are left out)
+    @Transactional(readOnly = true)
+    public List<UserNameDto> getUsernames(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        return userRepository.findUsernamesByIdIn(userIds).stream()
+                .map(row -> new UserNameDto((Long) row[0], (String) row[1]))
+                .collect(Collectors.toList());
+    }
+
     // ✅ Get all users (for admin only)
     public List<UserDto> getAllUsers() {
         return userRepository.findAll().stream()
@@ -0,0 +1,4 @@
+-- Ids used to come from IDENTITY columns: move each pooled sequence past the existing rows
+-- (runs after Hibernate's schema update; never moves a sequence backwards)
+SELECT setval('users_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM users) + 50, (SELECT last_value FROM users_seq)));
+SELECT setval('refresh_tokens_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM refresh_tokens) + 50, (SELECT last_value FROM refresh_tokens_seq)));
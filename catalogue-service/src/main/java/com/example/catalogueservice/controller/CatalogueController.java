@@ -3,6 +3,8 @@ package com.example.catalogueservice.controller;
 import com.example.catalogueservice.dto.*;
 import com.example.catalogueservice.entity.*;
 import com.example.catalogueservice.repository.*;
+import com.example.catalogueservice.service.AlsoBoughtService;
+import com.example.catalogueservice.service.LiveOrderFeed;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,10 +25,14 @@ import java.util.stream.Collectors;
 public class CatalogueController {
 
     private static final Logger log = LoggerFactory.getLogger(CatalogueController.class);
+    private static final int MAX_ELIGIBILITY_CHECKS = 500;
+    private static final int MAX_LOOKUP_IDS = 500;
 
     private final UserOrderHistoryRepository orderHistoryRepository;
     private final OrderHistoryItemRepository orderItemRepository;
     private final UserProfileRepository userProfileRepository;
+    private final LiveOrderFeed liveOrderFeed;
+    private final AlsoBoughtService alsoBoughtService;
 
     /* =======================
        POST ORDER
@@ -51,10 +57,21 @@ public class CatalogueController {
             }
 
             // Récupère les données de base
+            Long orderId = requestMap.get("orderId") != null
+                    ? ((Number) requestMap.get("orderId")).longValue() : null;
             Long userId = requestMap.get("userId") != null
                     ? ((Number) requestMap.get("userId")).longValue() : null;
             String userName = (String) requestMap.get("userName");
             String userEmail = (String) requestMap.get("userEmail");
+            // Orders re-sent by order-service reconciliation come without the user's name and email:
+            // take the ones this user's earlier orders left in the profile
+            if ((userName == null || userEmail == null) && userId != null) {
+                Optional<UserProfile> known = userProfileRepository.findByUserId(userId);
+                if (known.isPresent()) {
+                    userName = userName != null ? userName : known.get().getName();
+                    userEmail = userEmail != null ? userEmail : known.get().getEmail();
+                }
+            }
             String orderNumber = (String) requestMap.get("orderNumber");
             String shippingAddress = (String) requestMap.get("shippingAddress");
             String status = requestMap.get("status") != null
@@ -80,6 +97,7 @@ public class CatalogueController {
 
             // Crée l'entité UserOrderHistory
             UserOrderHistory orderHistory = UserOrderHistory.builder()
+                    .orderId(orderId)
                     .userId(userId)
                     .userName(userName != null ? userName : "Unknown")
                     .userEmail(userEmail != null ? userEmail : "unknown@example.com")
@@ -155,6 +173,12 @@ public class CatalogueController {
             // Update user profile
             updateUserProfile(userId, totalAmount, orderDate, userName, userEmail);
 
+            // Admin live feed (sent once the order is committed)
+            liveOrderFeed.publishAfterCommit(savedOrder, items.size());
+
+            // "Also bought" recommendations (counted once the order is committed)
+            alsoBoughtService.recordAfterCommit(savedOrder, items);
+
             // Prépare la réponse
             UserOrderHistoryResponse response = convertToResponse(savedOrder, items);
             log.info("✅ Order recorded successfully: {}", savedOrder.getOrderNumber());
@@ -168,6 +192,33 @@ public class CatalogueController {
         }
     }
 
+    /* =======================
+       BATCH STATUS CHANGES
+    ======================= */
+    // Body: [{ "orderNumber": "...", "status": "CANCELLED" }, ...] - one UPDATE per distinct status
+    @PutMapping("/orders/status/batch")
+    @Transactional
+    public ResponseEntity<?> updateOrderStatuses(@RequestBody List<Map<String, String>> changes) {
+        try {
+            Map<String, List<String>> orderNumbersByStatus = changes.stream()
+                    .filter(change -> change.get("orderNumber") != null && change.get("status") != null)
+                    .collect(Collectors.groupingBy(change -> change.get("status"),
+                            Collectors.mapping(change -> change.get("orderNumber"), Collectors.toList())));
+
+            int updated = 0;
+            for (Map.Entry<String, List<String>> entry : orderNumbersByStatus.entrySet()) {
+                updated += orderHistoryRepository.updateStatusByOrderNumbers(entry.getValue(), entry.getKey());
+            }
+
+            log.info("🔄 Applied {} status changes ({} orders updated)", changes.size(), updated);
+            return ResponseEntity.ok(Map.of("received", changes.size(), "updated", updated));
+        } catch (Exception ex) {
+            log.error("❌ Error applying status changes: {}", ex.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", ex.getMessage()));
+        }
+    }
+
     /* =======================
        USER ENDPOINTS
     ======================= */
@@ -451,6 +502,80 @@ public class CatalogueController {
         }
     }
 
+    /* =======================
+       PRODUCT SALES
+    ======================= */
+    // Units sold per product, one aggregate query (weights of search-service suggestions)
+    @GetMapping("/products/sales")
+    public ResponseEntity<?> getProductSales() {
+        try {
+            List<ProductSalesDto> sales = orderItemRepository.sumQuantityByProduct().stream()
+                    .map(row -> ProductSalesDto.builder()
+                            .productId((Long) row[0])
+                            .productName((String) row[1])
+                            .unitsSold(row[2] != null ? ((Number) row[2]).longValue() : 0L)
+                            .build())
+                    .collect(Collectors.toList());
+            return ResponseEntity.ok(sales);
+        } catch (Exception ex) {
+            log.error("❌ Error fetching product sales: {}", ex.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    // ✅ Names of many products in one query: /products/names?ids=1,2,3 (unknown ids are left out)
+    @GetMapping("/products/names")
+    public ResponseEntity<?> getProductNames(@RequestParam List<Long> ids) {
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        distinct.remove(null);
+        if (distinct.size() > MAX_LOOKUP_IDS) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "At most " + MAX_LOOKUP_IDS + " ids per request"));
+        }
+        if (distinct.isEmpty()) {
+            return ResponseEntity.ok(List.of());
+        }
+
+        List<ProductNameDto> names = orderItemRepository.findProductNames(distinct).stream()
+                .map(row -> ProductNameDto.builder()
+                        .productId(((Number) row[0]).longValue())
+                        .productName((String) row[1])
+                        .build())
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(names);
+    }
+
+    /* =======================
+       ALSO BOUGHT
+    ======================= */
+    // ✅ Products most often ordered with this one, from the in-memory model: ?limit=10
+    @GetMapping("/products/{productId}/also-bought")
+    public ResponseEntity<?> getAlsoBought(@PathVariable Long productId,
+                                           @RequestParam(defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(alsoBoughtService.alsoBought(productId, limit));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    // Full rebuild from order_history_items (also drops orders cancelled since they were counted)
+    @PostMapping("/products/also-bought/rebuild")
+    public ResponseEntity<?> rebuildAlsoBought() {
+        try {
+            return ResponseEntity.ok(alsoBoughtService.rebuild());
+        } catch (IllegalStateException ex) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", ex.getMessage()));
+        } catch (RuntimeException ex) {
+            log.error("❌ Also-bought rebuild failed: {}", ex.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", ex.getMessage()));
+        }
+    }
+
     /* =======================
        HEALTH CHECK
     ======================= */
@@ -531,19 +656,52 @@ public class CatalogueController {
                 .items(itemDtos)
                 .build();
     }
+    /* =======================
+       REVIEW ELIGIBILITY
+    ======================= */
     @GetMapping("/validate-review")
     public ResponseEntity<?> canReview(
             @RequestParam Long userId,
             @RequestParam Long productId
     ) {
-        boolean allowed = orderHistoryRepository.findByUserIdAndOrderStatus(userId, "DELIVERED")
-                .stream()
-                .anyMatch(order ->
-                        order.getItems().stream()
-                                .anyMatch(item -> item.getProductId().equals(productId))
-                );
+        // One query on the delivered items instead of loading every delivered order
+        boolean allowed = !orderItemRepository.findDeliveredPairs(List.of(userId), List.of(productId)).isEmpty();
+
+        return ResponseEntity.ok(Map.of("allowed", allowed));
+    }
+
+    // ✅ Many (userId, productId) checks in one query; "allowed" follows the order of the request
+    @PostMapping("/validate-review/bulk")
+    public ResponseEntity<?> canReviewBulk(@RequestBody List<ReviewEligibilityCheckDto> checks) {
+        if (checks == null || checks.isEmpty()) {
+            return ResponseEntity.ok(Map.of("allowed", List.of()));
+        }
+        if (checks.size() > MAX_ELIGIBILITY_CHECKS) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "At most " + MAX_ELIGIBILITY_CHECKS + " checks per request"));
+        }
+
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> productIds = new HashSet<>();
+        for (ReviewEligibilityCheckDto check : checks) {
+            if (check.getUserId() != null && check.getProductId() != null) {
+                userIds.add(check.getUserId());
+                productIds.add(check.getProductId());
+            }
+        }
+
+        Set<List<Long>> delivered = new HashSet<>();
+        if (!userIds.isEmpty()) {
+            for (Object[] row : orderItemRepository.findDeliveredPairs(userIds, productIds)) {
+                delivered.add(List.of((Long) row[0], (Long) row[1]));
+            }
+        }
 
+        List<Boolean> allowed = checks.stream()
+                .map(check -> check.getUserId() != null && check.getProductId() != null
+                        && delivered.contains(List.of(check.getUserId(), check.getProductId())))
+                .collect(Collectors.toList());
         return ResponseEntity.ok(Map.of("allowed", allowed));
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,53 @@
+package com.example.catalogueservice.controller;
+
+import com.example.catalogueservice.service.LiveOrderFeed;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Live admin order feed: recorded orders and rolling per-minute counters pushed as server-sent
+ * events, so the dashboard no longer has to poll /orders/all and /statistics.
+ */
+@RestController
+@RequestMapping("/api/catalogue/orders/live")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class LiveOrderController {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveOrderController.class);
+
+    private final LiveOrderFeed liveOrderFeed;
+
+    // Events: "order" (id = "<epoch>-<ring sequence>"), "counters", "skipped" (the client fell behind)
+    @GetMapping
+    public ResponseEntity<?> stream(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @RequestParam(required = false) String lastEventId) {
+        String resumeFrom = lastEventIdHeader != null ? lastEventIdHeader : lastEventId;
+        String cursor = resumeFrom != null && !resumeFrom.isBlank() ? resumeFrom : null;
+
+        try {
+            return ResponseEntity.ok()
+                    .header("Cache-Control", "no-cache")
+                    .header("X-Accel-Buffering", "no")
+                    .body(liveOrderFeed.subscribe(cursor));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid Last-Event-ID: " + resumeFrom));
+        } catch (IllegalStateException ex) {
+            log.warn("⚠️ {}", ex.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    @GetMapping("/counters")
+    public ResponseEntity<?> counters() {
+        return ResponseEntity.ok(liveOrderFeed.getCounters());
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.catalogueservice.controller;
+
+import com.example.catalogueservice.dto.RangeDigestDto;
+import com.example.catalogueservice.dto.ReconciliationRowDto;
+import com.example.catalogueservice.entity.UserOrderHistory;
+import com.example.catalogueservice.repository.UserOrderHistoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Read side of the order reconciliation driven by order-service: digests of order-id ranges,
+ * rows of the ranges that differ, and the repair of rows order-service sends back.
+ */
+@RestController
+@RequestMapping("/api/catalogue/reconciliation")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class ReconciliationController {
+
+    private static final Logger log = LoggerFactory.getLogger(ReconciliationController.class);
+
+    private static final int MAX_BUCKETS = 256;
+    private static final int MAX_LEAF_SIZE = 5000;
+
+    private final UserOrderHistoryRepository orderHistoryRepository;
+
+    @GetMapping("/digests")
+    public ResponseEntity<?> digests(@RequestParam long from, @RequestParam long to, @RequestParam long width) {
+        if (from < 0 || to <= from || width < 1 || (to - from + width - 1) / width > MAX_BUCKETS) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid range or width"));
+        }
+
+        List<RangeDigestDto> digests = orderHistoryRepository.rangeDigests(from, to, width).stream()
+                .map(row -> {
+                    long bucketFrom = from + ((Number) row[0]).longValue() * width;
+                    return RangeDigestDto.builder()
+                            .from(bucketFrom)
+                            .to(Math.min(to, bucketFrom + width))
+                            .count(((Number) row[1]).longValue())
+                            .digest((String) row[2])
+                            .build();
+                })
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(digests);
+    }
+
+    @GetMapping("/rows")
+    public ResponseEntity<?> rows(@RequestParam long from, @RequestParam long to) {
+        if (from < 0 || to <= from || to - from > MAX_LEAF_SIZE) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid range (max " + MAX_LEAF_SIZE + " ids)"));
+        }
+
+        List<ReconciliationRowDto> rows = orderHistoryRepository.findReconciliationRows(from, to).stream()
+                .map(row -> ReconciliationRowDto.builder()
+                        .orderId(((Number) row[0]).longValue())
+                        .orderNumber((String) row[1])
+                        .status((String) row[2])
+                        .amountCents(((Number) row[3]).longValue())
+                        .build())
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(rows);
+    }
+
+    // Body: rows as known by order-service. Returns the order numbers not recorded here at all,
+    // which order-service then sends again in full (with their items).
+    @PutMapping("/orders")
+    @Transactional
+    public ResponseEntity<?> repair(@RequestBody List<ReconciliationRowDto> rows) {
+        try {
+            Map<String, UserOrderHistory> existing = orderHistoryRepository.findByOrderNumberIn(
+                            rows.stream().map(ReconciliationRowDto::getOrderNumber).collect(Collectors.toList()))
+                    .stream()
+                    .collect(Collectors.toMap(UserOrderHistory::getOrderNumber, Function.identity()));
+
+            List<String> missing = new ArrayList<>();
+            for (ReconciliationRowDto row : rows) {
+                UserOrderHistory order = existing.get(row.getOrderNumber());
+                if (order == null) {
+                    missing.add(row.getOrderNumber());
+                    continue;
+                }
+                order.setOrderId(row.getOrderId());
+                order.setOrderStatus(row.getStatus());
+                order.setTotalAmount(BigDecimal.valueOf(row.getAmountCents(), 2));
+            }
+
+            log.info("🔧 Reconciliation: {} orders repaired, {} missing", rows.size() - missing.size(), missing.size());
+            return ResponseEntity.ok(missing);
+        } catch (Exception ex) {
+            log.error("❌ Error repairing orders: {}", ex.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", ex.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.catalogueservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlsoBoughtDto {
+    private Long productId;
+    private String productName;
+    private Integer ordersTogether;
+    private Double score;
+}
@@ -0,0 +1,31 @@
+package com.example.catalogueservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Rolling per-minute order counters over the last `windowMinutes`, oldest minute first
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LiveCountersDto {
+    private Integer windowMinutes;
+    private Long orders;
+    private BigDecimal revenue;
+    private List<Minute> minutes;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Minute {
+        private Long minute; // epoch millis of the start of the minute
+        private Long orders;
+        private BigDecimal revenue;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.catalogueservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// One recorded order as pushed on the admin live feed
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LiveOrderEventDto {
+    private String orderNumber;
+    private Long userId;
+    private String userName;
+    private String orderStatus;
+    private BigDecimal totalAmount;
+    private Integer itemCount;
+    private LocalDateTime orderDate;
+    private LocalDateTime recordedAt;
+}
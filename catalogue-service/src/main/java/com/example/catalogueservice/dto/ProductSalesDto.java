@@ -0,0 +1,16 @@
+package com.example.catalogueservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSalesDto {
+    private Long productId;
+    private String productName;
+    private Long unitsSold;
+}
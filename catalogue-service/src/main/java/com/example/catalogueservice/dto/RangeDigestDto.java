@@ -0,0 +1,18 @@
+package com.example.catalogueservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Digest of the orders whose order-service id is in [from, to): row count + sum of row hashes
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RangeDigestDto {
+    private Long from;
+    private Long to;
+    private Long count;
+    private String digest;
+}
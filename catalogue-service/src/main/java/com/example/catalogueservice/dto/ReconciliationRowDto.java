@@ -0,0 +1,17 @@
+package com.example.catalogueservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationRowDto {
+    private Long orderId;
+    private String orderNumber;
+    private String status;
+    private Long amountCents;
+}
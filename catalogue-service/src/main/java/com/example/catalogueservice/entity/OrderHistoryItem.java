@@ -5,7 +5,12 @@ import lombok.*;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "order_history_items")
+@Table(name = "order_history_items", indexes = {
+        // Lookups by product: names, review eligibility
+        @Index(name = "idx_order_history_items_product", columnList = "product_id, order_history_id"),
+        // Items of a range of orders ("also bought" rebuild)
+        @Index(name = "idx_order_history_items_order", columnList = "order_history_id, product_id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -13,7 +18,8 @@ import java.math.BigDecimal;
 public class OrderHistoryItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_history_items_seq")
+    @SequenceGenerator(name = "order_history_items_seq", sequenceName = "order_history_items_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -16,9 +16,14 @@ import java.util.List;
 public class UserOrderHistory {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_order_history_seq")
+    @SequenceGenerator(name = "user_order_history_seq", sequenceName = "user_order_history_seq", allocationSize = 50)
     private Long id;
 
+    // Id of the order in order-service (null for rows recorded before it was sent)
+    @Column(name = "order_id", unique = true)
+    private Long orderId;
+
     @Column(name = "user_id", nullable = false)
     private Long userId;
 
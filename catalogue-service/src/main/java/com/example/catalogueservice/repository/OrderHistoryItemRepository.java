@@ -2,9 +2,39 @@ package com.example.catalogueservice.repository;
 import com.example.catalogueservice.entity.UserProfile;
 import com.example.catalogueservice.entity.OrderHistoryItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface OrderHistoryItemRepository extends JpaRepository<OrderHistoryItem, Long> {
 
-}
\ No newline at end of file
+    // Units sold per product (cancelled orders excluded): productId, productName, units
+    @Query("SELECT i.productId, MAX(i.productName), SUM(i.quantity) FROM OrderHistoryItem i " +
+            "WHERE i.orderHistory.orderStatus <> 'CANCELLED' GROUP BY i.productId")
+    List<Object[]> sumQuantityByProduct();
+
+    // Latest known name of each product: the one on its most recent order (batch lookup for
+    // search-service's review listings)
+    @Query(value = "SELECT DISTINCT ON (product_id) product_id, product_name FROM order_history_items " +
+            "WHERE product_id IN (:productIds) ORDER BY product_id, order_history_id DESC, id DESC",
+            nativeQuery = true)
+    List<Object[]> findProductNames(@Param("productIds") Collection<Long> productIds);
+
+    // Review eligibility: (userId, productId) pairs bought in a delivered order, for many checks at once
+    @Query("SELECT DISTINCT i.orderHistory.userId, i.productId FROM OrderHistoryItem i " +
+            "WHERE i.orderHistory.orderStatus = 'DELIVERED' " +
+            "AND i.orderHistory.userId IN :userIds AND i.productId IN :productIds")
+    List<Object[]> findDeliveredPairs(@Param("userIds") Collection<Long> userIds,
+                                      @Param("productIds") Collection<Long> productIds);
+
+    // "Also bought" rebuild, one range of orders per task (cancelled ones excluded):
+    // orderHistoryId, productId, productName, ordered by order so each order's items are adjacent
+    @Query("SELECT i.orderHistory.id, i.productId, i.productName FROM OrderHistoryItem i " +
+            "WHERE i.orderHistory.id >= :fromId AND i.orderHistory.id < :toId " +
+            "AND i.orderHistory.orderStatus <> 'CANCELLED' ORDER BY i.orderHistory.id")
+    List<Object[]> findOrderItems(@Param("fromId") Long fromId, @Param("toId") Long toId);
+}
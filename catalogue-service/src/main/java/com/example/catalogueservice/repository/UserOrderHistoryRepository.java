@@ -2,9 +2,12 @@ package com.example.catalogueservice.repository;
 
 import com.example.catalogueservice.entity.UserOrderHistory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,6 +32,27 @@ public interface UserOrderHistoryRepository extends JpaRepository<UserOrderHisto
 
     List<UserOrderHistory> findByUserIdAndOrderStatus(Long userId, String orderStatus);
 
+    @Modifying
+    @Query("UPDATE UserOrderHistory u SET u.orderStatus = :status WHERE u.orderNumber IN :orderNumbers")
+    int updateStatusByOrderNumbers(@Param("orderNumbers") Collection<String> orderNumbers,
+                                   @Param("status") String status);
 
+    List<UserOrderHistory> findByOrderNumberIn(Collection<String> orderNumbers);
 
-}
\ No newline at end of file
+    @Query("SELECT MIN(u.id), MAX(u.id) FROM UserOrderHistory u")
+    List<Object[]> findIdRange();
+
+    // Reconciliation with order-service: same digest as OrderRepository.rangeDigests there,
+    // over order-service's order ids (rows without an order_id are not counted)
+    @Query(value = "SELECT (order_id - :from) / :width AS bucket, COUNT(*) AS row_count, " +
+            "CAST(COALESCE(SUM(CAST(CAST('x' || SUBSTR(MD5(order_number || '|' || COALESCE(order_status, '') || '|' || " +
+            "CAST(ROUND(total_amount * 100) AS BIGINT)), 1, 15) AS BIT(60)) AS BIGINT)), 0) AS TEXT) AS digest " +
+            "FROM user_order_history WHERE order_id >= :from AND order_id < :to GROUP BY 1", nativeQuery = true)
+    List<Object[]> rangeDigests(@Param("from") long from, @Param("to") long to, @Param("width") long width);
+
+    @Query(value = "SELECT order_id, order_number, COALESCE(order_status, ''), " +
+            "CAST(ROUND(total_amount * 100) AS BIGINT) " +
+            "FROM user_order_history WHERE order_id >= :from AND order_id < :to ORDER BY order_id", nativeQuery = true)
+    List<Object[]> findReconciliationRows(@Param("from") long from, @Param("to") long to);
+
+}
@@ -0,0 +1,150 @@
+package com.example.catalogueservice.service;
+
+import com.example.catalogueservice.dto.AlsoBoughtDto;
+import com.example.catalogueservice.entity.OrderHistoryItem;
+import com.example.catalogueservice.entity.UserOrderHistory;
+import com.example.catalogueservice.repository.OrderHistoryItemRepository;
+import com.example.catalogueservice.repository.UserOrderHistoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * "Customers also bought" recommendations (CoPurchaseModel). Recorded orders are counted once
+ * committed; the model is rebuilt at startup and every `rebuild-ms` from order_history_items,
+ * ranges of orders read in parallel into partial models that are merged and swapped in (this
+ * also drops orders cancelled since they were counted).
+ */
+@Service
+@Slf4j
+public class AlsoBoughtService {
+
+    private static final int MAX_LIMIT = 50;
+
+    private record RecordedOrder(long[] productIds, String[] productNames) {
+    }
+
+    private final UserOrderHistoryRepository orderHistoryRepository;
+    private final OrderHistoryItemRepository orderItemRepository;
+    private final int maxNeighbours;
+    private final int maxItemsPerOrder;
+    private final IdRangeRebuild<CoPurchaseModel, RecordedOrder> model;
+
+    @Value("${recommendations.also-bought.chunk-size:5000}")
+    private int chunkSize = 5_000;
+
+    @Value("${recommendations.also-bought.rebuild-threads:4}")
+    private int rebuildThreads = 4;
+
+    public AlsoBoughtService(UserOrderHistoryRepository orderHistoryRepository,
+                             OrderHistoryItemRepository orderItemRepository,
+                             @Value("${recommendations.also-bought.max-neighbours:100}") int maxNeighbours,
+                             @Value("${recommendations.also-bought.max-items-per-order:50}") int maxItemsPerOrder) {
+        this.orderHistoryRepository = orderHistoryRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.maxNeighbours = maxNeighbours;
+        this.maxItemsPerOrder = maxItemsPerOrder;
+        this.model = new IdRangeRebuild<>("Also-bought", "also-bought",
+                new CoPurchaseModel(maxNeighbours, maxItemsPerOrder), AlsoBoughtService::apply);
+    }
+
+    public List<AlsoBoughtDto> alsoBought(Long productId, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        return model.current().alsoBought(productId, limit).stream()
+                .map(neighbour -> AlsoBoughtDto.builder()
+                        .productId(neighbour.productId())
+                        .productName(neighbour.productName())
+                        .ordersTogether(neighbour.ordersTogether())
+                        .score(Math.round(neighbour.score() * 1000) / 1000.0)
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Counts a recorded order once the current transaction commits (immediately without one).
+     */
+    public void recordAfterCommit(UserOrderHistory order, List<OrderHistoryItem> items) {
+        if (items.isEmpty() || "CANCELLED".equals(order.getOrderStatus())) {
+            return;
+        }
+        long orderId = order.getId();
+        long[] productIds = new long[items.size()];
+        String[] productNames = new String[items.size()];
+        for (int i = 0; i < items.size(); i++) {
+            productIds[i] = items.get(i).getProductId();
+            productNames[i] = items.get(i).getProductName();
+        }
+        AfterCommit.run(() -> model.record(orderId, new RecordedOrder(productIds, productNames)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        // In the background: recommendations are empty (then partial) until it is done
+        IdRangeRebuild.startInBackground("also-bought-rebuild", this::scheduledRebuild);
+    }
+
+    @Scheduled(initialDelayString = "${recommendations.also-bought.rebuild-ms:21600000}",
+            fixedDelayString = "${recommendations.also-bought.rebuild-ms:21600000}")
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (IllegalStateException ex) {
+            log.debug("Also-bought rebuild skipped: {}", ex.getMessage());
+        } catch (RuntimeException ex) {
+            log.error("❌ Also-bought rebuild failed, keeping the current model: {}", ex.getMessage());
+        }
+    }
+
+    // ✅ Rebuilds the model from order_history_items, ranges of orders in parallel, and swaps it in
+    public Map<String, Object> rebuild() {
+        long start = System.currentTimeMillis();
+        CoPurchaseModel fresh = model.rebuild(orderHistoryRepository::findIdRange, rebuildThreads, chunkSize,
+                this::countChunk, partials -> {
+                    CoPurchaseModel merged = new CoPurchaseModel(maxNeighbours, maxItemsPerOrder);
+                    partials.forEach(merged::merge);
+                    merged.prune();
+                    return merged;
+                });
+
+        long tookMs = System.currentTimeMillis() - start;
+        log.info("🛒 Also-bought model rebuilt: {} orders, {} products in {} ms",
+                fresh.orderCount(), fresh.productCount(), tookMs);
+        return Map.of("orders", fresh.orderCount(), "products", fresh.productCount(), "tookMs", tookMs);
+    }
+
+    // One range of orders, counted by the calling worker into its own unpruned model
+    private CoPurchaseModel countChunk(long fromId, long toId, BitSet seen) {
+        CoPurchaseModel partial = new CoPurchaseModel(0, maxItemsPerOrder);
+        List<Object[]> rows = orderItemRepository.findOrderItems(fromId, toId);
+        int first = 0;
+        for (int i = 1; i <= rows.size(); i++) {
+            if (i == rows.size() || !rows.get(i)[0].equals(rows.get(first)[0])) {
+                seen.set((int) (((Number) rows.get(first)[0]).longValue() - fromId));
+                long[] productIds = new long[i - first];
+                for (int j = first; j < i; j++) {
+                    productIds[j - first] = ((Number) rows.get(j)[1]).longValue();
+                    partial.name(productIds[j - first], (String) rows.get(j)[2]);
+                }
+                partial.record(productIds);
+                first = i;
+            }
+        }
+        return partial;
+    }
+
+    private static void apply(CoPurchaseModel target, RecordedOrder order) {
+        for (int i = 0; i < order.productIds().length; i++) {
+            target.name(order.productIds()[i], order.productNames()[i]);
+        }
+        target.record(order.productIds());
+    }
+}
@@ -0,0 +1,414 @@
+package com.example.catalogueservice.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * "Customers also bought": how many orders contain each pair of products, kept in open-addressing
+ * maps keyed by primitive product ids (no boxed Long per entry).
+ * A product's neighbours are ranked by cosine similarity, together / sqrt(orders(a) * orders(b)),
+ * so best-sellers do not show up next to everything. Each product keeps at most 2 * maxNeighbours
+ * counts; past that only the maxNeighbours most frequent survive (pairs bought together once get
+ * dropped first). Orders with more than maxItemsPerOrder distinct products (bulk purchases) only
+ * count towards the order totals.
+ * Writers take the write lock, readers the read lock: a lookup ranks at most 2 * maxNeighbours
+ * entries.
+ */
+public final class CoPurchaseModel {
+
+    public record Neighbour(long productId, String productName, int ordersTogether, double score) {
+    }
+
+    private final int maxNeighbours; // 0: never pruned (partial models of a rebuild)
+    private final int maxItemsPerOrder;
+
+    private final LongIntMap orders = new LongIntMap(64);
+    private final LongMap<LongIntMap> together = new LongMap<>(64);
+    private final LongMap<String> names = new LongMap<>(64);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long orderCount;
+
+    public CoPurchaseModel(int maxNeighbours, int maxItemsPerOrder) {
+        this.maxNeighbours = maxNeighbours;
+        this.maxItemsPerOrder = maxItemsPerOrder;
+    }
+
+    /**
+     * Counts one order; repeated product ids are counted once.
+     */
+    public void record(long[] productIds) {
+        long[] distinct = distinct(productIds);
+        lock.writeLock().lock();
+        try {
+            orderCount++;
+            for (long product : distinct) {
+                orders.add(product, 1);
+            }
+            if (distinct.length > maxItemsPerOrder) {
+                return;
+            }
+            for (int i = 0; i < distinct.length; i++) {
+                for (int j = i + 1; j < distinct.length; j++) {
+                    addPair(distinct[i], distinct[j], 1);
+                    addPair(distinct[j], distinct[i], 1);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void name(long productId, String productName) {
+        if (productName == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            names.put(productId, productName);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the counts of a model nobody else writes to (a rebuild partial), without pruning:
+     * call prune() once every partial is in, so a neighbour is never dropped for having had its
+     * count split across partials.
+     */
+    public void merge(CoPurchaseModel other) {
+        lock.writeLock().lock();
+        try {
+            orderCount += other.orderCount;
+            for (int slot = 0; slot < other.orders.keys.length; slot++) {
+                if (other.orders.keys[slot] != LongIntMap.EMPTY) {
+                    orders.add(other.orders.keys[slot], other.orders.values[slot]);
+                }
+            }
+            for (int slot = 0; slot < other.names.keys.length; slot++) {
+                if (other.names.keys[slot] != LongIntMap.EMPTY) {
+                    names.put(other.names.keys[slot], other.names.valueAt(slot));
+                }
+            }
+            for (int slot = 0; slot < other.together.keys.length; slot++) {
+                if (other.together.keys[slot] == LongIntMap.EMPTY) {
+                    continue;
+                }
+                long product = other.together.keys[slot];
+                LongIntMap theirs = other.together.valueAt(slot);
+                LongIntMap row = row(product);
+                for (int i = 0; i < theirs.keys.length; i++) {
+                    if (theirs.keys[i] != LongIntMap.EMPTY) {
+                        row.add(theirs.keys[i], theirs.values[i]);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Cuts every row down to its maxNeighbours highest counts (after merging partials).
+     */
+    public void prune() {
+        if (maxNeighbours <= 0) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (int slot = 0; slot < together.keys.length; slot++) {
+                if (together.keys[slot] != LongIntMap.EMPTY && together.valueAt(slot).size > maxNeighbours) {
+                    together.values[slot] = prune(together.valueAt(slot));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Best `limit` products bought with productId, best first.
+     */
+    public List<Neighbour> alsoBought(long productId, int limit) {
+        lock.readLock().lock();
+        try {
+            LongIntMap row = together.get(productId);
+            if (row == null || limit <= 0) {
+                return List.of();
+            }
+            double ordersOfProduct = Math.max(1, orders.get(productId));
+
+            // Insertion into a small sorted array: limit is small, the row is bounded
+            long[] ids = new long[limit];
+            int[] counts = new int[limit];
+            double[] scores = new double[limit];
+            int size = 0;
+            for (int slot = 0; slot < row.keys.length; slot++) {
+                long other = row.keys[slot];
+                if (other == LongIntMap.EMPTY) {
+                    continue;
+                }
+                int count = row.values[slot];
+                double score = count / Math.sqrt(ordersOfProduct * Math.max(1, orders.get(other)));
+                if (size == limit && !better(score, count, other, scores[size - 1], counts[size - 1], ids[size - 1])) {
+                    continue;
+                }
+                int at = size == limit ? size - 1 : size++;
+                while (at > 0 && better(score, count, other, scores[at - 1], counts[at - 1], ids[at - 1])) {
+                    ids[at] = ids[at - 1];
+                    counts[at] = counts[at - 1];
+                    scores[at] = scores[at - 1];
+                    at--;
+                }
+                ids[at] = other;
+                counts[at] = count;
+                scores[at] = score;
+            }
+
+            List<Neighbour> neighbours = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                neighbours.add(new Neighbour(ids[i], names.get(ids[i]), counts[i], scores[i]));
+            }
+            return neighbours;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int ordersOf(long productId) {
+        lock.readLock().lock();
+        try {
+            return orders.get(productId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long orderCount() {
+        lock.readLock().lock();
+        try {
+            return orderCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int productCount() {
+        lock.readLock().lock();
+        try {
+            return orders.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static boolean better(double score, int count, long id, double otherScore, int otherCount, long otherId) {
+        if (score != otherScore) {
+            return score > otherScore;
+        }
+        if (count != otherCount) {
+            return count > otherCount;
+        }
+        return id < otherId;
+    }
+
+    private void addPair(long product, long other, int count) {
+        LongIntMap row = row(product);
+        row.add(other, count);
+        if (maxNeighbours > 0 && row.size > 2 * maxNeighbours) {
+            together.put(product, prune(row));
+        }
+    }
+
+    private LongIntMap row(long product) {
+        LongIntMap row = together.get(product);
+        if (row == null) {
+            row = new LongIntMap(8);
+            together.put(product, row);
+        }
+        return row;
+    }
+
+    // Keeps the maxNeighbours highest counts (ties at the cut: first found)
+    private LongIntMap prune(LongIntMap row) {
+        int[] sorted = new int[row.size];
+        int n = 0;
+        for (int slot = 0; slot < row.keys.length; slot++) {
+            if (row.keys[slot] != LongIntMap.EMPTY) {
+                sorted[n++] = row.values[slot];
+            }
+        }
+        Arrays.sort(sorted);
+        int threshold = sorted[sorted.length - maxNeighbours];
+        int aboveThreshold = 0;
+        for (int count : sorted) {
+            if (count > threshold) {
+                aboveThreshold++;
+            }
+        }
+        int atThreshold = maxNeighbours - aboveThreshold;
+
+        LongIntMap kept = new LongIntMap(maxNeighbours * 2);
+        for (int slot = 0; slot < row.keys.length; slot++) {
+            long other = row.keys[slot];
+            if (other == LongIntMap.EMPTY) {
+                continue;
+            }
+            int count = row.values[slot];
+            if (count > threshold || (count == threshold && atThreshold-- > 0)) {
+                kept.add(other, count);
+            }
+        }
+        return kept;
+    }
+
+    private long[] distinct(long[] productIds) {
+        long[] sorted = productIds.clone();
+        Arrays.sort(sorted);
+        int n = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (sorted[i] != LongIntMap.EMPTY && (n == 0 || sorted[n - 1] != sorted[i])) {
+                sorted[n++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, n);
+    }
+
+    private static int slotOf(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    // Open addressing, linear probing; Long.MIN_VALUE marks a free slot. Entries are never removed.
+    static final class LongIntMap {
+        static final long EMPTY = Long.MIN_VALUE;
+
+        long[] keys;
+        int[] values;
+        int size;
+
+        LongIntMap(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(4, expected * 2 - 1)) << 1;
+            keys = new long[capacity];
+            values = new int[capacity];
+            Arrays.fill(keys, EMPTY);
+        }
+
+        int get(long key) {
+            int mask = keys.length - 1;
+            for (int slot = slotOf(key, mask); ; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+                if (keys[slot] == EMPTY) {
+                    return 0;
+                }
+            }
+        }
+
+        void add(long key, int delta) {
+            int mask = keys.length - 1;
+            int slot = slotOf(key, mask);
+            while (keys[slot] != EMPTY && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == key) {
+                values[slot] += delta;
+                return;
+            }
+            keys[slot] = key;
+            values[slot] = delta;
+            if (++size * 2 > keys.length) {
+                grow();
+            }
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new int[oldKeys.length * 2];
+            Arrays.fill(keys, EMPTY);
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    int slot = slotOf(oldKeys[i], mask);
+                    while (keys[slot] != EMPTY) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+    }
+
+    // Same layout with object values
+    static final class LongMap<V> {
+        long[] keys;
+        Object[] values;
+        int size;
+
+        LongMap(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(4, expected * 2 - 1)) << 1;
+            keys = new long[capacity];
+            values = new Object[capacity];
+            Arrays.fill(keys, LongIntMap.EMPTY);
+        }
+
+        @SuppressWarnings("unchecked")
+        V valueAt(int slot) {
+            return (V) values[slot];
+        }
+
+        V get(long key) {
+            int mask = keys.length - 1;
+            for (int slot = slotOf(key, mask); ; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return valueAt(slot);
+                }
+                if (keys[slot] == LongIntMap.EMPTY) {
+                    return null;
+                }
+            }
+        }
+
+        void put(long key, V value) {
+            int mask = keys.length - 1;
+            int slot = slotOf(key, mask);
+            while (keys[slot] != LongIntMap.EMPTY && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            values[slot] = value;
+            if (keys[slot] == key) {
+                return;
+            }
+            keys[slot] = key;
+            if (++size * 2 > keys.length) {
+                grow();
+            }
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            Object[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new Object[oldKeys.length * 2];
+            Arrays.fill(keys, LongIntMap.EMPTY);
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != LongIntMap.EMPTY) {
+                    int slot = slotOf(oldKeys[i], mask);
+                    while (keys[slot] != LongIntMap.EMPTY) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.catalogueservice.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size multi-producer ring of events, read by any number of independent cursors.
+ * Writers claim a sequence with one atomic increment and store an immutable entry in its slot;
+ * they never wait for readers. A reader that falls more than `capacity` events behind has been
+ * lapped: read() moves it to the oldest event still in the ring and reports how many it skipped.
+ */
+public final class EventRing<T> {
+
+    public record Entry<T>(long sequence, T value) {
+    }
+
+    public record Batch<T>(List<Entry<T>> entries, long next, long skipped) {
+    }
+
+    private final AtomicReferenceArray<Entry<T>> slots;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();
+
+    public EventRing(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring capacity must be a power of two: " + capacity);
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    public long publish(T value) {
+        long sequence = claimed.getAndIncrement();
+        Entry<T> entry = new Entry<>(sequence, value);
+        int index = (int) (sequence & mask);
+        while (true) {
+            Entry<T> current = slots.get(index);
+            // A writer stalled for a whole lap must not overwrite a newer event
+            if (current != null && current.sequence() > sequence) {
+                return sequence;
+            }
+            if (slots.compareAndSet(index, current, entry)) {
+                return sequence;
+            }
+        }
+    }
+
+    // Sequence the next publish will get; every event below it has been claimed
+    public long head() {
+        return claimed.get();
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Up to max events from `from` on. Stops early at a slot claimed but not written yet.
+     */
+    public Batch<T> read(long from, int max) {
+        long cursor = from;
+        long skipped = 0;
+        long oldest = claimed.get() - capacity();
+        if (cursor < oldest) {
+            skipped = oldest - cursor;
+            cursor = oldest;
+        }
+
+        List<Entry<T>> entries = new ArrayList<>(Math.min(max, capacity()));
+        while (entries.size() < max && cursor < claimed.get()) {
+            Entry<T> entry = slots.get((int) (cursor & mask));
+            if (entry == null || entry.sequence() < cursor) {
+                break;
+            }
+            if (entry.sequence() > cursor) {
+                // Lapped while reading: jump to what is still in the ring
+                long nowOldest = claimed.get() - capacity();
+                skipped += nowOldest - cursor;
+                cursor = nowOldest;
+                continue;
+            }
+            entries.add(entry);
+            cursor++;
+        }
+        return new Batch<>(entries, cursor, skipped);
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.catalogueservice.service;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * An in-memory model kept up to date as rows are committed (record) and rebuilt from its table:
+ * id ranges of `chunkSize` ids are scanned in parallel into partials, combined into a new model
+ * and swapped in. Each chunk marks the ids it returned; rows recorded while the rebuild runs are
+ * kept by id and those no chunk returned (past the scanned range, or committed after their range
+ * was read) are replayed into the new model just before the swap, so nothing is lost or counted
+ * twice.
+ *
+ * @param <M> the model
+ * @param <R> what is recorded for one committed row
+ */
+public final class IdRangeRebuild<M, R> {
+
+    /**
+     * Scans [fromId, toId) into a partial; sets bit (id - fromId) of `seen` for every row it read.
+     */
+    @FunctionalInterface
+    public interface ChunkScanner<P> {
+        P scan(long fromId, long toId, BitSet seen);
+    }
+
+    private record Chunk<P>(long fromId, BitSet seen, P partial) {
+    }
+
+    private final String name;
+    private final String threadName;
+    private final BiConsumer<M, R> apply;
+    private final ReentrantLock running = new ReentrantLock();
+
+    private volatile M current;
+
+    // Rows committed while a rebuild runs, by id (guarded by "this", like every change to current)
+    private Map<Long, R> recordedDuringRebuild;
+
+    public IdRangeRebuild(String name, String threadName, M initial, BiConsumer<M, R> apply) {
+        this.name = name;
+        this.threadName = threadName;
+        this.current = initial;
+        this.apply = apply;
+    }
+
+    public M current() {
+        return current;
+    }
+
+    public boolean isRunning() {
+        return running.isLocked();
+    }
+
+    public synchronized void record(long id, R row) {
+        apply.accept(current, row);
+        if (recordedDuringRebuild != null) {
+            recordedDuringRebuild.putIfAbsent(id, row);
+        }
+    }
+
+    /**
+     * Rebuilds and swaps in the model; returns it.
+     *
+     * @param idRange [MIN(id), MAX(id)] of the table (one row, nulls when it is empty)
+     * @param build   combines the partials, in id order, into the new model
+     * @throws IllegalStateException when a rebuild is already running
+     */
+    public <P> M rebuild(Supplier<List<Object[]>> idRange, int threads, int chunkSize,
+                         ChunkScanner<P> scanner, Function<List<P>, M> build) {
+        if (!running.tryLock()) {
+            throw new IllegalStateException(name + " rebuild already running");
+        }
+        try {
+            synchronized (this) {
+                recordedDuringRebuild = new LinkedHashMap<>();
+            }
+
+            List<Chunk<P>> scanned = List.of();
+            long minId = 0;
+            long maxId = -1;
+            List<Object[]> range = idRange.get();
+            Object[] bounds = range.isEmpty() ? null : range.get(0);
+            if (bounds != null && bounds[0] != null) {
+                minId = ((Number) bounds[0]).longValue();
+                maxId = ((Number) bounds[1]).longValue();
+                scanned = scan(threadName, threads, minId, maxId, chunkSize, (fromId, toId) -> {
+                    BitSet seen = new BitSet((int) (toId - fromId));
+                    return new Chunk<>(fromId, seen, scanner.scan(fromId, toId, seen));
+                });
+            }
+            M fresh = build.apply(scanned.stream().map(Chunk::partial).toList());
+
+            synchronized (this) {
+                for (Map.Entry<Long, R> recorded : recordedDuringRebuild.entrySet()) {
+                    if (!seen(scanned, minId, maxId, chunkSize, recorded.getKey())) {
+                        apply.accept(fresh, recorded.getValue());
+                    }
+                }
+                recordedDuringRebuild = null;
+                current = fresh;
+            }
+            return fresh;
+        } finally {
+            synchronized (this) {
+                recordedDuringRebuild = null;
+            }
+            running.unlock();
+        }
+    }
+
+    /**
+     * Runs `task` over [minId, maxId] in ranges of `chunkSize` ids on a pool of `threads` daemon
+     * threads; returns the results in id order.
+     */
+    public static <T> List<T> scan(String threadName, int threads, long minId, long maxId, int chunkSize,
+                                   RangeTask<T> task) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, threadName + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<T>> chunks = new ArrayList<>();
+            for (long from = minId; from <= maxId; from += chunkSize) {
+                long fromId = from;
+                long toId = Math.min(maxId + 1, from + chunkSize);
+                chunks.add(workers.submit(() -> task.run(fromId, toId)));
+            }
+            List<T> results = new ArrayList<>(chunks.size());
+            for (Future<T> chunk : chunks) {
+                results.add(chunk.get());
+            }
+            return results;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Rebuild interrupted");
+        } catch (ExecutionException ex) {
+            throw new RuntimeException("Rebuild failed: " + ex.getCause().getMessage(), ex.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    public interface RangeTask<T> {
+        T run(long fromId, long toId);
+    }
+
+    // Rebuilds at startup run in the background: the service answers from the current model meanwhile
+    public static void startInBackground(String threadName, Runnable rebuild) {
+        Thread thread = new Thread(rebuild, threadName);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Chunks are chunkSize ids wide from minId, in order
+    private static boolean seen(List<? extends Chunk<?>> scanned, long minId, long maxId, int chunkSize, long id) {
+        if (id < minId || id > maxId) {
+            return false;
+        }
+        Chunk<?> chunk = scanned.get((int) ((id - minId) / chunkSize));
+        return chunk.seen().get((int) (id - chunk.fromId()));
+    }
+}
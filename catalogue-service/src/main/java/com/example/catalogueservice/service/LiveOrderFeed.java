@@ -0,0 +1,244 @@
+package com.example.catalogueservice.service;
+
+import com.example.catalogueservice.dto.LiveCountersDto;
+import com.example.catalogueservice.dto.LiveOrderEventDto;
+import com.example.catalogueservice.entity.UserOrderHistory;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live feed of recorded orders for the admin dashboard (server-sent events).
+ * Recorded orders go into a shared EventRing; every subscriber reads it with its own cursor on
+ * the sender pool, so ingest never waits on a dashboard. A subscriber that is lapped is skipped
+ * ahead to the oldest order still in the ring (and told how many it missed); one lapped
+ * `max-laps` times in a row is disconnected. Rolling per-minute counters are pushed every
+ * `counters-interval-ms`; only the latest snapshot is ever sent, which also keeps the
+ * connection alive.
+ * Order event ids are "<epoch>-<sequence>", the epoch being the instance start time: sequences
+ * restart at 0 with every run, so an id issued by another run starts the client from the backlog.
+ */
+@Component
+@Slf4j
+public class LiveOrderFeed {
+
+    public static final String ORDER_EVENT = "order";
+    public static final String COUNTERS_EVENT = "counters";
+    public static final String SKIPPED_EVENT = "skipped";
+
+    private final class Subscriber {
+        final SseEmitter emitter;
+        final AtomicBoolean busy = new AtomicBoolean();
+        final AtomicBoolean closed = new AtomicBoolean();
+        final AtomicBoolean countersPending = new AtomicBoolean(true);
+        volatile long cursor;
+        int consecutiveLaps; // only touched by the draining thread
+
+        Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+
+        void wake() {
+            if (!closed.get() && busy.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                do {
+                    while (!closed.get() && (countersPending.get() || cursor < ring.head())) {
+                        if (!sendPending()) {
+                            break;
+                        }
+                    }
+                    busy.set(false);
+                    // Something may have been published after the last read but before busy was reset
+                } while (!closed.get() && (countersPending.get() || cursor < ring.head())
+                        && busy.compareAndSet(false, true));
+            } catch (Exception ex) {
+                // Client went away
+                close(false);
+            }
+        }
+
+        // false when nothing could be read (a slot claimed but not written yet)
+        private boolean sendPending() throws Exception {
+            if (countersPending.compareAndSet(true, false)) {
+                emitter.send(SseEmitter.event().name(COUNTERS_EVENT).data(latestCounters));
+            }
+
+            EventRing.Batch<LiveOrderEventDto> batch = ring.read(cursor, batchSize);
+            if (batch.skipped() > 0) {
+                if (++consecutiveLaps > maxLaps) {
+                    log.info("🐢 Live order subscriber dropped after {} laps", consecutiveLaps - 1);
+                    close(true);
+                    return false;
+                }
+                emitter.send(SseEmitter.event().name(SKIPPED_EVENT).data(Map.of("skipped", batch.skipped())));
+            } else if (!batch.entries().isEmpty()) {
+                consecutiveLaps = 0;
+            }
+
+            for (EventRing.Entry<LiveOrderEventDto> entry : batch.entries()) {
+                emitter.send(SseEmitter.event()
+                        .name(ORDER_EVENT)
+                        .id(eventId(entry.sequence()))
+                        .data(entry.value()));
+            }
+            cursor = batch.next();
+            return !batch.entries().isEmpty() || batch.skipped() > 0;
+        }
+
+        void close(boolean complete) {
+            if (closed.compareAndSet(false, true)) {
+                subscribers.remove(this);
+                if (complete) {
+                    emitter.complete();
+                }
+            }
+        }
+    }
+
+    private final long epoch = System.currentTimeMillis();
+    private final EventRing<LiveOrderEventDto> ring;
+    private final RollingOrderCounters counters;
+    private final ExecutorService senders;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private volatile LiveCountersDto latestCounters;
+
+    @Value("${live.orders.batch-size:100}")
+    private int batchSize = 100;
+
+    @Value("${live.orders.max-laps:3}")
+    private int maxLaps = 3;
+
+    @Value("${live.orders.backlog:20}")
+    private int backlog = 20;
+
+    @Value("${live.orders.max-subscribers:50}")
+    private int maxSubscribers = 50;
+
+    @Value("${live.orders.timeout-ms:1800000}")
+    private long timeoutMs = 1_800_000L;
+
+    public LiveOrderFeed(@Value("${live.orders.ring-size:1024}") int ringSize,
+                         @Value("${live.orders.window-minutes:60}") int windowMinutes,
+                         @Value("${live.orders.sender-threads:2}") int senderThreads) {
+        this.ring = new EventRing<>(ringSize);
+        this.counters = new RollingOrderCounters(windowMinutes);
+        this.latestCounters = counters.snapshot(System.currentTimeMillis());
+        AtomicInteger threadCount = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "live-orders-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Publishes a recorded order once the current transaction commits (immediately without one).
+     */
+    public void publishAfterCommit(UserOrderHistory order, int itemCount) {
+        LiveOrderEventDto event = LiveOrderEventDto.builder()
+                .orderNumber(order.getOrderNumber())
+                .userId(order.getUserId())
+                .userName(order.getUserName())
+                .orderStatus(order.getOrderStatus())
+                .totalAmount(order.getTotalAmount())
+                .itemCount(itemCount)
+                .orderDate(order.getOrderDate())
+                .recordedAt(order.getRecordedAt() != null ? order.getRecordedAt() : LocalDateTime.now())
+                .build();
+
+        AfterCommit.run(() -> publish(event));
+    }
+
+    public void publish(LiveOrderEventDto event) {
+        counters.record(System.currentTimeMillis(), event.getTotalAmount());
+        ring.publish(event);
+        subscribers.forEach(Subscriber::wake);
+    }
+
+    /**
+     * Opens a feed. Resumes after lastEventId while it is still in the ring, otherwise (or when
+     * the id was issued by another run) starts with the last `backlog` orders.
+     *
+     * @throws IllegalArgumentException when lastEventId is not an event id
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        long resumeAfter = lastEventId != null ? sequenceOf(lastEventId) : -1;
+        if (subscribers.size() >= maxSubscribers) {
+            throw new IllegalStateException("Too many live order subscribers (max " + maxSubscribers + ")");
+        }
+
+        long head = ring.head();
+        long cursor = Math.max(0, head - Math.min(backlog, ring.capacity()));
+        if (resumeAfter >= 0 && resumeAfter >= head - ring.capacity() && resumeAfter < head) {
+            cursor = resumeAfter + 1;
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, cursor);
+        emitter.onCompletion(() -> subscriber.close(false));
+        emitter.onTimeout(() -> subscriber.close(true));
+        emitter.onError(ex -> subscriber.close(false));
+
+        subscribers.add(subscriber);
+        subscriber.wake();
+        log.debug("📡 Live order subscriber added ({} connected)", subscribers.size());
+        return emitter;
+    }
+
+    public LiveCountersDto getCounters() {
+        return counters.snapshot(System.currentTimeMillis());
+    }
+
+    @Scheduled(fixedDelayString = "${live.orders.counters-interval-ms:5000}")
+    public void pushCounters() {
+        latestCounters = counters.snapshot(System.currentTimeMillis());
+        subscribers.forEach(subscriber -> {
+            subscriber.countersPending.set(true);
+            subscriber.wake();
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.close(true));
+        senders.shutdownNow();
+    }
+
+    // "<epoch>-<sequence>"; -1 for ids of another run of this service (including the older bare numbers)
+    private long sequenceOf(String eventId) {
+        String trimmed = eventId.trim();
+        int dash = trimmed.indexOf('-');
+        if (dash < 0) {
+            Long.parseLong(trimmed);
+            return -1;
+        }
+        long idEpoch = Long.parseLong(trimmed.substring(0, dash));
+        long idSequence = Long.parseLong(trimmed.substring(dash + 1));
+        if (idSequence < 0) {
+            throw new IllegalArgumentException("Invalid event id: " + eventId);
+        }
+        return idEpoch == epoch ? idSequence : -1;
+    }
+
+    private String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.catalogueservice.service;
+
+import com.example.catalogueservice.dto.LiveCountersDto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Orders and revenue per minute over a sliding window, without locks.
+ * One bucket per minute of the window, reused round-robin: the first order of a new minute
+ * swaps in a fresh bucket, later orders of that minute only increment it.
+ */
+public final class RollingOrderCounters {
+
+    private static final long MINUTE_MS = 60_000L;
+
+    private static final class Bucket {
+        final long minute;
+        final AtomicLong orders = new AtomicLong();
+        final AtomicLong revenueCents = new AtomicLong();
+
+        Bucket(long minute) {
+            this.minute = minute;
+        }
+    }
+
+    private final AtomicReferenceArray<Bucket> buckets;
+    private final int windowMinutes;
+
+    public RollingOrderCounters(int windowMinutes) {
+        this.windowMinutes = windowMinutes;
+        this.buckets = new AtomicReferenceArray<>(windowMinutes);
+    }
+
+    public void record(long timestampMs, BigDecimal amount) {
+        Bucket bucket = bucketOf(timestampMs / MINUTE_MS);
+        bucket.orders.incrementAndGet();
+        if (amount != null) {
+            bucket.revenueCents.addAndGet(amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue());
+        }
+    }
+
+    public LiveCountersDto snapshot(long nowMs) {
+        long currentMinute = nowMs / MINUTE_MS;
+        List<LiveCountersDto.Minute> minutes = new ArrayList<>(windowMinutes);
+        long totalOrders = 0;
+        long totalCents = 0;
+
+        for (long minute = currentMinute - windowMinutes + 1; minute <= currentMinute; minute++) {
+            Bucket bucket = buckets.get(index(minute));
+            long orders = 0;
+            long cents = 0;
+            if (bucket != null && bucket.minute == minute) {
+                orders = bucket.orders.get();
+                cents = bucket.revenueCents.get();
+            }
+            totalOrders += orders;
+            totalCents += cents;
+            minutes.add(LiveCountersDto.Minute.builder()
+                    .minute(minute * MINUTE_MS)
+                    .orders(orders)
+                    .revenue(BigDecimal.valueOf(cents, 2))
+                    .build());
+        }
+
+        return LiveCountersDto.builder()
+                .windowMinutes(windowMinutes)
+                .orders(totalOrders)
+                .revenue(BigDecimal.valueOf(totalCents, 2))
+                .minutes(minutes)
+                .build();
+    }
+
+    private Bucket bucketOf(long minute) {
+        int index = index(minute);
+        while (true) {
+            Bucket bucket = buckets.get(index);
+            if (bucket != null && bucket.minute == minute) {
+                return bucket;
+            }
+            // Late event for a minute already rotated out: counted nowhere rather than in the wrong minute
+            if (bucket != null && bucket.minute > minute) {
+                return new Bucket(minute);
+            }
+            Bucket fresh = new Bucket(minute);
+            if (buckets.compareAndSet(index, bucket, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private int index(long minute) {
+        return (int) Math.floorMod(minute, (long) windowMinutes);
+    }
+}
@@ -0,0 +1,5 @@
+-- Ids used to come from IDENTITY columns: move each pooled sequence past the existing rows
+-- (runs after Hibernate's schema update; never moves a sequence backwards)
+SELECT setval('user_order_history_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM user_order_history) + 50, (SELECT last_value FROM user_order_history_seq)));
+SELECT setval('order_history_items_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM order_history_items) + 50, (SELECT last_value FROM order_history_items_seq)));
+SELECT setval('user_profiles_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM user_profiles) + 50, (SELECT last_value FROM user_profiles_seq)));
@@ -0,0 +1,115 @@
+package com.example.catalogueservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoPurchaseModelTest {
+
+    private static List<Long> ids(List<CoPurchaseModel.Neighbour> neighbours) {
+        return neighbours.stream().map(CoPurchaseModel.Neighbour::productId).toList();
+    }
+
+    @Test
+    void productsBoughtTogetherRankByCosineSimilarity() {
+        CoPurchaseModel model = new CoPurchaseModel(50, 20);
+        // Camera (1) goes with its lens (2) and memory card (3); the charger (9) is in every order
+        model.record(new long[] {1, 2, 9});
+        model.record(new long[] {1, 2, 3, 9});
+        model.record(new long[] {1, 3, 9});
+        for (int i = 0; i < 20; i++) {
+            model.record(new long[] {9, 100 + i});
+        }
+        model.name(2, "Lens");
+
+        List<CoPurchaseModel.Neighbour> neighbours = model.alsoBought(1, 10);
+
+        assertEquals(List.of(2L, 3L, 9L), ids(neighbours));
+        assertEquals("Lens", neighbours.get(0).productName());
+        assertEquals(2, neighbours.get(0).ordersTogether());
+        assertEquals(2 / Math.sqrt(3 * 2), neighbours.get(0).score(), 1e-9);
+        assertEquals(List.of(2L, 3L), ids(model.alsoBought(1, 2)));
+        assertEquals(List.of(), model.alsoBought(42, 10));
+    }
+
+    @Test
+    void repeatedProductsCountOnceAndBulkOrdersAddNoPairs() {
+        CoPurchaseModel model = new CoPurchaseModel(50, 3);
+        model.record(new long[] {1, 1, 2});
+        model.record(new long[] {1, 2, 3, 4});
+
+        assertEquals(2, model.ordersOf(1));
+        assertEquals(1, model.alsoBought(1, 10).get(0).ordersTogether());
+        assertEquals(List.of(2L), ids(model.alsoBought(1, 10)));
+        assertEquals(2, model.orderCount());
+        assertEquals(4, model.productCount());
+    }
+
+    @Test
+    void rowsArePrunedToTheMostFrequentNeighbours() {
+        CoPurchaseModel model = new CoPurchaseModel(2, 20);
+        for (int i = 0; i < 3; i++) {
+            model.record(new long[] {1, 2});
+            model.record(new long[] {1, 3});
+        }
+        for (long other = 10; other < 20; other++) {
+            model.record(new long[] {1, other});
+        }
+
+        List<CoPurchaseModel.Neighbour> neighbours = model.alsoBought(1, 50);
+
+        assertTrue(neighbours.size() <= 4, "row not pruned: " + neighbours.size());
+        assertTrue(ids(neighbours).containsAll(List.of(2L, 3L)));
+    }
+
+    @Test
+    void mergedPartialsMatchOneSequentialModel() {
+        long[][] orders = {{1, 2}, {1, 2, 3}, {2, 3}, {3, 4}, {1, 4}, {1, 2, 4}};
+        CoPurchaseModel sequential = new CoPurchaseModel(50, 20);
+        CoPurchaseModel first = new CoPurchaseModel(0, 20);
+        CoPurchaseModel second = new CoPurchaseModel(0, 20);
+        for (int i = 0; i < orders.length; i++) {
+            sequential.record(orders[i]);
+            (i < 3 ? first : second).record(orders[i]);
+        }
+        second.name(4, "Tripod");
+
+        CoPurchaseModel merged = new CoPurchaseModel(50, 20);
+        merged.merge(first);
+        merged.merge(second);
+
+        for (long product = 1; product <= 4; product++) {
+            assertEquals(sequential.alsoBought(product, 10).stream().map(n -> n.productId() + ":" + n.ordersTogether()).toList(),
+                    merged.alsoBought(product, 10).stream().map(n -> n.productId() + ":" + n.ordersTogether()).toList());
+        }
+        assertEquals(orders.length, merged.orderCount());
+        assertEquals("Tripod", merged.alsoBought(1, 10).stream()
+                .filter(n -> n.productId() == 4).findFirst().orElseThrow().productName());
+    }
+
+    @Test
+    void partialsArePrunedOnlyOnceMerged() {
+        // Product 2 is the top neighbour of 1 overall, but not within the first partial
+        CoPurchaseModel first = new CoPurchaseModel(0, 20);
+        first.record(new long[] {1, 2});
+        for (int i = 0; i < 2; i++) {
+            first.record(new long[] {1, 3});
+            first.record(new long[] {1, 4});
+        }
+        CoPurchaseModel second = new CoPurchaseModel(0, 20);
+        for (int i = 0; i < 3; i++) {
+            second.record(new long[] {1, 2});
+        }
+
+        CoPurchaseModel merged = new CoPurchaseModel(1, 20);
+        merged.merge(first);
+        merged.merge(second);
+        merged.prune();
+
+        List<CoPurchaseModel.Neighbour> neighbours = merged.alsoBought(1, 10);
+        assertEquals(List.of(2L), ids(neighbours));
+        assertEquals(4, neighbours.get(0).ordersTogether());
+    }
+}
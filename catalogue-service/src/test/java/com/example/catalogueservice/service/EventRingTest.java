@@ -0,0 +1,79 @@
+package com.example.catalogueservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventRingTest {
+
+    @Test
+    void readerGetsEventsInSequenceOrder() {
+        EventRing<String> ring = new EventRing<>(8);
+        ring.publish("a");
+        ring.publish("b");
+        ring.publish("c");
+
+        EventRing.Batch<String> batch = ring.read(1, 10);
+
+        assertEquals(List.of("b", "c"), batch.entries().stream().map(EventRing.Entry::value).toList());
+        assertEquals(3, batch.next());
+        assertEquals(0, batch.skipped());
+    }
+
+    @Test
+    void lappedReaderSkipsAheadToOldestEvent() {
+        EventRing<Integer> ring = new EventRing<>(4);
+        for (int i = 0; i < 10; i++) {
+            ring.publish(i);
+        }
+
+        EventRing.Batch<Integer> batch = ring.read(0, 10);
+
+        assertEquals(6, batch.skipped());
+        assertEquals(List.of(6, 7, 8, 9), batch.entries().stream().map(EventRing.Entry::value).toList());
+        assertEquals(10, batch.next());
+    }
+
+    @Test
+    void concurrentPublishersNeverLoseOrDuplicateSequences() throws Exception {
+        int threads = 8;
+        int perThread = 10_000;
+        EventRing<Long> ring = new EventRing<>(1 << 17);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    ring.publish(Thread.currentThread().getId());
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        EventRing.Batch<Long> batch = ring.read(0, threads * perThread);
+        assertEquals(threads * perThread, batch.entries().size());
+        for (int i = 0; i < batch.entries().size(); i++) {
+            assertEquals(i, batch.entries().get(i).sequence());
+        }
+    }
+
+    @Test
+    void rejectsCapacityThatIsNotAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new EventRing<>(100));
+    }
+}
@@ -0,0 +1,52 @@
+#!/usr/bin/env bash
+# Runs the same k6 load against a service jar twice - platform threads (today's Tomcat pool)
+# then virtual threads - and records throughput, latency, RSS and live thread count.
+#
+#   ./compare.sh <service-jar> <target-url> [token]
+#
+# The jar must be built with -Pjava21 and started on a Java 21 runtime.
+set -euo pipefail
+
+JAR=${1:?service jar}
+TARGET_URL=${2:?target url}
+TOKEN=${3:-}
+RESULTS=${RESULTS:-results}
+mkdir -p "$RESULTS"
+
+run() {
+  local mode=$1 virtual=$2
+  echo "▶ $mode threads"
+  java -Xmx512m -jar "$JAR" --spring.threads.virtual.enabled="$virtual" > "$RESULTS/$mode.log" 2>&1 &
+  local pid=$!
+  trap 'kill $pid 2>/dev/null || true' EXIT
+
+  # Wait until the port answers
+  until curl -s -o /dev/null "$TARGET_URL" -H "Authorization: Bearer $TOKEN"; do sleep 1; done
+
+  # Sample resident memory and JVM thread count every second during the run
+  ( while kill -0 "$pid" 2>/dev/null; do
+      echo "$(date +%s) $(ps -o rss= -p "$pid") $(ls /proc/"$pid"/task | wc -l)"
+      sleep 1
+    done ) > "$RESULTS/$mode-memory.txt" &
+  local sampler=$!
+
+  k6 run --quiet -e TARGET_URL="$TARGET_URL" -e TOKEN="$TOKEN" \
+      --summary-export "$RESULTS/$mode-summary.json" load.js
+
+  kill "$sampler" "$pid" 2>/dev/null || true
+  wait "$pid" 2>/dev/null || true
+  trap - EXIT
+
+  local rps p99 rss threads
+  rps=$(jq -r '.metrics.http_reqs.rate' "$RESULTS/$mode-summary.json")
+  p99=$(jq -r '.metrics.http_req_duration["p(99)"]' "$RESULTS/$mode-summary.json")
+  rss=$(awk 'max < $2 { max = $2 } END { print int(max / 1024) }' "$RESULTS/$mode-memory.txt")
+  threads=$(awk 'max < $3 { max = $3 } END { print max }' "$RESULTS/$mode-memory.txt")
+  printf '| %-8s | %10.0f | %10.1f | %9s | %11s |\n' "$mode" "$rps" "$p99" "$rss" "$threads" >> "$RESULTS/table.md"
+}
+
+echo '| mode     | req/s      | p99 (ms)   | peak RSS MB | peak threads |' > "$RESULTS/table.md"
+echo '|----------|------------|------------|-------------|--------------|' >> "$RESULTS/table.md"
+run platform false
+run virtual true
+cat "$RESULTS/table.md"
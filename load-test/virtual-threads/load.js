@@ -0,0 +1,26 @@
+// k6 scenario: 2000 concurrent connections against one blocking endpoint.
+//   k6 run -e TARGET_URL=http://localhost:8086/api/orders/my-orders -e TOKEN=<jwt> load.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const TARGET_URL = __ENV.TARGET_URL || 'http://localhost:8088/api/reviews/product/1';
+const VUS = parseInt(__ENV.VUS || '2000', 10);
+
+export const options = {
+    scenarios: {
+        constant: {
+            executor: 'constant-vus',
+            vus: VUS,
+            duration: __ENV.DURATION || '60s',
+            gracefulStop: '10s',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+const params = __ENV.TOKEN ? { headers: { Authorization: `Bearer ${__ENV.TOKEN}` } } : {};
+
+export default function () {
+    const res = http.get(TARGET_URL, params);
+    check(res, { 'status is 2xx': (r) => r.status >= 200 && r.status < 300 });
+}
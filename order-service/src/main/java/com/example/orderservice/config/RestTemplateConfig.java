@@ -1,14 +1,38 @@
 package com.example.orderservice.config;
 
+import org.springframework.boot.thread.Threading;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+
 @Configuration
 public class RestTemplateConfig {
 
+    // Built from the auto-configured builder so outbound calls are recorded as http.client.requests
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(RestTemplateBuilder builder, Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            // java.net.http client: blocks the calling virtual thread without pinning its carrier
+            builder = builder.requestFactory(() -> {
+                HttpClient httpClient = HttpClient.newBuilder()
+                        .executor(new VirtualThreadTaskExecutor("catalogue-http-"))
+                        .connectTimeout(Duration.ofSeconds(5))
+                        .build();
+                JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+                requestFactory.setReadTimeout(Duration.ofSeconds(10));
+                return requestFactory;
+            });
+        } else {
+            builder = builder.setConnectTimeout(Duration.ofSeconds(5))
+                    .setReadTimeout(Duration.ofSeconds(10));
+        }
+        return builder.build();
     }
-}
\ No newline at end of file
+}
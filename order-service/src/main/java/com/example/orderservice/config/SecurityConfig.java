@@ -2,6 +2,7 @@ package com.example.orderservice.config;
 
 import com.example.orderservice.security.JwtAuthFilter;
 import com.example.orderservice.security.JwtUtil;
+import com.example.orderservice.security.VerifiedTokenCache;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -15,9 +16,11 @@ import org.springframework.http.HttpMethod;
 public class SecurityConfig {
 
     private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache verifiedTokenCache;
 
-    public SecurityConfig(JwtUtil jwtUtil) {
+    public SecurityConfig(JwtUtil jwtUtil, VerifiedTokenCache verifiedTokenCache) {
         this.jwtUtil = jwtUtil;
+        this.verifiedTokenCache = verifiedTokenCache;
     }
 
     @Bean
@@ -31,7 +34,7 @@ public class SecurityConfig {
                         .anyRequest().permitAll()
                 )
                 // ✅ Add JWT filter BEFORE authentication
-                .addFilterBefore(new JwtAuthFilter(jwtUtil), UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(new JwtAuthFilter(jwtUtil, verifiedTokenCache), UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
         
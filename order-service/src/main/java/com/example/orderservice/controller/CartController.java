@@ -0,0 +1,138 @@
+package com.example.orderservice.controller;
+
+import com.example.orderservice.dto.CheckoutRequest;
+import com.example.orderservice.dto.CreateOrderRequest;
+import com.example.orderservice.dto.OrderDto;
+import com.example.orderservice.service.CartService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/cart")
+@CrossOrigin(origins = "*")
+public class CartController {
+
+    private static final Logger logger = LoggerFactory.getLogger(CartController.class);
+    private static final ResponseEntity<?> UNAUTHORIZED = ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+            .body(Map.of("error", "User not authenticated"));
+
+    private final CartService cartService;
+
+    public CartController(CartService cartService) {
+        this.cartService = cartService;
+    }
+
+    // ✅ Get cart
+    @GetMapping
+    public ResponseEntity<?> getCart(HttpServletRequest request) {
+        Long userId = (Long) request.getAttribute("userId");
+        if (userId == null) {
+            return UNAUTHORIZED;
+        }
+        return ResponseEntity.ok(cartService.getCart(userId));
+    }
+
+    // ✅ Add item { productId, quantity }
+    @PostMapping("/items")
+    public ResponseEntity<?> addItem(@RequestBody CreateOrderRequest.CartItem item, HttpServletRequest request) {
+        Long userId = (Long) request.getAttribute("userId");
+        if (userId == null) {
+            return UNAUTHORIZED;
+        }
+        try {
+            return ResponseEntity.ok(cartService.addItem(userId, item.getProductId(), item.getQuantity()));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    // ✅ Update quantity
+    @PutMapping("/items/{productId}")
+    public ResponseEntity<?> updateItem(
+            @PathVariable Long productId,
+            @RequestParam Integer quantity,
+            HttpServletRequest request) {
+        Long userId = (Long) request.getAttribute("userId");
+        if (userId == null) {
+            return UNAUTHORIZED;
+        }
+        try {
+            return ResponseEntity.ok(cartService.updateItem(userId, productId, quantity));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    // ✅ Remove item
+    @DeleteMapping("/items/{productId}")
+    public ResponseEntity<?> removeItem(@PathVariable Long productId, HttpServletRequest request) {
+        Long userId = (Long) request.getAttribute("userId");
+        if (userId == null) {
+            return UNAUTHORIZED;
+        }
+        return ResponseEntity.ok(cartService.removeItem(userId, productId));
+    }
+
+    // ✅ Empty cart
+    @DeleteMapping
+    public ResponseEntity<?> clearCart(HttpServletRequest request) {
+        Long userId = (Long) request.getAttribute("userId");
+        if (userId == null) {
+            return UNAUTHORIZED;
+        }
+        cartService.clearCart(userId);
+        return ResponseEntity.noContent().build();
+    }
+
+    // ✅ Reserve the cart's stock before checkout
+    @PostMapping("/reservation")
+    public ResponseEntity<?> reserve(HttpServletRequest request) {
+        Long userId = (Long) request.getAttribute("userId");
+        if (userId == null) {
+            return UNAUTHORIZED;
+        }
+        try {
+            return ResponseEntity.ok(cartService.reserve(userId));
+        } catch (IllegalArgumentException ex) {
+            logger.error("❌ Reservation refused: {}", ex.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    // ✅ Release the reservation
+    @DeleteMapping("/reservation")
+    public ResponseEntity<?> releaseReservation(HttpServletRequest request) {
+        Long userId = (Long) request.getAttribute("userId");
+        if (userId == null) {
+            return UNAUTHORIZED;
+        }
+        cartService.releaseReservation(userId);
+        return ResponseEntity.noContent().build();
+    }
+
+    // ✅ Checkout: creates the order from the stored cart
+    @PostMapping("/checkout")
+    public ResponseEntity<?> checkout(@RequestBody CheckoutRequest checkoutRequest, HttpServletRequest request) {
+        Long userId = (Long) request.getAttribute("userId");
+        if (userId == null) {
+            return UNAUTHORIZED;
+        }
+        try {
+            logger.info("🛒 Checkout for user: {}", userId);
+            OrderDto orderDto = cartService.checkout(userId, checkoutRequest);
+            return ResponseEntity.status(HttpStatus.CREATED).body(orderDto);
+        } catch (IllegalArgumentException ex) {
+            logger.error("❌ Checkout refused: {}", ex.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        } catch (Exception ex) {
+            logger.error("❌ Error during checkout: {}", ex.getMessage(), ex);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to checkout: " + ex.getMessage()));
+        }
+    }
+}
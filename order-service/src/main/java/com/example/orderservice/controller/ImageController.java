@@ -0,0 +1,157 @@
+package com.example.orderservice.controller;
+
+import com.example.orderservice.dto.ImageDto;
+import com.example.orderservice.security.JwtAuthFilter;
+import com.example.orderservice.security.VerifiedToken;
+import com.example.orderservice.service.ImageStore;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Content-hashed images: /images/h/{hash}.{ext} and /images/h/{hash}-{width}.{ext}.
+ * The URL changes whenever the bytes change, so responses are cacheable forever (immutable).
+ * The legacy /images/** paths are still served by Spring's default static resource handler.
+ */
+@RestController
+@CrossOrigin(origins = "*")
+public class ImageController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageController.class);
+
+    private static final String CACHE_FOREVER = "public, max-age=31536000, immutable";
+    private static final Pattern SINGLE_RANGE = Pattern.compile("bytes=(\\d*)-(\\d*)");
+
+    // Tomcat sendfile: the connector streams the file straight from the page cache to the socket
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final ImageStore imageStore;
+
+    public ImageController(ImageStore imageStore) {
+        this.imageStore = imageStore;
+    }
+
+    // ✅ Upload an image (Admin only) - thumbnails are generated right away
+    @PostMapping("/api/images")
+    public ResponseEntity<?> upload(@RequestParam("file") MultipartFile file, HttpServletRequest request) {
+        VerifiedToken claims = (VerifiedToken) request.getAttribute(JwtAuthFilter.CLAIMS_ATTRIBUTE);
+        if (claims == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", "User not authenticated"));
+        }
+        if (!claims.isAdmin()) {
+            logger.warn("⛔ Image upload refused for user {}", claims.userId());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Admin role required"));
+        }
+        try {
+            ImageDto image = imageStore.store(file.getBytes(), file.getOriginalFilename());
+            logger.info("🖼️ Image uploaded: {}", image.getPath());
+            return ResponseEntity.status(HttpStatus.CREATED).body(image);
+        } catch (IllegalArgumentException ex) {
+            logger.error("❌ Invalid image: {}", ex.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        } catch (Exception ex) {
+            logger.error("❌ Image upload failed: {}", ex.getMessage());
+            return ResponseEntity.internalServerError().body(Map.of("error", "Image upload failed"));
+        }
+    }
+
+    // ✅ Serve an original or a thumbnail (ETag, Range, zero-copy transfer)
+    @GetMapping("/images/" + ImageStore.HASHED_PREFIX + "{file:.+}")
+    public void serve(@PathVariable String file, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Path path = imageStore.resolve(file);
+        if (path == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        String etag = "\"" + file.substring(0, file.lastIndexOf('.')) + "\"";
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_FOREVER);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        response.setContentType(MediaTypeFactory.getMediaType(file)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+
+        long length = Files.size(path);
+        long start = 0;
+        long end = length; // exclusive
+
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            Matcher matcher = SINGLE_RANGE.matcher(range.trim());
+            // Multi-range requests are answered with the full body, which RFC 9110 allows
+            if (matcher.matches() && !(matcher.group(1).isEmpty() && matcher.group(2).isEmpty())) {
+                if (matcher.group(1).isEmpty()) {
+                    // Suffix range: the last N bytes
+                    start = Math.max(0, length - Long.parseLong(matcher.group(2)));
+                } else {
+                    start = Long.parseLong(matcher.group(1));
+                    if (!matcher.group(2).isEmpty()) {
+                        end = Math.min(length, Long.parseLong(matcher.group(2)) + 1);
+                    }
+                }
+                if (start >= length || start >= end) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE,
+                        "bytes " + start + "-" + (end - 1) + "/" + length);
+            }
+        }
+
+        response.setContentLengthLong(end - start);
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+            return;
+        }
+
+        // Other containers: let the kernel copy from the file channel where it can
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position < end) {
+                position += channel.transferTo(position, end - position, out);
+            }
+        }
+    }
+}
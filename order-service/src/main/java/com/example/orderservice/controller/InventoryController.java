@@ -0,0 +1,56 @@
+package com.example.orderservice.controller;
+
+import com.example.orderservice.service.StockLedger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/inventory")
+@CrossOrigin(origins = "*")
+public class InventoryController {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryController.class);
+    private static final int MAX_BATCH = 200;
+
+    private final StockLedger stockLedger;
+
+    public InventoryController(StockLedger stockLedger) {
+        this.stockLedger = stockLedger;
+    }
+
+    // ✅ Stock of one product
+    @GetMapping("/{productId}")
+    public ResponseEntity<?> getStock(@PathVariable Long productId) {
+        return ResponseEntity.ok(stockLedger.getStock(productId));
+    }
+
+    // ✅ Stock of several products: ?productIds=1,2,3
+    @GetMapping
+    public ResponseEntity<?> getStocks(@RequestParam List<Long> productIds) {
+        if (productIds.size() > MAX_BATCH) {
+            return ResponseEntity.badRequest().body(Map.of("error", "At most " + MAX_BATCH + " products per request"));
+        }
+        return ResponseEntity.ok(productIds.stream().distinct().map(stockLedger::getStock).collect(Collectors.toList()));
+    }
+
+    // ✅ Restock / write-off { "delta": 50 } (Admin only)
+    @PostMapping("/{productId}/adjustments")
+    public ResponseEntity<?> adjust(@PathVariable Long productId, @RequestBody Map<String, Integer> body) {
+        Integer delta = body.get("delta");
+        if (delta == null || delta == 0) {
+            return ResponseEntity.badRequest().body(Map.of("error", "A non-zero delta is required"));
+        }
+        try {
+            return ResponseEntity.ok(stockLedger.adjust(productId, delta));
+        } catch (IllegalArgumentException ex) {
+            logger.error("❌ Stock adjustment refused: {}", ex.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        }
+    }
+}
@@ -1,16 +1,25 @@
 package com.example.orderservice.controller;
 
+import com.example.orderservice.dto.BulkStatusUpdateRequest;
 import com.example.orderservice.dto.CreateOrderRequest;
 import com.example.orderservice.dto.OrderDto;
+import com.example.orderservice.dto.OrderPageDto;
+import com.example.orderservice.dto.OrderSearchCriteria;
 import com.example.orderservice.dto.CartItemDTO;
 import com.example.orderservice.entity.OrderStatus;
+import com.example.orderservice.service.OrderBulkStatusService;
 import com.example.orderservice.service.OrderService;
+import com.example.orderservice.service.OrderStatusBroadcaster;
+import com.example.orderservice.service.ProductService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
@@ -21,9 +30,18 @@ public class OrderController {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderController.class);
     private final OrderService orderService;
-
-    public OrderController(OrderService orderService) {
+    private final ProductService productService;
+    private final OrderBulkStatusService orderBulkStatusService;
+    private final OrderStatusBroadcaster orderStatusBroadcaster;
+
+    public OrderController(OrderService orderService,
+                           ProductService productService,
+                           OrderBulkStatusService orderBulkStatusService,
+                           OrderStatusBroadcaster orderStatusBroadcaster) {
         this.orderService = orderService;
+        this.productService = productService;
+        this.orderBulkStatusService = orderBulkStatusService;
+        this.orderStatusBroadcaster = orderStatusBroadcaster;
     }
 
     // ✅ Create order
@@ -59,9 +77,12 @@ public class OrderController {
         }
     }
 
-    // ✅ Get user's orders
+    // ✅ Get user's orders (paginated, newest first)
     @GetMapping("/my-orders")
-    public ResponseEntity<?> getUserOrders(HttpServletRequest request) {
+    public ResponseEntity<?> getUserOrders(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            HttpServletRequest request) {
         try {
             Long userId = (Long) request.getAttribute("userId");
 
@@ -71,13 +92,12 @@ public class OrderController {
             }
 
             logger.info("📋 Fetching orders for user: {}", userId);
-            List<OrderDto> orders = orderService.getUserOrders(userId);
+            OrderPageDto page = orderService.getUserOrders(userId, cursor, size);
 
-            return ResponseEntity.ok(Map.of(
-                    "orders", orders,
-                    "count", orders.size()
-            ));
+            return ResponseEntity.ok(page);
 
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
         } catch (Exception ex) {
             logger.error("❌ Error fetching orders: {}", ex.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -85,6 +105,39 @@ public class OrderController {
         }
     }
 
+    // ✅ Live status changes of the user's orders (server-sent events, replaces polling).
+    // EventSource sends Last-Event-ID by itself on reconnect; a new page can pass ?lastEventId=
+    @GetMapping("/stream")
+    public ResponseEntity<?> streamOrderStatuses(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @RequestParam(required = false) String lastEventId,
+            HttpServletRequest request) {
+        Long userId = (Long) request.getAttribute("userId");
+
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", "User not authenticated"));
+        }
+
+        String resumeFrom = lastEventIdHeader != null ? lastEventIdHeader : lastEventId;
+        String cursor = resumeFrom != null && !resumeFrom.isBlank() ? resumeFrom : null;
+
+        SseEmitter emitter;
+        try {
+            emitter = orderStatusBroadcaster.subscribe(userId, cursor);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest()
+                        .body(Map.of("error", "Invalid Last-Event-ID: " + resumeFrom));
+        }
+        logger.debug("📡 Order stream opened for user {} (resume from {})", userId, cursor);
+
+        return ResponseEntity.ok()
+                .header("Cache-Control", "no-cache")
+                // Keep reverse proxies (nginx) from buffering the stream
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+
     // ✅ Get specific order
     @GetMapping("/{orderId}")
     public ResponseEntity<?> getOrder(
@@ -145,6 +198,10 @@ public class OrderController {
         } catch (IllegalArgumentException ex) {
             logger.error("❌ Cannot cancel order: {}", ex.getMessage());
             return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        } catch (IllegalStateException ex) {
+            // Delivered, already cancelled, or changed by someone else meanwhile
+            logger.error("❌ Cannot cancel order: {}", ex.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", ex.getMessage()));
         } catch (Exception ex) {
             logger.error("❌ Error cancelling order: {}", ex.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -161,15 +218,68 @@ public class OrderController {
             logger.info("🔄 Updating order {} status to {}", orderId, status);
             OrderDto orderDto = orderService.updateOrderStatus(orderId, status);
             return ResponseEntity.ok(orderDto);
+        } catch (IllegalStateException ex) {
+            // Transition not allowed from the current status (the bulk endpoint reports it per order)
+            logger.error("❌ Cannot update status: {}", ex.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", ex.getMessage()));
         } catch (Exception ex) {
             logger.error("❌ Error updating status: {}", ex.getMessage());
             return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
         }
     }
 
+    // ✅ Bulk status update (Admin only) - list of (orderId, status) or filter + targetStatus
+    @PostMapping("/status/bulk")
+    public ResponseEntity<?> updateOrderStatuses(@RequestBody BulkStatusUpdateRequest request) {
+        try {
+            return ResponseEntity.ok(orderBulkStatusService.updateStatuses(request));
+        } catch (IllegalArgumentException ex) {
+            logger.error("❌ Invalid bulk status update: {}", ex.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        } catch (Exception ex) {
+            logger.error("❌ Error in bulk status update: {}", ex.getMessage(), ex);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to update statuses: " + ex.getMessage()));
+        }
+    }
+
+    // ✅ Admin order search (keyset pagination, newest first): every filter is optional
+    // e.g. ?status=PENDING&status=CONFIRMED&createdFrom=2024-01-01T00:00:00Z&minAmount=100&productId=3
+    @GetMapping("/admin/search")
+    public ResponseEntity<?> searchOrders(
+            @RequestParam(name = "status", required = false) List<OrderStatus> statuses,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date createdTo,
+            @RequestParam(required = false) Double minAmount,
+            @RequestParam(required = false) Double maxAmount,
+            @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        try {
+            OrderSearchCriteria criteria = OrderSearchCriteria.builder()
+                    .statuses(statuses)
+                    .userId(userId)
+                    .createdFrom(createdFrom)
+                    .createdTo(createdTo)
+                    .minAmount(minAmount)
+                    .maxAmount(maxAmount)
+                    .productId(productId)
+                    .build();
+            return ResponseEntity.ok(orderService.searchOrders(criteria, cursor, size));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        } catch (Exception ex) {
+            logger.error("❌ Error searching orders: {}", ex.getMessage(), ex);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to search orders"));
+        }
+    }
+
+    // Kept for the shop page: now served from the cached product catalogue, not from order_items
     @GetMapping("/cart-items")
     public ResponseEntity<List<CartItemDTO>> getAllCartItems() {
-        List<CartItemDTO> items = orderService.getAllCartItems();
+        List<CartItemDTO> items = productService.getAllAsCartItems();
         return ResponseEntity.ok(items);
     }
 
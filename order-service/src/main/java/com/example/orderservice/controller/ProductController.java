@@ -0,0 +1,74 @@
+package com.example.orderservice.controller;
+
+import com.example.orderservice.dto.ProductDto;
+import com.example.orderservice.service.ProductService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/products")
+@CrossOrigin(origins = "*")
+public class ProductController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductController.class);
+    private final ProductService productService;
+
+    public ProductController(ProductService productService) {
+        this.productService = productService;
+    }
+
+    // ✅ List products (paginated)
+    @GetMapping
+    public ResponseEntity<?> listProducts(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(productService.listProducts(page, size));
+    }
+
+    // ✅ Get product
+    @GetMapping("/{productId}")
+    public ResponseEntity<?> getProduct(@PathVariable Long productId) {
+        try {
+            return ResponseEntity.ok(productService.getProduct(productId));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    // ✅ Create product (Admin only)
+    @PostMapping
+    public ResponseEntity<?> createProduct(@RequestBody ProductDto request) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(productService.createProduct(request));
+        } catch (IllegalArgumentException ex) {
+            logger.error("❌ Invalid product: {}", ex.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    // ✅ Update product (Admin only)
+    @PutMapping("/{productId}")
+    public ResponseEntity<?> updateProduct(@PathVariable Long productId, @RequestBody ProductDto request) {
+        try {
+            return ResponseEntity.ok(productService.updateProduct(productId, request));
+        } catch (IllegalArgumentException ex) {
+            logger.error("❌ Invalid product update: {}", ex.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    // ✅ Deactivate product (Admin only)
+    @DeleteMapping("/{productId}")
+    public ResponseEntity<?> deactivateProduct(@PathVariable Long productId) {
+        try {
+            productService.deactivateProduct(productId);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", ex.getMessage()));
+        }
+    }
+}
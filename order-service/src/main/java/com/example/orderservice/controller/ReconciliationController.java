@@ -0,0 +1,57 @@
+package com.example.orderservice.controller;
+
+import com.example.orderservice.service.OrderReconciliationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/orders/reconciliation")
+@CrossOrigin(origins = "*")
+public class ReconciliationController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReconciliationController.class);
+    private final OrderReconciliationService reconciliationService;
+
+    public ReconciliationController(OrderReconciliationService reconciliationService) {
+        this.reconciliationService = reconciliationService;
+    }
+
+    // ✅ Digests of [from, to) per bucket of `width` ids
+    @GetMapping("/digests")
+    public ResponseEntity<?> digests(@RequestParam long from, @RequestParam long to, @RequestParam long width) {
+        try {
+            return ResponseEntity.ok(reconciliationService.digests(from, to, width));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    // ✅ Rows of a leaf range
+    @GetMapping("/rows")
+    public ResponseEntity<?> rows(@RequestParam long from, @RequestParam long to) {
+        try {
+            return ResponseEntity.ok(reconciliationService.rows(from, to));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    // ✅ Run a check + repair now (Admin only)
+    @PostMapping("/run")
+    public ResponseEntity<?> run() {
+        try {
+            return ResponseEntity.ok(reconciliationService.reconcile());
+        } catch (IllegalStateException ex) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", ex.getMessage()));
+        } catch (Exception ex) {
+            logger.error("❌ Reconciliation failed: {}", ex.getMessage(), ex);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Reconciliation failed: " + ex.getMessage()));
+        }
+    }
+}
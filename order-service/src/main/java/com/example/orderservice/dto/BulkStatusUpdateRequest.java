@@ -0,0 +1,41 @@
+package com.example.orderservice.dto;
+
+import com.example.orderservice.entity.OrderStatus;
+import lombok.*;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Either an explicit list of (orderId, status) pairs, or a filter + targetStatus.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkStatusUpdateRequest {
+    private List<Update> updates;
+
+    private Filter filter;
+    private OrderStatus targetStatus;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Update {
+        private Long orderId;
+        private OrderStatus status;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Filter {
+        private OrderStatus currentStatus;
+        private Long userId;
+        private Date createdAfter;
+        private Date createdBefore;
+        private Integer limit;
+    }
+}
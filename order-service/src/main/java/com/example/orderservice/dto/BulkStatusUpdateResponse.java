@@ -0,0 +1,35 @@
+package com.example.orderservice.dto;
+
+import com.example.orderservice.entity.OrderStatus;
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkStatusUpdateResponse {
+    private Integer requested;
+    private Integer updated;
+    private Integer failed;
+    private List<Result> results;
+
+    public enum Outcome {
+        UPDATED,
+        UNCHANGED,
+        NOT_FOUND,
+        INVALID_TRANSITION,
+        CONFLICT
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Result {
+        private Long orderId;
+        private OrderStatus previousStatus;
+        private OrderStatus status;
+        private Outcome outcome;
+    }
+}
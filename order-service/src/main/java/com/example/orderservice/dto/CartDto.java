@@ -0,0 +1,14 @@
+package com.example.orderservice.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CartDto {
+    private List<CreateOrderRequest.CartItem> items;
+    private Integer itemCount;
+    private Double totalAmount;
+}
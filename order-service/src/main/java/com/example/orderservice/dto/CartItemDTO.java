@@ -6,6 +6,7 @@ public class CartItemDTO {
     private String productName;
     private Double price;
     private String image;
+    private String thumbnail;
 
     public CartItemDTO() {}
 
@@ -19,6 +20,9 @@ public class CartItemDTO {
     public String getImage() { return image; }
     public void setImage(String image) { this.image = image; }
 
+    public String getThumbnail() { return thumbnail; }
+    public void setThumbnail(String thumbnail) { this.thumbnail = thumbnail; }
+
     public Long getProductId() { return productId; }
     public void setProductId(Long productId) { this.productId = productId; }
 
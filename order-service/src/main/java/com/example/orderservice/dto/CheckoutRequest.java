@@ -0,0 +1,13 @@
+package com.example.orderservice.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CheckoutRequest {
+    private String shippingAddress;
+    private String userName;
+    private String userEmail;
+}
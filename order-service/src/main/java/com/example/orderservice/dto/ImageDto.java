@@ -0,0 +1,16 @@
+package com.example.orderservice.dto;
+
+import lombok.*;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImageDto {
+    private String hash;
+
+    // Paths relative to /images, e.g. "h/<hash>.png" - usable as a product image
+    private String path;
+    private Map<Integer, String> thumbnails;
+}
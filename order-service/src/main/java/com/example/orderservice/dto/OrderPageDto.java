@@ -0,0 +1,17 @@
+package com.example.orderservice.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderPageDto {
+    private List<OrderDto> orders;
+    private Integer count;
+
+    // Opaque keyset cursor to pass back as ?cursor=..., null on the last page
+    private String nextCursor;
+    private boolean hasMore;
+}
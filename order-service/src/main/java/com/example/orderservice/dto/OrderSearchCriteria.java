@@ -0,0 +1,21 @@
+package com.example.orderservice.dto;
+
+import com.example.orderservice.entity.OrderStatus;
+import lombok.*;
+import java.util.Date;
+import java.util.List;
+
+// Admin search filters; null = not filtered
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderSearchCriteria {
+    private List<OrderStatus> statuses;
+    private Long userId;
+    private Date createdFrom;  // inclusive
+    private Date createdTo;    // exclusive
+    private Double minAmount;
+    private Double maxAmount;
+    private Long productId;
+}
@@ -0,0 +1,12 @@
+package com.example.orderservice.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderStatusChangeDto {
+    private String orderNumber;
+    private String status;
+}
@@ -0,0 +1,17 @@
+package com.example.orderservice.dto;
+
+import com.example.orderservice.entity.OrderStatus;
+import lombok.*;
+
+import java.util.Date;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderStatusUpdateDto {
+    private Long orderId;
+    private String orderNumber;
+    private OrderStatus status;
+    private Date changedAt;
+}
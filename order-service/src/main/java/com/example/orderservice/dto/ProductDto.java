@@ -0,0 +1,18 @@
+package com.example.orderservice.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductDto {
+    private Long id;
+    private String name;
+    private String description;
+    private Double price;
+    private String image;
+    private String thumbnail;
+    private String category;
+    private Boolean active;
+}
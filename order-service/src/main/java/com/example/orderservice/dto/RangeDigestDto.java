@@ -0,0 +1,15 @@
+package com.example.orderservice.dto;
+
+import lombok.*;
+
+// Digest of the orders whose id is in [from, to): row count + sum of row hashes
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RangeDigestDto {
+    private Long from;
+    private Long to;
+    private Long count;
+    private String digest;
+}
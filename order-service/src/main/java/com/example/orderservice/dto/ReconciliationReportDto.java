@@ -0,0 +1,18 @@
+package com.example.orderservice.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReconciliationReportDto {
+    private long rangesCompared;
+    private long leavesCompared;
+    private long rowsCompared;
+    private long missingInCatalogue;
+    private long mismatched;
+    private long extraInCatalogue;
+    private long repaired;
+    private long durationMs;
+}
@@ -0,0 +1,15 @@
+package com.example.orderservice.dto;
+
+import lombok.*;
+
+// The fields compared by reconciliation, amount in cents so both sides round the same way
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReconciliationRowDto {
+    private Long orderId;
+    private String orderNumber;
+    private String status;
+    private Long amountCents;
+}
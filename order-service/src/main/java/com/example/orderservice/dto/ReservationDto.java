@@ -0,0 +1,17 @@
+package com.example.orderservice.dto;
+
+import lombok.*;
+import java.util.Date;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReservationDto {
+    private String reservationId;
+
+    // Held units per tracked product (untracked products are not listed)
+    private Map<Long, Integer> quantities;
+    private Date expiresAt;
+}
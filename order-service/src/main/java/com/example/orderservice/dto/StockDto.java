@@ -0,0 +1,17 @@
+package com.example.orderservice.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockDto {
+    private Long productId;
+
+    // false: no stock row for this product, sales are not limited
+    private boolean tracked;
+    private Long available;
+    private Long reserved;
+    private Long onHand;
+}
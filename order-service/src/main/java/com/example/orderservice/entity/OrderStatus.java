@@ -6,5 +6,16 @@ public enum OrderStatus {
     PROCESSING,
     SHIPPED,
     DELIVERED,
-    CANCELLED
+    CANCELLED;
+
+    // Fulfilment only moves forward; cancellation is possible until delivery
+    public boolean canTransitionTo(OrderStatus next) {
+        if (this == DELIVERED || this == CANCELLED) {
+            return false;
+        }
+        if (next == CANCELLED) {
+            return true;
+        }
+        return next.ordinal() > this.ordinal();
+    }
 }
@@ -0,0 +1,38 @@
+package com.example.orderservice.entity;
+
+import jakarta.persistence.*;
+import java.util.Date;
+
+/**
+ * Units on hand per product (not yet sold). Written only by StockJournal; reservations live in memory.
+ * Products without a row are not stock-tracked.
+ */
+@Entity
+@Table(name = "product_stock")
+public class ProductStock {
+    @Id
+    private Long productId;
+
+    @Column(nullable = false)
+    private long onHand;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date updatedAt;
+
+    public ProductStock() {}
+
+    public ProductStock(Long productId, long onHand) {
+        this.productId = productId;
+        this.onHand = onHand;
+        this.updatedAt = new Date();
+    }
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public long getOnHand() { return onHand; }
+    public void setOnHand(long onHand) { this.onHand = onHand; }
+
+    public Date getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Date updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,53 @@
+package com.example.orderservice.entity;
+
+import jakarta.persistence.*;
+import java.util.Date;
+
+// Append-only stock journal: every change to on-hand stock, with the order (or admin) that caused it
+@Entity
+@Table(name = "stock_movements", indexes = {
+        @Index(name = "idx_stock_movements_product", columnList = "product_id, created_at"),
+        @Index(name = "idx_stock_movements_reference", columnList = "reference")
+})
+public class StockMovement {
+
+    public enum Type { ADJUSTMENT, SALE, RETURN }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_movements_seq")
+    @SequenceGenerator(name = "stock_movements_seq", sequenceName = "stock_movements_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private int delta;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Type type;
+
+    private String reference; // order number for sales and returns
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "created_at", nullable = false)
+    private Date createdAt;
+
+    public StockMovement() {}
+
+    public StockMovement(Long productId, int delta, Type type, String reference) {
+        this.productId = productId;
+        this.delta = delta;
+        this.type = type;
+        this.reference = reference;
+        this.createdAt = new Date();
+    }
+
+    public Long getId() { return id; }
+    public Long getProductId() { return productId; }
+    public int getDelta() { return delta; }
+    public Type getType() { return type; }
+    public String getReference() { return reference; }
+    public Date getCreatedAt() { return createdAt; }
+}
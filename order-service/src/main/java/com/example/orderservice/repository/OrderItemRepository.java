@@ -2,9 +2,20 @@ package com.example.orderservice.repository;
 
 import com.example.orderservice.entity.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
-    // هنا ما خصنا حتى شي function إضافية، JpaRepository فيها findAll() ديجا
+    // Second query of the my-orders page: all items of the page's orders at once
+    @Query("SELECT i FROM OrderItem i WHERE i.order.id IN :orderIds")
+    List<OrderItem> findByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    // [productId, productName, price, image] of every product ever sold - used once to seed the product table
+    @Query("SELECT i.productId, MAX(i.productName), MAX(i.price), MAX(i.image) " +
+            "FROM OrderItem i GROUP BY i.productId")
+    List<Object[]> findDistinctProducts();
 }
@@ -1,14 +1,21 @@
 package com.example.orderservice.repository;
 
 import com.example.orderservice.entity.*;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
-    List<Order> findByUserId(Long userId);
+public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order> {
     Optional<Order> findByOrderNumber(String orderNumber);
     boolean existsByUserIdAndStatusAndItems_ProductId(
             Long userId,
@@ -17,4 +24,89 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     );
     List<Order> findByUserIdAndStatus(Long userId, OrderStatus status);
 
-}
\ No newline at end of file
+    // Single order with its items in one query (items are LAZY by default)
+    @EntityGraph(attributePaths = "items")
+    Optional<Order> findWithItemsById(Long id);
+
+    // Orders and their items in one query (reconciliation resends a batch of orders)
+    @EntityGraph(attributePaths = "items")
+    List<Order> findWithItemsByOrderNumberIn(Collection<String> orderNumbers);
+
+    // ✅ Keyset pagination on (created_at, id), newest first - served by idx_orders_user_created
+    @Query("SELECT o FROM Order o WHERE o.userId = :userId " +
+            "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findFirstPageByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT o FROM Order o WHERE o.userId = :userId " +
+            "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+            "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findPageByUserIdBefore(@Param("userId") Long userId,
+                                       @Param("createdAt") Date createdAt,
+                                       @Param("id") Long id,
+                                       Pageable pageable);
+
+    // Bulk status updates: read (id, status, owner, number) only, then one guarded UPDATE per target status
+    @Query("SELECT o.id, o.status, o.userId, o.orderNumber FROM Order o WHERE o.id IN :ids")
+    List<Object[]> findStatusesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :target, o.updatedAt = :now " +
+            "WHERE o.id IN :ids AND o.status IN :allowedFrom")
+    int updateStatusWhereStatusIn(@Param("ids") Collection<Long> ids,
+                                  @Param("allowedFrom") Collection<OrderStatus> allowedFrom,
+                                  @Param("target") OrderStatus target,
+                                  @Param("now") Date now);
+
+    // Bulk status updates: guarded on the status each order was read with; returns the ids it changed
+    @Query(value = "UPDATE orders SET status = :target, updated_at = :now " +
+            "WHERE id IN (:ids) AND status = :previous RETURNING id", nativeQuery = true)
+    List<Long> updateStatusFromReturningIds(@Param("ids") Collection<Long> ids,
+                                            @Param("previous") String previous,
+                                            @Param("target") String target,
+                                            @Param("now") Date now);
+
+    // Filter mode of the bulk update, walked in id order one chunk at a time
+    @Query("SELECT o.id FROM Order o WHERE o.status = :status AND o.id > :afterId " +
+            "AND (:userId IS NULL OR o.userId = :userId) " +
+            "AND (:createdAfter IS NULL OR o.createdAt >= :createdAfter) " +
+            "AND (:createdBefore IS NULL OR o.createdAt < :createdBefore) " +
+            "ORDER BY o.id")
+    List<Long> findIdsByFilter(@Param("status") OrderStatus status,
+                               @Param("afterId") Long afterId,
+                               @Param("userId") Long userId,
+                               @Param("createdAfter") Date createdAfter,
+                               @Param("createdBefore") Date createdBefore,
+                               Pageable pageable);
+
+    // Stale-order sweeper: claim a chunk of old PENDING orders; rows locked by another
+    // instance are skipped, so concurrent sweepers never work on the same orders
+    @Query(value = "SELECT id, order_number, user_id FROM orders " +
+            "WHERE status = 'PENDING' AND created_at < :cutoff " +
+            "ORDER BY created_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Object[]> claimStalePending(@Param("cutoff") Date cutoff, @Param("limit") int limit);
+
+    // Reconciliation with catalogue-service: per-bucket digests over an id range, computed in the
+    // database. Row hash = first 60 bits of md5(order_number|status|amount in cents); a bucket's
+    // digest is the count and the sum of its row hashes, so it does not depend on row order.
+    // Must stay identical to UserOrderHistoryRepository.rangeDigests in catalogue-service.
+    @Query(value = "SELECT (id - :from) / :width AS bucket, COUNT(*) AS row_count, " +
+            "CAST(COALESCE(SUM(CAST(CAST('x' || SUBSTR(MD5(order_number || '|' || COALESCE(status, '') || '|' || " +
+            "CAST(ROUND(CAST(total_amount AS NUMERIC) * 100) AS BIGINT)), 1, 15) AS BIT(60)) AS BIGINT)), 0) AS TEXT) AS digest " +
+            "FROM orders WHERE id >= :from AND id < :to GROUP BY 1", nativeQuery = true)
+    List<Object[]> rangeDigests(@Param("from") long from, @Param("to") long to, @Param("width") long width);
+
+    @Query(value = "SELECT id, order_number, COALESCE(status, ''), " +
+            "CAST(ROUND(CAST(total_amount AS NUMERIC) * 100) AS BIGINT) " +
+            "FROM orders WHERE id >= :from AND id < :to ORDER BY id", nativeQuery = true)
+    List<Object[]> findReconciliationRows(@Param("from") long from, @Param("to") long to);
+
+    // Same fields for the rows about to be repaired, read again right before they are sent
+    @Query(value = "SELECT id, order_number, COALESCE(status, ''), " +
+            "CAST(ROUND(CAST(total_amount AS NUMERIC) * 100) AS BIGINT) " +
+            "FROM orders WHERE id IN (:ids) ORDER BY id", nativeQuery = true)
+    List<Object[]> findReconciliationRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Reconciliation stops at orders created before the cutoff: newer ones may still be on their way
+    @Query("SELECT MAX(o.id) FROM Order o WHERE o.createdAt < :cutoff")
+    Long findMaxIdCreatedBefore(@Param("cutoff") Date cutoff);
+}
@@ -0,0 +1,15 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.entity.Product;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface ProductRepository extends JpaRepository<Product, Long> {
+    Page<Product> findByActiveTrue(Pageable pageable);
+    List<Product> findByActiveTrue(Sort sort);
+}
@@ -0,0 +1,19 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.entity.ProductStock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+
+@Repository
+public interface ProductStockRepository extends JpaRepository<ProductStock, Long> {
+
+    // Relative update: applies a journal batch without reading the row first
+    @Modifying
+    @Query("UPDATE ProductStock s SET s.onHand = s.onHand + :delta, s.updatedAt = :now WHERE s.productId = :productId")
+    int addOnHand(@Param("productId") Long productId, @Param("delta") long delta, @Param("now") Date now);
+}
@@ -0,0 +1,20 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.entity.StockMovement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+
+    // [order number, productId, net delta] of the given movement types, per order and product
+    @Query("SELECT m.reference, m.productId, SUM(m.delta) FROM StockMovement m " +
+            "WHERE m.reference IN :references AND m.type IN :types GROUP BY m.reference, m.productId")
+    List<Object[]> sumDeltasByReferenceIn(@Param("references") Collection<String> references,
+                                          @Param("types") Collection<StockMovement.Type> types);
+}
@@ -11,42 +11,40 @@ import java.io.IOException;
 
 public class JwtAuthFilter extends OncePerRequestFilter {
 
+    public static final String CLAIMS_ATTRIBUTE = "jwtClaims";
+
+    // EventSource cannot set headers: the order stream also accepts ?access_token=
+    private static final String STREAM_PATH = "/api/orders/stream";
+
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthFilter.class);
     private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache tokenCache;
 
-    public JwtAuthFilter(JwtUtil jwtUtil) {
+    public JwtAuthFilter(JwtUtil jwtUtil, VerifiedTokenCache tokenCache) {
         this.jwtUtil = jwtUtil;
+        this.tokenCache = tokenCache;
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
-        String path = request.getRequestURI();
-        logger.info("🔍 Processing request: {} {}", request.getMethod(), path);
+        logger.debug("🔍 Processing request: {} {}", request.getMethod(), request.getRequestURI());
 
         try {
             String token = getTokenFromRequest(request);
 
-            if (token == null) {
-                logger.warn("⚠️ No token found in Authorization header");
-            } else {
-                logger.debug("🔑 Token found: {}", token.substring(0, 20) + "...");
-
-                if (jwtUtil.validateToken(token)) {
-                    Long userId = jwtUtil.getUserIdFromToken(token);
-                    String username = jwtUtil.getUsernameFromToken(token);
+            if (token != null) {
+                VerifiedToken claims = resolve(token);
 
-                    logger.info("✅ Token validated - userId: {}, username: {}", userId, username);
-
-                    if (userId != null) {
-                        request.setAttribute("userId", userId);
-                        logger.info("✅ userId set in request attribute: {}", userId);
-                    } else {
-                        logger.error("❌ userId is null after extraction!");
-                    }
+                if (claims == null) {
+                    logger.debug("❌ Token validation failed");
+                } else if (claims.userId() == null) {
+                    logger.error("❌ userId is null after extraction!");
                 } else {
-                    logger.error("❌ Token validation failed");
+                    request.setAttribute(CLAIMS_ATTRIBUTE, claims);
+                    request.setAttribute("userId", claims.userId());
+                    logger.debug("✅ Token validated - userId: {}, username: {}", claims.userId(), claims.username());
                 }
             }
         } catch (Exception ex) {
@@ -56,17 +54,36 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    // One signature check per distinct token: later requests with the same token hit the cache
+    private VerifiedToken resolve(String token) {
+        String tokenHash = VerifiedTokenCache.hash(token);
+        VerifiedToken cached = tokenCache.get(tokenHash);
+        if (cached != null) {
+            return cached;
+        }
+
+        VerifiedToken verified = jwtUtil.verify(token);
+        if (verified != null && !verified.isExpired(System.currentTimeMillis())) {
+            tokenCache.put(tokenHash, verified);
+        }
+        return verified;
+    }
+
     private String getTokenFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
-        logger.debug("Authorization header: {}", bearerToken);
 
         if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
-            String token = bearerToken.substring(7);
-            logger.debug("✅ Extracted token from Authorization header");
-            return token;
+            return bearerToken.substring(7);
+        }
+
+        if (STREAM_PATH.equals(request.getRequestURI())) {
+            String queryToken = request.getParameter("access_token");
+            if (queryToken != null && !queryToken.isBlank()) {
+                return queryToken;
+            }
         }
 
-        logger.warn("⚠️ No Bearer token in Authorization header");
+        logger.debug("⚠️ No Bearer token in Authorization header");
         return null;
     }
-}
\ No newline at end of file
+}
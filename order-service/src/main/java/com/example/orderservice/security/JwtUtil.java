@@ -5,7 +5,10 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.util.Collection;
 import java.util.Date;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Component
 public class JwtUtil {
@@ -18,12 +21,57 @@ public class JwtUtil {
     @Value("${jwt.expiration:900000}")
     private long jwtExpirationInMs;
 
+    // Parsers are immutable and thread-safe: build once instead of per call
+    private volatile JwtParser parser;
+
+    private JwtParser parser() {
+        JwtParser current = parser;
+        if (current == null) {
+            current = Jwts.parserBuilder().setSigningKey(jwtSecret).build();
+            parser = current;
+        }
+        return current;
+    }
+
+    // ✅ Parse and verify the signature once, null when the token is not valid
+    public VerifiedToken verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        try {
+            Claims claims = parser().parseClaimsJws(token).getBody();
+            Object userIdObj = claims.get("userId");
+            Object typeObj = claims.get("type");
+            Object rolesObj = claims.get("roles");
+            Date expiration = claims.getExpiration();
+            return new VerifiedToken(
+                    userIdObj != null ? Long.parseLong(userIdObj.toString()) : null,
+                    claims.getSubject(),
+                    typeObj != null ? typeObj.toString() : null,
+                    rolesObj instanceof Collection<?> roles
+                            ? roles.stream().map(String::valueOf).collect(Collectors.toUnmodifiableSet())
+                            : Set.of(),
+                    expiration != null ? expiration.getTime() : Long.MAX_VALUE
+            );
+        } catch (ExpiredJwtException ex) {
+            logger.debug("❌ Token expired");
+            return null;
+        } catch (SignatureException ex) {
+            logger.error("❌ Invalid signature - JWT_SECRET mismatch!");
+            return null;
+        } catch (JwtException | IllegalArgumentException ex) {
+            logger.warn("❌ Invalid token: {}", ex.getMessage());
+            return null;
+        }
+    }
+
     // ✅ Generate Access Token (SAME AS USER SERVICE)
-    public String generateAccessToken(String username, Long userId) {
+    public String generateAccessToken(String username, Long userId, Collection<String> roles) {
         return Jwts.builder()
                 .setSubject(username)
                 .claim("userId", userId)
                 .claim("type", "ACCESS")
+                .claim("roles", roles)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationInMs))
                 .signWith(SignatureAlgorithm.HS256, jwtSecret)
@@ -45,8 +93,7 @@ public class JwtUtil {
     // ✅ Extract username from token
     public String getUsernameFromToken(String token) {
         try {
-            return Jwts.parser()
-                    .setSigningKey(jwtSecret)
+            return parser()
                     .parseClaimsJws(token)
                     .getBody()
                     .getSubject();
@@ -59,8 +106,7 @@ public class JwtUtil {
     // ✅ Extract userId from token
     public Long getUserIdFromToken(String token) {
         try {
-            Claims claims = Jwts.parser()
-                    .setSigningKey(jwtSecret)
+            Claims claims = parser()
                     .parseClaimsJws(token)
                     .getBody();
             Object userIdObj = claims.get("userId");
@@ -78,9 +124,7 @@ public class JwtUtil {
                 logger.warn("⚠️ Token is null or empty");
                 return false;
             }
-            Jwts.parser()
-                    .setSigningKey(jwtSecret)
-                    .parseClaimsJws(token);
+            parser().parseClaimsJws(token);
             logger.debug("✅ Token is valid");
             return true;
         } catch (ExpiredJwtException ex) {
@@ -98,8 +142,7 @@ public class JwtUtil {
     // ✅ Check if token is expired
     public boolean isTokenExpired(String token) {
         try {
-            Date expiration = Jwts.parser()
-                    .setSigningKey(jwtSecret)
+            Date expiration = parser()
                     .parseClaimsJws(token)
                     .getBody()
                     .getExpiration();
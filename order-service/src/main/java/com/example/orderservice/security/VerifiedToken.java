@@ -0,0 +1,19 @@
+package com.example.orderservice.security;
+
+import java.util.Set;
+
+/**
+ * Claims of a JWT whose signature has already been checked.
+ * Exposed to controllers as the "jwtClaims" request attribute.
+ */
+public record VerifiedToken(Long userId, String username, String type, Set<String> roles, long expiresAtMillis) {
+
+    // Admin endpoints: an access token (not a refresh token) of a user with the ADMIN role
+    public boolean isAdmin() {
+        return "ACCESS".equals(type) && roles.contains("ADMIN");
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return expiresAtMillis <= nowMillis;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.orderservice.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded cache of recently verified tokens, keyed by the SHA-256 of the token
+ * (raw tokens are never kept in memory). An entry lives until the token's own exp.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final Map<String, VerifiedToken> entries = new ConcurrentHashMap<>();
+
+    @Value("${jwt.cache.max-entries:10000}")
+    private int maxEntries = 10000;
+
+    public VerifiedToken get(String tokenHash) {
+        VerifiedToken token = entries.get(tokenHash);
+        if (token == null) {
+            return null;
+        }
+        if (token.isExpired(System.currentTimeMillis())) {
+            entries.remove(tokenHash, token);
+            return null;
+        }
+        return token;
+    }
+
+    public void put(String tokenHash, VerifiedToken token) {
+        if (entries.size() >= maxEntries) {
+            evictExpired();
+            if (entries.size() >= maxEntries) {
+                // Full of live tokens: skip caching rather than grow, the token just gets verified again
+                return;
+            }
+        }
+        entries.put(tokenHash, token);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.cache.eviction-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(token -> token.isExpired(now));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.CartDto;
+import com.example.orderservice.dto.CheckoutRequest;
+import com.example.orderservice.dto.CreateOrderRequest;
+import com.example.orderservice.dto.OrderDto;
+import com.example.orderservice.dto.ProductDto;
+import com.example.orderservice.dto.ReservationDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class CartService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CartService.class);
+    private static final int MAX_QUANTITY = 99;
+    private static final int MAX_LINES = 100;
+
+    private final CartStore cartStore;
+    private final ProductService productService;
+    private final OrderService orderService;
+    private final StockLedger stockLedger;
+
+    public CartService(CartStore cartStore, ProductService productService, OrderService orderService,
+                       StockLedger stockLedger) {
+        this.cartStore = cartStore;
+        this.productService = productService;
+        this.orderService = orderService;
+        this.stockLedger = stockLedger;
+    }
+
+    // ✅ Get cart
+    public CartDto getCart(Long userId) {
+        return toDto(cartStore.get(userId));
+    }
+
+    // ✅ Add product (quantities add up when the product is already in the cart)
+    public CartDto addItem(Long userId, Long productId, Integer quantity) {
+        int toAdd = requireQuantity(quantity);
+        // Name, price and image come from the catalogue, never from the client
+        ProductDto product = requireActiveProduct(productId);
+
+        return toDto(cartStore.update(userId, lines -> {
+            CreateOrderRequest.CartItem line = lines.get(productId);
+            if (line == null) {
+                if (lines.size() >= MAX_LINES) {
+                    throw new IllegalArgumentException("Cart cannot contain more than " + MAX_LINES + " products");
+                }
+                lines.put(productId, CreateOrderRequest.CartItem.builder()
+                        .productId(productId)
+                        .productName(product.getName())
+                        .quantity(toAdd)
+                        .price(product.getPrice())
+                        .image(product.getImage())
+                        .build());
+            } else {
+                line.setQuantity(Math.min(line.getQuantity() + toAdd, MAX_QUANTITY));
+                line.setProductName(product.getName());
+                line.setPrice(product.getPrice());
+                line.setImage(product.getImage());
+            }
+        }));
+    }
+
+    // ✅ Set quantity (0 removes the line)
+    public CartDto updateItem(Long userId, Long productId, Integer quantity) {
+        if (quantity == null || quantity < 0 || quantity > MAX_QUANTITY) {
+            throw new IllegalArgumentException("Quantity must be between 0 and " + MAX_QUANTITY);
+        }
+
+        return toDto(cartStore.update(userId, lines -> {
+            CreateOrderRequest.CartItem line = lines.get(productId);
+            if (line == null) {
+                throw new IllegalArgumentException("Product not in cart: " + productId);
+            }
+            if (quantity == 0) {
+                lines.remove(productId);
+            } else {
+                line.setQuantity(quantity);
+            }
+        }));
+    }
+
+    // ✅ Remove product
+    public CartDto removeItem(Long userId, Long productId) {
+        return toDto(cartStore.update(userId, lines -> lines.remove(productId)));
+    }
+
+    // ✅ Empty cart
+    public void clearCart(Long userId) {
+        cartStore.clear(userId);
+        stockLedger.releaseForUser(userId);
+    }
+
+    // ✅ Hold the cart's stock while the user fills in the checkout form (expires on its own)
+    public ReservationDto reserve(Long userId) {
+        List<CreateOrderRequest.CartItem> items = cartStore.get(userId);
+        if (items.isEmpty()) {
+            throw new IllegalArgumentException("Cart is empty");
+        }
+
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        items.forEach(item -> quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum));
+
+        StockLedger.Reservation reservation = stockLedger.reserve(userId, quantities);
+        return ReservationDto.builder()
+                .reservationId(reservation.getId())
+                .quantities(reservation.getQuantities())
+                .expiresAt(new Date(reservation.getExpiresAt()))
+                .build();
+    }
+
+    // ✅ Give the held stock back (checkout abandoned)
+    public void releaseReservation(Long userId) {
+        stockLedger.releaseForUser(userId);
+    }
+
+    // ✅ Checkout: build the CreateOrderRequest from the stored cart
+    public OrderDto checkout(Long userId, CheckoutRequest request) {
+        if (request.getShippingAddress() == null || request.getShippingAddress().isBlank()) {
+            throw new IllegalArgumentException("Shipping address is required");
+        }
+
+        List<CreateOrderRequest.CartItem> items = cartStore.take(userId);
+        if (items.isEmpty()) {
+            throw new IllegalArgumentException("Cart is empty");
+        }
+
+        try {
+            // Re-check the catalogue: a product may have been removed or repriced since it was added
+            for (CreateOrderRequest.CartItem item : items) {
+                ProductDto product = requireActiveProduct(item.getProductId());
+                item.setProductName(product.getName());
+                item.setPrice(product.getPrice());
+                item.setImage(product.getImage());
+            }
+
+            CreateOrderRequest orderRequest = CreateOrderRequest.builder()
+                    .shippingAddress(request.getShippingAddress())
+                    .userName(request.getUserName())
+                    .userEmail(request.getUserEmail())
+                    .items(items)
+                    .build();
+
+            OrderDto order = orderService.createOrder(userId, orderRequest);
+            logger.info("✅ Checkout of {} cart lines for user {} -> order {}",
+                    items.size(), userId, order.getOrderNumber());
+            return order;
+
+        } catch (RuntimeException ex) {
+            // Give the cart back so the user can fix it and retry
+            cartStore.restore(userId, items);
+            throw ex;
+        }
+    }
+
+    private ProductDto requireActiveProduct(Long productId) {
+        if (productId == null) {
+            throw new IllegalArgumentException("productId is required");
+        }
+        ProductDto product = productService.getProduct(productId);
+        if (!Boolean.TRUE.equals(product.getActive())) {
+            throw new IllegalArgumentException("Product is no longer available: " + productId);
+        }
+        return product;
+    }
+
+    private int requireQuantity(Integer quantity) {
+        if (quantity == null || quantity < 1 || quantity > MAX_QUANTITY) {
+            throw new IllegalArgumentException("Quantity must be between 1 and " + MAX_QUANTITY);
+        }
+        return quantity;
+    }
+
+    private CartDto toDto(List<CreateOrderRequest.CartItem> items) {
+        int itemCount = items.stream().mapToInt(CreateOrderRequest.CartItem::getQuantity).sum();
+        double total = items.stream().mapToDouble(item -> item.getPrice() * item.getQuantity()).sum();
+        return CartDto.builder()
+                .items(items)
+                .itemCount(itemCount)
+                .totalAmount(total)
+                .build();
+    }
+}
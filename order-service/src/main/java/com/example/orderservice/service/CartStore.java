@@ -0,0 +1,251 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.CreateOrderRequest;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * In-memory server-side carts, one per user.
+ * Reads and writes of a user's cart are serialized on a lock stripe picked from the userId,
+ * so different users never contend and no global lock is taken.
+ * Carts are evicted when idle for too long or past their absolute TTL, and can optionally
+ * be snapshotted to local disk so they survive a restart.
+ */
+@Component
+public class CartStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(CartStore.class);
+    private static final int STRIPES = 64; // power of two
+
+    private final Map<Long, Cart> carts = new ConcurrentHashMap<>();
+    private final Object[] locks = new Object[STRIPES];
+    private final ObjectMapper objectMapper;
+
+    @Value("${cart.idle-timeout-ms:86400000}")   // 24h without activity
+    private long idleTimeoutMs;
+
+    @Value("${cart.max-age-ms:604800000}")       // 7 days whatever happens
+    private long maxAgeMs;
+
+    @Value("${cart.snapshot.enabled:false}")
+    private boolean snapshotEnabled;
+
+    @Value("${cart.snapshot.path:./data/carts.json}")
+    private String snapshotPath;
+
+    public CartStore(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    // Mutable cart state, only touched while holding the user's stripe lock
+    private static final class Cart {
+        final LinkedHashMap<Long, CreateOrderRequest.CartItem> lines = new LinkedHashMap<>();
+        long createdAt;
+        long lastAccess;
+
+        Cart(long now) {
+            this.createdAt = now;
+            this.lastAccess = now;
+        }
+    }
+
+    // On-disk format of one cart
+    record CartSnapshot(Long userId, long createdAt, long lastAccess, List<CreateOrderRequest.CartItem> items) {}
+
+    private Object lockFor(Long userId) {
+        int h = userId.hashCode();
+        return locks[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    private boolean isExpired(Cart cart, long now) {
+        return now - cart.lastAccess > idleTimeoutMs || now - cart.createdAt > maxAgeMs;
+    }
+
+    // ✅ Copy of the user's cart lines (empty list when no cart)
+    public List<CreateOrderRequest.CartItem> get(Long userId) {
+        synchronized (lockFor(userId)) {
+            long now = System.currentTimeMillis();
+            Cart cart = carts.get(userId);
+            if (cart == null) {
+                return List.of();
+            }
+            if (isExpired(cart, now)) {
+                carts.remove(userId);
+                return List.of();
+            }
+            cart.lastAccess = now;
+            return copyLines(cart);
+        }
+    }
+
+    // ✅ Apply a change to the user's cart atomically and return the resulting lines
+    public List<CreateOrderRequest.CartItem> update(Long userId,
+                                                     Consumer<LinkedHashMap<Long, CreateOrderRequest.CartItem>> change) {
+        synchronized (lockFor(userId)) {
+            long now = System.currentTimeMillis();
+            Cart cart = carts.get(userId);
+            if (cart == null || isExpired(cart, now)) {
+                cart = new Cart(now);
+            }
+            change.accept(cart.lines);
+            cart.lastAccess = now;
+
+            if (cart.lines.isEmpty()) {
+                carts.remove(userId);
+                return List.of();
+            }
+            carts.put(userId, cart);
+            return copyLines(cart);
+        }
+    }
+
+    // ✅ Remove and return the cart in one step (checkout), so a double submit sees an empty cart
+    public List<CreateOrderRequest.CartItem> take(Long userId) {
+        synchronized (lockFor(userId)) {
+            Cart cart = carts.remove(userId);
+            if (cart == null || isExpired(cart, System.currentTimeMillis())) {
+                return List.of();
+            }
+            return copyLines(cart);
+        }
+    }
+
+    // ✅ Put taken lines back after a failed checkout, keeping anything added meanwhile
+    public void restore(Long userId, List<CreateOrderRequest.CartItem> items) {
+        update(userId, lines -> {
+            for (CreateOrderRequest.CartItem item : items) {
+                lines.putIfAbsent(item.getProductId(), copy(item));
+            }
+        });
+    }
+
+    public void clear(Long userId) {
+        synchronized (lockFor(userId)) {
+            carts.remove(userId);
+        }
+    }
+
+    public int size() {
+        return carts.size();
+    }
+
+    // 🧹 Idle / TTL eviction
+    @Scheduled(fixedDelayString = "${cart.eviction-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        int evicted = 0;
+        for (Long userId : carts.keySet()) {
+            synchronized (lockFor(userId)) {
+                Cart cart = carts.get(userId);
+                if (cart != null && isExpired(cart, now)) {
+                    carts.remove(userId);
+                    evicted++;
+                }
+            }
+        }
+        if (evicted > 0) {
+            logger.info("🧹 Evicted {} expired carts ({} remaining)", evicted, carts.size());
+        }
+    }
+
+    // 💾 Periodic snapshot to local disk (cart.snapshot.enabled=true)
+    @Scheduled(fixedDelayString = "${cart.snapshot.interval-ms:30000}")
+    public void snapshot() {
+        if (!snapshotEnabled) {
+            return;
+        }
+
+        List<CartSnapshot> snapshots = new ArrayList<>(carts.size());
+        for (Long userId : carts.keySet()) {
+            synchronized (lockFor(userId)) {
+                Cart cart = carts.get(userId);
+                if (cart != null) {
+                    snapshots.add(new CartSnapshot(userId, cart.createdAt, cart.lastAccess, copyLines(cart)));
+                }
+            }
+        }
+
+        try {
+            Path target = Paths.get(snapshotPath);
+            if (target.getParent() != null) {
+                Files.createDirectories(target.getParent());
+            }
+            // Write aside then rename, so a crash mid-write never leaves a truncated snapshot
+            Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+            objectMapper.writeValue(tmp.toFile(), snapshots);
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.debug("💾 Snapshotted {} carts to {}", snapshots.size(), target);
+        } catch (IOException ex) {
+            logger.error("❌ Failed to snapshot carts: {}", ex.getMessage());
+        }
+    }
+
+    @PostConstruct
+    void loadSnapshot() {
+        if (!snapshotEnabled) {
+            return;
+        }
+
+        Path source = Paths.get(snapshotPath);
+        if (!Files.exists(source)) {
+            return;
+        }
+
+        try {
+            List<CartSnapshot> snapshots = objectMapper.readValue(
+                    source.toFile(), new TypeReference<List<CartSnapshot>>() {});
+            long now = System.currentTimeMillis();
+            for (CartSnapshot snapshot : snapshots) {
+                Cart cart = new Cart(snapshot.createdAt());
+                cart.lastAccess = snapshot.lastAccess();
+                snapshot.items().forEach(item -> cart.lines.put(item.getProductId(), item));
+                if (!cart.lines.isEmpty() && !isExpired(cart, now)) {
+                    carts.put(snapshot.userId(), cart);
+                }
+            }
+            logger.info("💾 Restored {} carts from {}", carts.size(), source);
+        } catch (IOException ex) {
+            logger.error("❌ Failed to restore carts from {}: {}", source, ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void snapshotOnShutdown() {
+        snapshot();
+    }
+
+    private static List<CreateOrderRequest.CartItem> copyLines(Cart cart) {
+        List<CreateOrderRequest.CartItem> copy = new ArrayList<>(cart.lines.size());
+        cart.lines.values().forEach(item -> copy.add(copy(item)));
+        return copy;
+    }
+
+    private static CreateOrderRequest.CartItem copy(CreateOrderRequest.CartItem item) {
+        return CreateOrderRequest.CartItem.builder()
+                .productId(item.getProductId())
+                .productName(item.getProductName())
+                .quantity(item.getQuantity())
+                .price(item.getPrice())
+                .image(item.getImage())
+                .build();
+    }
+}
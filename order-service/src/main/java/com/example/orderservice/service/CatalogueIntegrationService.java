@@ -1,19 +1,27 @@
 package com.example.orderservice.service;
 
 import com.example.orderservice.dto.OrderHistoryItemDto;
+import com.example.orderservice.dto.OrderStatusChangeDto;
+import com.example.orderservice.dto.RangeDigestDto;
+import com.example.orderservice.dto.ReconciliationRowDto;
 import com.example.orderservice.entity.Order;
 import com.example.orderservice.entity.OrderItem;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
@@ -27,6 +35,15 @@ public class CatalogueIntegrationService {
     @Value("${catalogue.service.url:http://localhost:8090}") // Port du catalogue service
     private String catalogueServiceUrl;
 
+    // Runs on the application task executor (virtual threads when spring.threads.virtual.enabled)
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    @Timed(value = "orders.catalogue.sync", description = "Push of a new order to catalogue-service",
+            percentiles = {0.5, 0.95, 0.99}, histogram = true)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        sendOrderToCatalogue(event.order(), event.userName(), event.userEmail());
+    }
+
     public void sendOrderToCatalogue(Order order, String userName, String userEmail) {
         try {
             log.info("📤 Sending order {} to catalogue service for user {}",
@@ -51,6 +68,7 @@ public class CatalogueIntegrationService {
 
             // Construire la requête au format Map (plus simple)
             Map<String, Object> request = new HashMap<>();
+            request.put("orderId", order.getId());
             request.put("userId", order.getUserId());
             request.put("userName", userName);
             request.put("userEmail", userEmail);
@@ -89,4 +107,54 @@ public class CatalogueIntegrationService {
             // Ne pas throw pour ne pas bloquer la création de l'order
         }
     }
-}
\ No newline at end of file
+
+    // One request for a whole batch of status changes (e.g. a sweeper chunk)
+    @Timed(value = "orders.catalogue.status-sync", description = "Batched status push to catalogue-service",
+            percentiles = {0.5, 0.95, 0.99}, histogram = true)
+    public void sendStatusChanges(List<OrderStatusChangeDto> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        try {
+            String url = catalogueServiceUrl + "/api/catalogue/orders/status/batch";
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+
+            ResponseEntity<String> response = restTemplate.exchange(
+                    url, HttpMethod.PUT, new HttpEntity<>(changes, headers), String.class);
+
+            if (response.getStatusCode().is2xxSuccessful()) {
+                log.info("✅ {} status changes sent to catalogue service", changes.size());
+            } else {
+                log.warn("⚠️ Catalogue service returned status: {} - {}",
+                        response.getStatusCode(), response.getBody());
+            }
+        } catch (Exception e) {
+            log.error("❌ Failed to send {} status changes to catalogue: {}", changes.size(), e.getMessage());
+        }
+    }
+
+    // ===== Reconciliation (errors propagate: the job must not mistake a failed call for a match) =====
+
+    public List<RangeDigestDto> fetchDigests(long from, long to, long width) {
+        String url = catalogueServiceUrl + "/api/catalogue/reconciliation/digests?from={from}&to={to}&width={width}";
+        return restTemplate.exchange(url, HttpMethod.GET, null,
+                new ParameterizedTypeReference<List<RangeDigestDto>>() {}, from, to, width).getBody();
+    }
+
+    public List<ReconciliationRowDto> fetchRows(long from, long to) {
+        String url = catalogueServiceUrl + "/api/catalogue/reconciliation/rows?from={from}&to={to}";
+        return restTemplate.exchange(url, HttpMethod.GET, null,
+                new ParameterizedTypeReference<List<ReconciliationRowDto>>() {}, from, to).getBody();
+    }
+
+    // Updates orders the catalogue knows by order number; returns the order numbers it does not have
+    public List<String> repairOrders(List<ReconciliationRowDto> rows) {
+        String url = catalogueServiceUrl + "/api/catalogue/reconciliation/orders";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return restTemplate.exchange(url, HttpMethod.PUT, new HttpEntity<>(rows, headers),
+                new ParameterizedTypeReference<List<String>>() {}).getBody();
+    }
+}
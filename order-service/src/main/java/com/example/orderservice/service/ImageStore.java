@@ -0,0 +1,287 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.ImageDto;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed image storage on local disk.
+ * Files are named after the hash of their bytes ({hash}.{ext}), thumbnails are {hash}-{width}.{ext},
+ * so a URL always designates the same bytes and can be cached forever by browsers and proxies.
+ * Thumbnails are generated at upload time, or on first request for images bundled in the jar.
+ */
+@Component
+public class ImageStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageStore.class);
+
+    // Public path prefix, relative to /images (what the shop prepends)
+    public static final String HASHED_PREFIX = "h/";
+
+    private static final Pattern FILE_NAME = Pattern.compile("([0-9a-f]{32})(?:-(\\d{1,4}))?\\.([a-z]{3,4})");
+    // No svg: images are served from our own origin, and an svg can carry script
+    private static final Set<String> EXTENSIONS = Set.of("png", "jpg", "jpeg", "gif", "webp");
+    private static final Set<String> RESIZABLE = Set.of("png", "jpg", "jpeg", "gif");
+    // Decoding bounds (a decoded pixel takes 4 bytes): 40 Mpx is 160 MB
+    private static final int MAX_DIMENSION = 8_192;
+    private static final long MAX_PIXELS = 40_000_000L;
+    private static final String BUNDLED_ROOT = "static/images/";
+
+    @Value("${images.storage-dir:./data/images}")
+    private String storageDir;
+
+    @Value("${images.thumbnail-widths:160,320,640}")
+    private List<Integer> thumbnailWidths;
+
+    private Path root;
+
+    // Bundled image name ("products/laptop.png") -> stored file name ("<hash>.png")
+    private final Map<String, String> bundled = new ConcurrentHashMap<>();
+
+    // One generation per thumbnail even when many first requests arrive together
+    private final Map<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() throws IOException {
+        root = Paths.get(storageDir).toAbsolutePath().normalize();
+        Files.createDirectories(root);
+
+        Resource[] resources = new PathMatchingResourcePatternResolver()
+                .getResources("classpath:/" + BUNDLED_ROOT + "**/*.*");
+        for (Resource resource : resources) {
+            String url = resource.getURL().toString();
+            String name = url.substring(url.lastIndexOf(BUNDLED_ROOT) + BUNDLED_ROOT.length());
+            String extension = extensionOf(name);
+            if (!EXTENSIONS.contains(extension)) {
+                continue;
+            }
+            try (InputStream in = resource.getInputStream()) {
+                bundled.put(name, writeOriginal(in.readAllBytes(), extension));
+            }
+        }
+        logger.info("🖼️ Image store ready at {} ({} bundled images)", root, bundled.size());
+    }
+
+    // ✅ Store an uploaded image and pre-generate its thumbnails
+    public ImageDto store(byte[] bytes, String originalFilename) {
+        String extension = extensionOf(originalFilename);
+        if (!EXTENSIONS.contains(extension)) {
+            throw new IllegalArgumentException("Unsupported image type: " + originalFilename);
+        }
+        if (RESIZABLE.contains(extension) && readImage(bytes) == null) {
+            throw new IllegalArgumentException("Not a valid image: " + originalFilename);
+        }
+
+        String fileName = writeOriginal(bytes, extension);
+        Map<Integer, String> thumbnails = new TreeMap<>();
+        for (int width : thumbnailWidths) {
+            String thumbnail = thumbnailName(fileName, width);
+            resolve(thumbnail);
+            thumbnails.put(width, HASHED_PREFIX + thumbnail);
+        }
+
+        return ImageDto.builder()
+                .hash(fileName.substring(0, fileName.indexOf('.')))
+                .path(HASHED_PREFIX + fileName)
+                .thumbnails(thumbnails)
+                .build();
+    }
+
+    /**
+     * Public (hashed) path for an image reference as stored on products/order items:
+     * "products/laptop.png" -> "h/&lt;hash&gt;.png". Unknown references are returned unchanged.
+     */
+    public String publicPath(String image) {
+        String fileName = storedName(image);
+        return fileName != null ? HASHED_PREFIX + fileName : image;
+    }
+
+    // Same as publicPath, for the thumbnail closest to (and not smaller than) the requested width
+    public String thumbnailPath(String image, int width) {
+        String fileName = storedName(image);
+        if (fileName == null || !RESIZABLE.contains(extensionOf(fileName))) {
+            return publicPath(image);
+        }
+        int chosen = thumbnailWidths.stream().filter(w -> w >= width).min(Integer::compare)
+                .orElse(Collections.max(thumbnailWidths));
+        return HASHED_PREFIX + thumbnailName(fileName, chosen);
+    }
+
+    /**
+     * Path on disk of a hashed file name ("<hash>.png" or "<hash>-320.png"), generating the
+     * thumbnail if needed. Null when the name is malformed or the original does not exist.
+     */
+    public Path resolve(String fileName) {
+        Matcher matcher = FILE_NAME.matcher(fileName);
+        if (!matcher.matches() || !EXTENSIONS.contains(matcher.group(3))) {
+            return null;
+        }
+
+        Path original = root.resolve(matcher.group(1) + "." + matcher.group(3));
+        if (!Files.exists(original)) {
+            return null;
+        }
+        if (matcher.group(2) == null) {
+            return original;
+        }
+
+        int width = Integer.parseInt(matcher.group(2));
+        if (!thumbnailWidths.contains(width) || !RESIZABLE.contains(matcher.group(3))) {
+            return null;
+        }
+
+        Path thumbnail = root.resolve(fileName);
+        if (Files.exists(thumbnail)) {
+            return thumbnail;
+        }
+
+        CompletableFuture<Path> created = new CompletableFuture<>();
+        CompletableFuture<Path> existing = inFlight.putIfAbsent(fileName, created);
+        if (existing != null) {
+            return existing.join();
+        }
+        try {
+            created.complete(createThumbnail(original, thumbnail, width, matcher.group(3)));
+        } catch (RuntimeException ex) {
+            created.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(fileName);
+        }
+        return created.join();
+    }
+
+    private String storedName(String image) {
+        if (image == null || image.isBlank()) {
+            return null;
+        }
+        if (image.startsWith(HASHED_PREFIX)) {
+            String fileName = image.substring(HASHED_PREFIX.length());
+            Matcher matcher = FILE_NAME.matcher(fileName);
+            // Thumbnail references point back to their original
+            return matcher.matches() ? matcher.group(1) + "." + matcher.group(3) : null;
+        }
+        return bundled.get(image.startsWith("/") ? image.substring(1) : image);
+    }
+
+    private Path createThumbnail(Path original, Path target, int width, String extension) {
+        try {
+            BufferedImage source = readImage(Files.readAllBytes(original));
+            if (source == null || source.getWidth() <= width) {
+                // Never upscale: the thumbnail is the original bytes
+                writeAtomically(target, Files.readAllBytes(original));
+                return target;
+            }
+
+            int height = Math.max(1, Math.round(source.getHeight() * (width / (float) source.getWidth())));
+            boolean jpeg = extension.startsWith("jp");
+            BufferedImage scaled = new BufferedImage(width, height,
+                    jpeg ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+            Graphics2D graphics = scaled.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(source, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+
+            Path tmp = Files.createTempFile(root, "thumb", ".tmp");
+            ImageIO.write(scaled, jpeg ? "jpg" : extension, tmp.toFile());
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.debug("🖼️ Generated thumbnail {}", target.getFileName());
+            return target;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to create thumbnail " + target.getFileName(), ex);
+        }
+    }
+
+    private String writeOriginal(byte[] bytes, String extension) {
+        String fileName = sha256Hex(bytes).substring(0, 32) + "." + extension;
+        Path target = root.resolve(fileName);
+        if (!Files.exists(target)) {
+            try {
+                writeAtomically(target, bytes);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Failed to store image " + fileName, ex);
+            }
+        }
+        return fileName;
+    }
+
+    private void writeAtomically(Path target, byte[] bytes) throws IOException {
+        Path tmp = Files.createTempFile(root, "img", ".tmp");
+        Files.write(tmp, bytes);
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Null when the bytes are not a readable image. The size is read from the header first: a few
+    // KB can declare a canvas whose decoded pixels would not fit in the heap.
+    private static BufferedImage readImage(byte[] bytes) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if (width > MAX_DIMENSION || height > MAX_DIMENSION || (long) width * height > MAX_PIXELS) {
+                    throw new IllegalArgumentException("Image too large: " + width + "x" + height
+                            + " (max " + MAX_DIMENSION + " px per side, " + MAX_PIXELS + " pixels)");
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    private static String thumbnailName(String fileName, int width) {
+        int dot = fileName.lastIndexOf('.');
+        return fileName.substring(0, dot) + "-" + width + fileName.substring(dot);
+    }
+
+    private static String extensionOf(String name) {
+        if (name == null || name.lastIndexOf('.') < 0) {
+            return "";
+        }
+        return name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+    }
+
+    private static String sha256Hex(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.BulkStatusUpdateRequest;
+import com.example.orderservice.dto.BulkStatusUpdateResponse;
+import com.example.orderservice.dto.BulkStatusUpdateResponse.Outcome;
+import com.example.orderservice.dto.BulkStatusUpdateResponse.Result;
+import com.example.orderservice.dto.OrderStatusChangeDto;
+import com.example.orderservice.entity.OrderStatus;
+import com.example.orderservice.repository.OrderRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * Bulk status changes for fulfilment runs.
+ * Orders are processed in chunks, each chunk in its own transaction: one projection query
+ * to classify the orders, then one set-based UPDATE per (target, current) status pair. The UPDATE
+ * re-checks the status each order was read with, so an order changed in between is reported as
+ * CONFLICT instead of being overwritten. Once a chunk commits its owners are notified, cancelled
+ * orders' stock is returned and its changes are pushed to the catalogue in one batched call.
+ */
+@Service
+public class OrderBulkStatusService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderBulkStatusService.class);
+
+    private record ChunkOutcome(List<Result> results, List<OrderStatusChangeDto> changes) {
+    }
+
+    private final OrderRepository orderRepository;
+    private final StockLedger stockLedger;
+    private final CatalogueIntegrationService catalogueIntegrationService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${orders.bulk.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${orders.bulk.max-orders:20000}")
+    private int maxOrders;
+
+    public OrderBulkStatusService(OrderRepository orderRepository,
+                                  StockLedger stockLedger,
+                                  CatalogueIntegrationService catalogueIntegrationService,
+                                  TransactionTemplate transactionTemplate,
+                                  ApplicationEventPublisher eventPublisher) {
+        this.orderRepository = orderRepository;
+        this.stockLedger = stockLedger;
+        this.catalogueIntegrationService = catalogueIntegrationService;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Timed(value = "orders.status.bulk", description = "Bulk order status update",
+            percentiles = {0.5, 0.95, 0.99}, histogram = true)
+    public BulkStatusUpdateResponse updateStatuses(BulkStatusUpdateRequest request) {
+        boolean hasUpdates = request.getUpdates() != null && !request.getUpdates().isEmpty();
+        boolean hasFilter = request.getFilter() != null;
+
+        if (hasUpdates == hasFilter) {
+            throw new IllegalArgumentException("Provide either 'updates' or 'filter' + 'targetStatus'");
+        }
+
+        List<Result> results = hasUpdates ? applyUpdates(request.getUpdates()) : applyFilter(request);
+
+        int updated = (int) results.stream().filter(r -> r.getOutcome() == Outcome.UPDATED).count();
+        int failed = (int) results.stream()
+                .filter(r -> r.getOutcome() != Outcome.UPDATED && r.getOutcome() != Outcome.UNCHANGED)
+                .count();
+        logger.info("🔄 Bulk status update: {} requested, {} updated, {} failed", results.size(), updated, failed);
+
+        return BulkStatusUpdateResponse.builder()
+                .requested(results.size())
+                .updated(updated)
+                .failed(failed)
+                .results(results)
+                .build();
+    }
+
+    private List<Result> applyUpdates(List<BulkStatusUpdateRequest.Update> updates) {
+        if (updates.size() > maxOrders) {
+            throw new IllegalArgumentException("Too many orders in one request (max " + maxOrders + ")");
+        }
+
+        // Last instruction wins when the same order appears twice
+        Map<Long, OrderStatus> targets = new LinkedHashMap<>();
+        for (BulkStatusUpdateRequest.Update update : updates) {
+            if (update.getOrderId() == null || update.getStatus() == null) {
+                throw new IllegalArgumentException("Each update needs an orderId and a status");
+            }
+            targets.put(update.getOrderId(), update.getStatus());
+        }
+
+        List<Result> results = new ArrayList<>(targets.size());
+        List<Long> ids = new ArrayList<>(targets.keySet());
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            Map<Long, OrderStatus> chunkTargets = new LinkedHashMap<>();
+            chunk.forEach(id -> chunkTargets.put(id, targets.get(id)));
+            results.addAll(runChunk(chunkTargets));
+        }
+        return results;
+    }
+
+    private List<Result> applyFilter(BulkStatusUpdateRequest request) {
+        BulkStatusUpdateRequest.Filter filter = request.getFilter();
+        OrderStatus target = request.getTargetStatus();
+        if (target == null || filter.getCurrentStatus() == null) {
+            throw new IllegalArgumentException("Filter mode needs filter.currentStatus and targetStatus");
+        }
+        if (!filter.getCurrentStatus().canTransitionTo(target)) {
+            throw new IllegalArgumentException(
+                    "Invalid transition: " + filter.getCurrentStatus() + " -> " + target);
+        }
+
+        int limit = filter.getLimit() != null ? Math.min(filter.getLimit(), maxOrders) : maxOrders;
+        List<Result> results = new ArrayList<>();
+        long afterId = 0L;
+
+        while (results.size() < limit) {
+            int pageSize = Math.min(chunkSize, limit - results.size());
+            List<Long> ids = orderRepository.findIdsByFilter(
+                    filter.getCurrentStatus(), afterId, filter.getUserId(),
+                    filter.getCreatedAfter(), filter.getCreatedBefore(), PageRequest.of(0, pageSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            Map<Long, OrderStatus> chunkTargets = new LinkedHashMap<>();
+            ids.forEach(id -> chunkTargets.put(id, target));
+            results.addAll(runChunk(chunkTargets));
+
+            afterId = ids.get(ids.size() - 1);
+            if (ids.size() < pageSize) {
+                break;
+            }
+        }
+        return results;
+    }
+
+    private List<Result> runChunk(Map<Long, OrderStatus> targets) {
+        ChunkOutcome outcome = transactionTemplate.execute(tx -> applyChunk(targets));
+        // Sent after commit: the catalogue never hears about a change that was rolled back
+        catalogueIntegrationService.sendStatusChanges(outcome.changes());
+        return outcome.results();
+    }
+
+    // One transaction: classify with a projection, then one guarded UPDATE per (target, current) pair
+    private ChunkOutcome applyChunk(Map<Long, OrderStatus> targets) {
+        Map<Long, OrderStatus> current = new HashMap<>();
+        Map<Long, Object[]> owners = new HashMap<>();
+        for (Object[] row : orderRepository.findStatusesByIdIn(targets.keySet())) {
+            current.put((Long) row[0], (OrderStatus) row[1]);
+            owners.put((Long) row[0], row);
+        }
+
+        Map<Long, Result> results = new LinkedHashMap<>();
+        Map<OrderStatus, Map<OrderStatus, List<Long>>> candidates = new EnumMap<>(OrderStatus.class);
+
+        targets.forEach((orderId, target) -> {
+            OrderStatus previous = current.get(orderId);
+            Outcome outcome;
+            if (previous == null) {
+                outcome = Outcome.NOT_FOUND;
+            } else if (previous == target) {
+                outcome = Outcome.UNCHANGED;
+            } else if (!previous.canTransitionTo(target)) {
+                outcome = Outcome.INVALID_TRANSITION;
+            } else {
+                outcome = Outcome.UPDATED;
+                candidates.computeIfAbsent(target, t -> new EnumMap<>(OrderStatus.class))
+                        .computeIfAbsent(previous, p -> new ArrayList<>())
+                        .add(orderId);
+            }
+            results.put(orderId, new Result(orderId, previous, outcome == Outcome.UPDATED ? target : previous, outcome));
+        });
+
+        Date now = new Date();
+        candidates.forEach((target, byPrevious) -> byPrevious.forEach((previous, ids) -> {
+            Set<Long> updated = new HashSet<>(orderRepository.updateStatusFromReturningIds(
+                    ids, previous.name(), target.name(), now));
+
+            if (updated.size() < ids.size()) {
+                // Someone changed these orders between our read and the UPDATE (even to the same target)
+                List<Long> missed = ids.stream().filter(id -> !updated.contains(id)).toList();
+                missed.forEach(id -> results.get(id).setOutcome(Outcome.NOT_FOUND));
+                for (Object[] row : orderRepository.findStatusesByIdIn(missed)) {
+                    Result result = results.get((Long) row[0]);
+                    result.setOutcome(Outcome.CONFLICT);
+                    result.setStatus((OrderStatus) row[1]);
+                }
+            }
+        }));
+
+        // Delivered by the listeners once this chunk's transaction commits
+        List<OrderStatusChangeDto> changes = new ArrayList<>();
+        results.values().stream()
+                .filter(result -> result.getOutcome() == Outcome.UPDATED)
+                .forEach(result -> {
+                    Object[] owner = owners.get(result.getOrderId());
+                    eventPublisher.publishEvent(new OrderStatusChangedEvent(
+                            result.getOrderId(), (String) owner[3], (Long) owner[2], result.getStatus()));
+                    changes.add(new OrderStatusChangeDto((String) owner[3], result.getStatus().name()));
+                });
+
+        // Cancelled orders give their stock back, also once the chunk commits
+        stockLedger.restockAfterCommit(results.values().stream()
+                .filter(result -> result.getOutcome() == Outcome.UPDATED && result.getStatus() == OrderStatus.CANCELLED)
+                .map(result -> (String) owners.get(result.getOrderId())[3])
+                .toList());
+
+        return new ChunkOutcome(new ArrayList<>(results.values()), changes);
+    }
+}
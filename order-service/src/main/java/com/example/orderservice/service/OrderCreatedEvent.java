@@ -0,0 +1,9 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.entity.Order;
+
+/**
+ * Published by OrderService once an order is saved; handled after commit.
+ */
+public record OrderCreatedEvent(Order order, String userName, String userEmail) {
+}
@@ -0,0 +1,246 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.RangeDigestDto;
+import com.example.orderservice.dto.ReconciliationReportDto;
+import com.example.orderservice.dto.ReconciliationRowDto;
+import com.example.orderservice.entity.Order;
+import com.example.orderservice.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Finds and repairs drift between orders and the catalogue's user_order_history.
+ * Both services expose digests of order-id ranges (count + sum of row hashes, computed in SQL).
+ * The job compares the root range split in `fanout` buckets and only descends into buckets whose
+ * digests differ, down to leaves of `leaf-size` ids where the rows themselves are compared.
+ * A clean check of millions of orders exchanges one small digest list per level.
+ * order-service is the source of truth: missing or stale catalogue rows are pushed again, rows
+ * that only exist in the catalogue are reported, never deleted. Orders younger than `grace-ms`
+ * are left out: their after-commit sync may still be in flight, and sending them again would
+ * race it. Rows to repair are read again right before they are sent, so a status changed (and
+ * pushed) since the leaf was compared is not overwritten with the compared one.
+ */
+@Service
+public class OrderReconciliationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderReconciliationService.class);
+
+    private static final int MAX_LEAF_SIZE = 5000;
+    private static final int MAX_BUCKETS = 256;
+
+    private final OrderRepository orderRepository;
+    private final CatalogueIntegrationService catalogueIntegrationService;
+    private final ReentrantLock running = new ReentrantLock();
+
+    @Value("${orders.reconciliation.enabled:false}")
+    private boolean enabled;
+
+    @Value("${orders.reconciliation.fanout:16}")
+    private int fanout;
+
+    @Value("${orders.reconciliation.leaf-size:512}")
+    private int leafSize;
+
+    @Value("${orders.reconciliation.repair-batch-size:200}")
+    private int repairBatchSize;
+
+    @Value("${orders.reconciliation.grace-ms:600000}")
+    private long graceMs = 600_000L;
+
+    public OrderReconciliationService(OrderRepository orderRepository,
+                                      CatalogueIntegrationService catalogueIntegrationService) {
+        this.orderRepository = orderRepository;
+        this.catalogueIntegrationService = catalogueIntegrationService;
+    }
+
+    // ✅ Digests of [from, to) split in buckets of `width` ids (empty buckets are omitted)
+    public List<RangeDigestDto> digests(long from, long to, long width) {
+        validateRange(from, to);
+        if (width < 1 || (to - from + width - 1) / width > MAX_BUCKETS) {
+            throw new IllegalArgumentException("width must split the range in at most " + MAX_BUCKETS + " buckets");
+        }
+        return orderRepository.rangeDigests(from, to, width).stream()
+                .map(row -> {
+                    long bucketFrom = from + ((Number) row[0]).longValue() * width;
+                    return RangeDigestDto.builder()
+                            .from(bucketFrom)
+                            .to(Math.min(to, bucketFrom + width))
+                            .count(((Number) row[1]).longValue())
+                            .digest((String) row[2])
+                            .build();
+                })
+                .collect(Collectors.toList());
+    }
+
+    // ✅ The compared fields of every order in [from, to) - leaves only
+    public List<ReconciliationRowDto> rows(long from, long to) {
+        validateRange(from, to);
+        if (to - from > MAX_LEAF_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_LEAF_SIZE + " ids per request");
+        }
+        return toRows(orderRepository.findReconciliationRows(from, to));
+    }
+
+    @Scheduled(fixedDelayString = "${orders.reconciliation.interval-ms:3600000}",
+            initialDelayString = "${orders.reconciliation.initial-delay-ms:300000}")
+    public void scheduledRun() {
+        if (enabled) {
+            reconcile();
+        }
+    }
+
+    // ✅ One full check + repair (skipped when a run is already in progress)
+    public ReconciliationReportDto reconcile() {
+        if (!running.tryLock()) {
+            throw new IllegalStateException("Reconciliation already running");
+        }
+        try {
+            return walk();
+        } finally {
+            running.unlock();
+        }
+    }
+
+    private ReconciliationReportDto walk() {
+        long start = System.currentTimeMillis();
+        ReconciliationReportDto report = new ReconciliationReportDto();
+
+        Date cutoff = new Date(start - graceMs);
+        Long maxId = orderRepository.findMaxIdCreatedBefore(cutoff);
+        if (maxId == null) {
+            return report;
+        }
+
+        List<ReconciliationRowDto> toRepair = new ArrayList<>();
+        Deque<long[]> ranges = new ArrayDeque<>();
+        ranges.push(new long[] {0, maxId + 1});
+
+        while (!ranges.isEmpty()) {
+            long[] range = ranges.pop();
+            long from = range[0];
+            long to = range[1];
+
+            if (to - from <= leafSize) {
+                compareLeaf(from, to, report, toRepair);
+                if (toRepair.size() >= repairBatchSize) {
+                    repair(toRepair, report, cutoff);
+                }
+                continue;
+            }
+
+            long width = (to - from + fanout - 1) / fanout;
+            Map<Long, RangeDigestDto> local = byFrom(digests(from, to, width));
+            Map<Long, RangeDigestDto> remote = byFrom(catalogueIntegrationService.fetchDigests(from, to, width));
+            report.setRangesCompared(report.getRangesCompared() + 1);
+
+            for (long bucketFrom = from; bucketFrom < to; bucketFrom += width) {
+                if (!sameDigest(local.get(bucketFrom), remote.get(bucketFrom))) {
+                    ranges.push(new long[] {bucketFrom, Math.min(to, bucketFrom + width)});
+                }
+            }
+        }
+        repair(toRepair, report, cutoff);
+
+        report.setDurationMs(System.currentTimeMillis() - start);
+        logger.info("🔍 Reconciliation done: {} ranges, {} leaves, {} missing, {} mismatched, {} extra, {} repaired in {} ms",
+                report.getRangesCompared(), report.getLeavesCompared(), report.getMissingInCatalogue(),
+                report.getMismatched(), report.getExtraInCatalogue(), report.getRepaired(), report.getDurationMs());
+        return report;
+    }
+
+    private void compareLeaf(long from, long to, ReconciliationReportDto report, List<ReconciliationRowDto> toRepair) {
+        Map<Long, ReconciliationRowDto> remote = catalogueIntegrationService.fetchRows(from, to).stream()
+                .collect(Collectors.toMap(ReconciliationRowDto::getOrderId, Function.identity(), (a, b) -> a));
+        List<ReconciliationRowDto> local = rows(from, to);
+
+        report.setLeavesCompared(report.getLeavesCompared() + 1);
+        report.setRowsCompared(report.getRowsCompared() + local.size());
+
+        for (ReconciliationRowDto row : local) {
+            ReconciliationRowDto copy = remote.remove(row.getOrderId());
+            if (copy == null) {
+                report.setMissingInCatalogue(report.getMissingInCatalogue() + 1);
+                toRepair.add(row);
+            } else if (!row.equals(copy)) {
+                report.setMismatched(report.getMismatched() + 1);
+                toRepair.add(row);
+            }
+        }
+
+        if (!remote.isEmpty()) {
+            report.setExtraInCatalogue(report.getExtraInCatalogue() + remote.size());
+            logger.warn("⚠️ Catalogue has {} orders unknown to order-service in ids [{}, {})", remote.size(), from, to);
+        }
+    }
+
+    // Catalogue rows found by order number are corrected in place; the others are sent again in full
+    // (without user name and email, which order-service does not keep: the catalogue takes the
+    // ones it already has for that user)
+    private void repair(List<ReconciliationRowDto> rows, ReconciliationReportDto report, Date cutoff) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        // The compared values may be stale by now: send what the orders hold at this point
+        List<ReconciliationRowDto> current = toRows(orderRepository.findReconciliationRowsByIdIn(
+                rows.stream().map(ReconciliationRowDto::getOrderId).toList()));
+        rows.clear();
+        if (current.isEmpty()) {
+            return;
+        }
+
+        List<String> unknown = catalogueIntegrationService.repairOrders(current);
+        int resent = 0;
+        if (!unknown.isEmpty()) {
+            for (Order order : orderRepository.findWithItemsByOrderNumberIn(unknown)) {
+                // Ids are allocated in blocks, so a young order can still sit below the cutoff id
+                if (order.getCreatedAt().before(cutoff)) {
+                    catalogueIntegrationService.sendOrderToCatalogue(order, null, null);
+                    resent++;
+                }
+            }
+        }
+        report.setRepaired(report.getRepaired() + (current.size() - unknown.size()) + resent);
+    }
+
+    private static List<ReconciliationRowDto> toRows(List<Object[]> rows) {
+        return rows.stream()
+                .map(row -> ReconciliationRowDto.builder()
+                        .orderId(((Number) row[0]).longValue())
+                        .orderNumber((String) row[1])
+                        .status((String) row[2])
+                        .amountCents(((Number) row[3]).longValue())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private static Map<Long, RangeDigestDto> byFrom(List<RangeDigestDto> digests) {
+        Map<Long, RangeDigestDto> byFrom = new HashMap<>();
+        if (digests != null) {
+            digests.forEach(digest -> byFrom.put(digest.getFrom(), digest));
+        }
+        return byFrom;
+    }
+
+    // An absent bucket is an empty one
+    private static boolean sameDigest(RangeDigestDto a, RangeDigestDto b) {
+        long countA = a != null ? a.getCount() : 0;
+        long countB = b != null ? b.getCount() : 0;
+        String digestA = a != null ? a.getDigest() : "0";
+        String digestB = b != null ? b.getDigest() : "0";
+        return countA == countB && digestA.equals(digestB);
+    }
+
+    private static void validateRange(long from, long to) {
+        if (from < 0 || to <= from) {
+            throw new IllegalArgumentException("Invalid id range [" + from + ", " + to + ")");
+        }
+    }
+}
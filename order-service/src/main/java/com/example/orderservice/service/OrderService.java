@@ -6,12 +6,25 @@ import com.example.orderservice.entity.OrderStatus;
 import com.example.orderservice.dto.CreateOrderRequest;
 import com.example.orderservice.dto.OrderDto;
 import com.example.orderservice.dto.CartItemDTO;
+import com.example.orderservice.dto.OrderPageDto;
+import com.example.orderservice.dto.OrderSearchCriteria;
 import com.example.orderservice.repository.OrderRepository;
 import com.example.orderservice.repository.OrderItemRepository;
+import com.example.orderservice.repository.OrderSpecifications;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -20,21 +33,32 @@ import java.util.stream.Collectors;
 public class OrderService {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
 
-    // ✅ Inject le nouveau service
-    private final CatalogueIntegrationService catalogueIntegrationService;
+    // ✅ Catalogue sync and live status streams are notified after commit
+    private final ApplicationEventPublisher eventPublisher;
+    private final StockLedger stockLedger;
+    private final EntityManager entityManager;
 
     public OrderService(OrderRepository orderRepository,
                         OrderItemRepository orderItemRepository,
-                        CatalogueIntegrationService catalogueIntegrationService) {
+                        ApplicationEventPublisher eventPublisher,
+                        StockLedger stockLedger,
+                        EntityManager entityManager) {
         this.orderRepository = orderRepository;
         this.orderItemRepository = orderItemRepository;
-        this.catalogueIntegrationService = catalogueIntegrationService;
+        this.eventPublisher = eventPublisher;
+        this.stockLedger = stockLedger;
+        this.entityManager = entityManager;
     }
 
     // ✅ Create new order
+    @Timed(value = "orders.create", description = "Order creation (catalogue sync runs after commit)",
+            percentiles = {0.5, 0.95, 0.99}, histogram = true)
     public OrderDto createOrder(Long userId, CreateOrderRequest request) {
         logger.info("📦 Creating order for user: {}", userId);
 
@@ -52,6 +76,13 @@ public class OrderService {
         Order order = new Order(userId, orderNumber, totalAmount, request.getShippingAddress());
         order.setCreatedAt(new Date());
 
+        // ✅ Take the stock first (throws when a product is sold out); settled when the transaction ends
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (CreateOrderRequest.CartItem cartItem : request.getItems()) {
+            quantities.merge(cartItem.getProductId(), cartItem.getQuantity(), Integer::sum);
+        }
+        settleAfterCompletion(stockLedger.beginCheckout(userId, quantities), orderNumber);
+
         // Add items to order
         for (CreateOrderRequest.CartItem cartItem : request.getItems()) {
             OrderItem orderItem = new OrderItem(
@@ -70,67 +101,186 @@ public class OrderService {
         logger.info("✅ Order created: {} for user: {}", savedOrder.getOrderNumber(), userId);
 
         // 🔥🔥🔥 ENVOYER À CATALOGUE SERVICE 🔥🔥🔥
-        try {
-            catalogueIntegrationService.sendOrderToCatalogue(
-                    savedOrder,
-                    request.getUserName(),
-                    request.getUserEmail()
-            );
-        } catch (Exception e) {
-            logger.error("⚠️ Failed to sync with catalogue, but order is saved", e);
-            // L'order est déjà sauvegardé, donc on continue
-        }
+        // Sent asynchronously once the order is committed: the request no longer waits on the
+        // catalogue, and the catalogue never hears about an order that was rolled back
+        eventPublisher.publishEvent(new OrderCreatedEvent(
+                savedOrder,
+                request.getUserName(),
+                request.getUserEmail()
+        ));
+        publishStatusChange(savedOrder);
 
         return convertToDto(savedOrder);
     }
 
-    // ✅ Get user orders
-    public List<OrderDto> getUserOrders(Long userId) {
-        logger.info("📋 Fetching orders for user: {}", userId);
-        return orderRepository.findByUserId(userId).stream()
-                .map(this::convertToDto)
+    // Committed: the reserved units are sold. Rolled back: they go back on sale.
+    private void settleAfterCompletion(StockLedger.Reservation reservation, String orderNumber) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    stockLedger.confirm(reservation, orderNumber);
+                } else {
+                    stockLedger.release(reservation);
+                }
+            }
+        });
+    }
+
+    // ✅ Get user orders (keyset page, newest first)
+    @Transactional(readOnly = true)
+    @Timed(value = "orders.list", description = "One page of a user's orders",
+            percentiles = {0.5, 0.95, 0.99}, histogram = true)
+    public OrderPageDto getUserOrders(Long userId, String cursor, int size) {
+        logger.debug("📋 Fetching orders for user: {} (cursor={}, size={})", userId, cursor, size);
+
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Fetch one extra row to know whether another page exists
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<Order> orders;
+        if (cursor == null || cursor.isBlank()) {
+            orders = orderRepository.findFirstPageByUserId(userId, limit);
+        } else {
+            long[] position = decodeCursor(cursor);
+            orders = orderRepository.findPageByUserIdBefore(
+                    userId, new Date(position[0]), position[1], limit);
+        }
+
+        return toPage(orders, pageSize);
+    }
+
+    // ✅ Admin search: any combination of filters, keyset page newest first, one SQL query per page
+    @Transactional(readOnly = true)
+    @Timed(value = "orders.admin.search", description = "Admin order search",
+            percentiles = {0.5, 0.95, 0.99}, histogram = true)
+    public OrderPageDto searchOrders(OrderSearchCriteria criteria, String cursor, int size) {
+        if (criteria.getCreatedFrom() != null && criteria.getCreatedTo() != null
+                && !criteria.getCreatedFrom().before(criteria.getCreatedTo())) {
+            throw new IllegalArgumentException("createdFrom must be before createdTo");
+        }
+        if (criteria.getMinAmount() != null && criteria.getMaxAmount() != null
+                && criteria.getMinAmount() > criteria.getMaxAmount()) {
+            throw new IllegalArgumentException("minAmount must not exceed maxAmount");
+        }
+
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        Specification<Order> spec = OrderSpecifications.matching(criteria);
+        if (cursor != null && !cursor.isBlank()) {
+            long[] position = decodeCursor(cursor);
+            spec = spec.and(OrderSpecifications.before(new Date(position[0]), position[1]));
+        }
+
+        List<Order> orders = orderRepository.findBy(spec, query -> query
+                .sortBy(NEWEST_FIRST)
+                .limit(pageSize + 1)
+                .all());
+
+        return toPage(orders, pageSize);
+    }
+
+    // Trims the extra row, loads the page's items with one query and builds the next cursor
+    private OrderPageDto toPage(List<Order> orders, int pageSize) {
+        boolean hasMore = orders.size() > pageSize;
+        if (hasMore) {
+            orders = orders.subList(0, pageSize);
+        }
+
+        // Second query: the items of every order on the page, grouped by order id
+        Map<Long, List<OrderItem>> itemsByOrder = orders.isEmpty()
+                ? Map.of()
+                : orderItemRepository.findByOrderIdIn(
+                        orders.stream().map(Order::getId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.groupingBy(item -> item.getOrder().getId()));
+
+        List<OrderDto> dtos = orders.stream()
+                .map(order -> convertToDto(order, itemsByOrder.getOrDefault(order.getId(), List.of())))
                 .collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (hasMore) {
+            Order last = orders.get(orders.size() - 1);
+            nextCursor = encodeCursor(last.getCreatedAt(), last.getId());
+        }
+
+        return OrderPageDto.builder()
+                .orders(dtos)
+                .count(dtos.size())
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
     }
 
     // ✅ Get order by ID
+    @Transactional(readOnly = true)
     public OrderDto getOrderById(Long orderId) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findWithItemsById(orderId)
                 .orElseThrow(() -> new IllegalArgumentException("Order not found: " + orderId));
         return convertToDto(order);
     }
 
-    // ✅ Update order status
+    // ✅ Update order status (same transition rules and guarded UPDATE as the bulk endpoint)
     public OrderDto updateOrderStatus(Long orderId, OrderStatus status) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new IllegalArgumentException("Order not found: " + orderId));
-
-        order.setStatus(status);
-        order.setUpdatedAt(new Date());
-        Order updatedOrder = orderRepository.save(order);
-
+        OrderDto updated = changeStatus(orderId, status);
         logger.info("✅ Order {} status updated to: {}", orderId, status);
-        return convertToDto(updatedOrder);
+        return updated;
     }
 
     // ✅ Cancel order
     public OrderDto cancelOrder(Long orderId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new IllegalArgumentException("Order not found: " + orderId));
+        OrderDto cancelled = changeStatus(orderId, OrderStatus.CANCELLED);
+        logger.info("❌ Order {} cancelled", orderId);
+        return cancelled;
+    }
 
-        if (order.getStatus() == OrderStatus.DELIVERED || order.getStatus() == OrderStatus.CANCELLED) {
-            throw new IllegalArgumentException("Cannot cancel order with status: " + order.getStatus());
+    // One order, guarded like OrderBulkStatusService: the transition must be allowed from the status
+    // read, and the UPDATE only applies while the order still has it. Stock is returned, and owners
+    // notified, only when this UPDATE is the one that moved the row.
+    private OrderDto changeStatus(Long orderId, OrderStatus status) {
+        List<Object[]> rows = orderRepository.findStatusesByIdIn(List.of(orderId));
+        if (rows.isEmpty()) {
+            throw new IllegalArgumentException("Order not found: " + orderId);
+        }
+        OrderStatus previous = (OrderStatus) rows.get(0)[1];
+        boolean moved = previous != status;
+        if (moved) {
+            if (!previous.canTransitionTo(status)) {
+                throw new IllegalStateException("Invalid transition: " + previous + " -> " + status);
+            }
+            if (orderRepository.updateStatusFromReturningIds(
+                    List.of(orderId), previous.name(), status.name(), new Date()).isEmpty()) {
+                throw new IllegalStateException("Order " + orderId + " was changed concurrently (no longer "
+                        + previous + ")");
+            }
         }
 
-        order.setStatus(OrderStatus.CANCELLED);
-        order.setUpdatedAt(new Date());
-        Order updatedOrder = orderRepository.save(order);
+        Order order = orderRepository.findWithItemsById(orderId)
+                .orElseThrow(() -> new IllegalArgumentException("Order not found: " + orderId));
+        // The request may already hold this order (open session in view) as it was before the UPDATE
+        entityManager.refresh(order);
+        if (moved) {
+            if (status == OrderStatus.CANCELLED) {
+                stockLedger.restockAfterCommit(List.of(order.getOrderNumber()));
+            }
+            publishStatusChange(order);
+        }
+        return convertToDto(order);
+    }
 
-        logger.info("❌ Order {} cancelled", orderId);
-        return convertToDto(updatedOrder);
+    // ✅ Live order streams hear about it once the transaction commits
+    private void publishStatusChange(Order order) {
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(
+                order.getId(), order.getOrderNumber(), order.getUserId(), order.getStatus()));
     }
 
     // ✅ Convert to DTO
     private OrderDto convertToDto(Order order) {
+        return convertToDto(order, order.getItems());
+    }
+
+    private OrderDto convertToDto(Order order, Collection<OrderItem> items) {
         OrderDto dto = new OrderDto(
                 order.getId(),
                 order.getOrderNumber(),
@@ -141,7 +291,7 @@ public class OrderService {
                 order.getCreatedAt()
         );
 
-        order.getItems().forEach(item ->
+        items.forEach(item ->
                 dto.getItems().add(new OrderDto.OrderItemDto(
                         item.getProductId(),
                         item.getProductName(),
@@ -153,16 +303,24 @@ public class OrderService {
         return dto;
     }
 
-    public List<CartItemDTO> getAllCartItems() {
-        return orderItemRepository.findAll()
-                .stream()
-                .map(item -> new CartItemDTO(
-                        item.getProductId(),
-                        item.getProductName(),
-                        item.getPrice(),
-                        item.getImage()
-                ))
-                .collect(Collectors.toList());
+    // Cursor = base64url("<createdAt millis>:<order id>") of the last order on the page
+    private static String encodeCursor(Date createdAt, Long id) {
+        String raw = createdAt.getTime() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(':');
+            return new long[] {
+                    Long.parseLong(raw.substring(0, sep)),
+                    Long.parseLong(raw.substring(sep + 1))
+            };
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
     }
 
     public CartItemDTO getCartItemById(Long id) {
@@ -172,17 +330,13 @@ public class OrderService {
         return new CartItemDTO(item.getProductId(), item.getProductName(), item.getPrice(), item.getImage());
     }
 
+    @Transactional(readOnly = true)
+    @Timed(value = "orders.review.eligibility", description = "Review eligibility check",
+            percentiles = {0.5, 0.95, 0.99}, histogram = true)
     public boolean canUserReview(Long userId, Long productId) {
-        return orderRepository
-                .findByUserIdAndStatus(userId, OrderStatus.DELIVERED)
-                .stream()
-                .anyMatch(order ->
-                        order.getItems().stream()
-                                .anyMatch(item ->
-                                        item.getProductId().equals(productId)
-                                )
-                );
+        // Single EXISTS query instead of loading every delivered order with its items
+        return orderRepository.existsByUserIdAndStatusAndItems_ProductId(
+                userId, OrderStatus.DELIVERED, productId);
     }
 
-
 }
\ No newline at end of file
@@ -0,0 +1,273 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.OrderStatusUpdateDto;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live order-status feed (server-sent events) for the owners of the orders.
+ * Every committed status change gets a sequence number and is kept in a bounded history ring,
+ * so a client reconnecting with Last-Event-ID gets what it missed; when that id has already
+ * left the ring, or was issued by another run of this service (event ids are
+ * "<epoch>-<sequence>", the epoch being the instance start time), it receives a "resync"
+ * event and reloads its orders instead.
+ * Publishing never waits on a client: each subscriber has a bounded queue drained by the
+ * stream executor, and a subscriber whose queue is full is disconnected (it resumes from its
+ * last event id); streams are completed on the stream executor too, never under the lock.
+ * A heartbeat comment keeps idle connections open through proxies.
+ */
+@Component
+public class OrderStatusBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderStatusBroadcaster.class);
+
+    public static final String STATUS_EVENT = "order-status";
+    public static final String RESYNC_EVENT = "resync";
+
+    private record Entry(long id, Long userId, OrderStatusUpdateDto update) {
+    }
+
+    private final class Subscriber {
+        final Long userId;
+        final SseEmitter emitter;
+        final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+        final AtomicBoolean draining = new AtomicBoolean();
+        final AtomicBoolean closed = new AtomicBoolean();
+
+        Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        // Never blocks: a full buffer means the client is too slow, it reconnects and resumes
+        void offer(SseEmitter.SseEventBuilder event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                logger.debug("🐢 Order stream of user {} fell behind, disconnecting", userId);
+                dropped.incrementAndGet();
+                close();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                streamExecutor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                SseEmitter.SseEventBuilder event;
+                while (!closed.get() && (event = queue.poll()) != null) {
+                    try {
+                        emitter.send(event);
+                    } catch (Exception ex) {
+                        // Client went away; the container completes the request
+                        remove(this);
+                        return;
+                    }
+                }
+                draining.set(false);
+                // An event may have been queued after the last poll but before the flag was reset
+            } while (!closed.get() && !queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        // May run under the broadcaster lock: completing writes to the connection, so it is handed off
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                remove(this);
+                try {
+                    streamExecutor.execute(emitter::complete);
+                } catch (RejectedExecutionException ex) {
+                    emitter.complete(); // shutting down
+                }
+            }
+        }
+    }
+
+    // Read without the lock (heartbeat), changed under it
+    private final Map<Long, List<Subscriber>> subscribersByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger dropped = new AtomicInteger();
+    private final ExecutorService streamExecutor;
+
+    // Guarded by "this": sequence + history ring, so replay and live delivery never overlap
+    private final Entry[] history;
+    private long sequence;
+
+    // Sequences restart with the instance: ids carry its start time so old ones are never replayed
+    private final long epoch = System.currentTimeMillis();
+
+    @Value("${orders.stream.buffer-size:64}")
+    private int bufferSize = 64;
+
+    @Value("${orders.stream.max-per-user:5}")
+    private int maxPerUser = 5;
+
+    @Value("${orders.stream.timeout-ms:1800000}")
+    private long timeoutMs = 1_800_000L;
+
+    @Value("${orders.stream.reconnect-ms:3000}")
+    private long reconnectMs = 3_000L;
+
+    public OrderStatusBroadcaster(@Value("${orders.stream.history-size:4096}") int historySize,
+                                  @Value("${orders.stream.sender-threads:4}") int senderThreads) {
+        this.history = new Entry[historySize];
+        AtomicInteger threadCount = new AtomicInteger();
+        this.streamExecutor = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "order-stream-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Opens a stream for a user. With lastEventId, the user's changes after that id are sent first.
+     *
+     * @throws IllegalArgumentException when lastEventId is not an event id
+     */
+    public SseEmitter subscribe(Long userId, String lastEventId) {
+        Long resumeAfter = lastEventId != null ? sequenceOf(lastEventId) : null;
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(ex -> remove(subscriber));
+
+        synchronized (this) {
+            // Oldest streams of the same user give way (forgotten tabs). Taken off the list here:
+            // one that is already closed would not remove itself again
+            List<Subscriber> existing = subscribersByUser.get(userId);
+            while (existing != null && !existing.isEmpty() && existing.size() >= maxPerUser) {
+                existing.remove(0).close();
+            }
+
+            subscriber.offer(SseEmitter.event().reconnectTime(reconnectMs).comment("connected"));
+            if (resumeAfter != null) {
+                replay(subscriber, resumeAfter);
+            }
+            subscribersByUser.computeIfAbsent(userId, id -> new CopyOnWriteArrayList<>()).add(subscriber);
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusChanged(OrderStatusChangedEvent event) {
+        if (event.userId() == null) {
+            return;
+        }
+        OrderStatusUpdateDto update = OrderStatusUpdateDto.builder()
+                .orderId(event.orderId())
+                .orderNumber(event.orderNumber())
+                .status(event.status())
+                .changedAt(new Date())
+                .build();
+
+        synchronized (this) {
+            Entry entry = new Entry(++sequence, event.userId(), update);
+            history[(int) (entry.id % history.length)] = entry;
+
+            List<Subscriber> forUser = subscribersByUser.get(event.userId());
+            if (forUser != null) {
+                forUser.forEach(subscriber -> subscriber.offer(toEvent(entry)));
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${orders.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        subscribersByUser.values().forEach(forUser ->
+                forUser.forEach(subscriber -> subscriber.offer(SseEmitter.event().comment("keep-alive"))));
+        int slow = dropped.getAndSet(0);
+        if (slow > 0) {
+            logger.info("🐢 {} slow order streams disconnected since last heartbeat", slow);
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribersByUser.values().stream().mapToInt(List::size).sum();
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        subscribersByUser.values().forEach(forUser -> forUser.forEach(Subscriber::close));
+        // Lets the queued completions run; a send stuck on a dead client is interrupted
+        streamExecutor.shutdown();
+        if (!streamExecutor.awaitTermination(1, TimeUnit.SECONDS)) {
+            streamExecutor.shutdownNow();
+        }
+    }
+
+    // "<epoch>-<sequence>"; -1 for ids of another run of this service (including the older bare numbers)
+    private long sequenceOf(String eventId) {
+        String trimmed = eventId.trim();
+        int dash = trimmed.indexOf('-');
+        if (dash < 0) {
+            Long.parseLong(trimmed);
+            return -1;
+        }
+        long idEpoch = Long.parseLong(trimmed.substring(0, dash));
+        long idSequence = Long.parseLong(trimmed.substring(dash + 1));
+        if (idSequence < 0) {
+            throw new IllegalArgumentException("Invalid event id: " + eventId);
+        }
+        return idEpoch == epoch ? idSequence : -1;
+    }
+
+    // Caller holds the lock
+    private void replay(Subscriber subscriber, long lastEventId) {
+        if (lastEventId == sequence) {
+            return;
+        }
+        // Too old for the ring, or issued by another run of this service
+        long oldest = Math.max(1, sequence - history.length + 1);
+        if (lastEventId < 0 || lastEventId + 1 < oldest || lastEventId > sequence) {
+            subscriber.offer(SseEmitter.event().name(RESYNC_EVENT).id(eventId(sequence)).data(Map.of()));
+            return;
+        }
+
+        List<Entry> missed = new ArrayList<>();
+        for (long id = lastEventId + 1; id <= sequence; id++) {
+            Entry entry = history[(int) (id % history.length)];
+            if (entry.userId.equals(subscriber.userId)) {
+                missed.add(entry);
+            }
+        }
+        // More than the buffer holds: cheaper for the client to reload than to stream them all
+        if (missed.size() >= bufferSize) {
+            subscriber.offer(SseEmitter.event().name(RESYNC_EVENT).id(eventId(sequence)).data(Map.of()));
+            return;
+        }
+        missed.forEach(entry -> subscriber.offer(toEvent(entry)));
+    }
+
+    private synchronized void remove(Subscriber subscriber) {
+        subscriber.closed.set(true);
+        subscribersByUser.computeIfPresent(subscriber.userId, (userId, forUser) -> {
+            forUser.remove(subscriber);
+            return forUser.isEmpty() ? null : forUser;
+        });
+    }
+
+    private String eventId(long id) {
+        return epoch + "-" + id;
+    }
+
+    private SseEmitter.SseEventBuilder toEvent(Entry entry) {
+        return SseEmitter.event()
+                .name(STATUS_EVENT)
+                .id(eventId(entry.id))
+                .data(entry.update);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.entity.OrderStatus;
+
+/**
+ * Published whenever an order gets a new status (including creation); pushed to the owner's
+ * live streams by OrderStatusBroadcaster after commit.
+ */
+public record OrderStatusChangedEvent(Long orderId, String orderNumber, Long userId, OrderStatus status) {
+}
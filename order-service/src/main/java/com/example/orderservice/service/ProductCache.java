@@ -0,0 +1,51 @@
+package com.example.orderservice.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache for product listings.
+ * Every entry remembers the catalogue version it was loaded at; bumping the
+ * version invalidates all entries at once without walking the map.
+ */
+@Component
+public class ProductCache {
+
+    private static final int MAX_ENTRIES = 1024;
+
+    private final AtomicLong version = new AtomicLong();
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private record Entry(long version, Object value) {}
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, Supplier<T> loader) {
+        long current = version.get();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.version() == current) {
+            return (T) entry.value();
+        }
+
+        // Load with the version read *before* the query: if a write bumps it meanwhile,
+        // the entry is already stale and the next reader reloads it
+        T value = loader.get();
+        if (entries.size() >= MAX_ENTRIES) {
+            entries.clear();
+        }
+        entries.put(key, new Entry(current, value));
+        return value;
+    }
+
+    public void invalidate() {
+        version.incrementAndGet();
+        entries.clear();
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+}
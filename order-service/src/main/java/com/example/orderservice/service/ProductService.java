@@ -0,0 +1,195 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.CartItemDTO;
+import com.example.orderservice.dto.ProductDto;
+import com.example.orderservice.dto.ProductPageDto;
+import com.example.orderservice.entity.Product;
+import com.example.orderservice.repository.OrderItemRepository;
+import com.example.orderservice.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional
+public class ProductService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductService.class);
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final Sort BY_ID = Sort.by("id");
+    private static final int THUMBNAIL_WIDTH = 320;
+
+    private final ProductRepository productRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final ProductCache productCache;
+    private final ImageStore imageStore;
+
+    public ProductService(ProductRepository productRepository,
+                          OrderItemRepository orderItemRepository,
+                          ProductCache productCache,
+                          ImageStore imageStore) {
+        this.productRepository = productRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.productCache = productCache;
+        this.imageStore = imageStore;
+    }
+
+    // ✅ Paginated list of active products (cached per page)
+    @Transactional(readOnly = true)
+    public ProductPageDto listProducts(int page, int size) {
+        int pageNumber = Math.max(0, page);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        return productCache.get("page:" + pageNumber + ":" + pageSize, () -> {
+            Page<Product> result = productRepository.findByActiveTrue(PageRequest.of(pageNumber, pageSize, BY_ID));
+            return ProductPageDto.builder()
+                    .products(result.getContent().stream().map(this::convertToDto).collect(Collectors.toUnmodifiableList()))
+                    .page(pageNumber)
+                    .size(pageSize)
+                    .totalElements(result.getTotalElements())
+                    .totalPages(result.getTotalPages())
+                    .build();
+        });
+    }
+
+    // ✅ Every active product in the shim format the shop already consumes (/api/orders/cart-items)
+    @Transactional(readOnly = true)
+    public List<CartItemDTO> getAllAsCartItems() {
+        return productCache.get("cart-items", () -> productRepository.findByActiveTrue(BY_ID)
+                .stream()
+                .map(product -> {
+                    CartItemDTO item = new CartItemDTO(
+                            product.getId(),
+                            product.getName(),
+                            product.getPrice(),
+                            imageStore.publicPath(product.getImage())
+                    );
+                    item.setThumbnail(imageStore.thumbnailPath(product.getImage(), THUMBNAIL_WIDTH));
+                    return item;
+                })
+                .collect(Collectors.toUnmodifiableList()));
+    }
+
+    @Transactional(readOnly = true)
+    public ProductDto getProduct(Long productId) {
+        return productCache.get("product:" + productId, () -> productRepository.findById(productId)
+                .map(this::convertToDto)
+                .orElseThrow(() -> new IllegalArgumentException("Product not found: " + productId)));
+    }
+
+    // ✅ Create product (admin)
+    public ProductDto createProduct(ProductDto request) {
+        if (request.getId() == null) {
+            throw new IllegalArgumentException("Product id is required");
+        }
+        if (productRepository.existsById(request.getId())) {
+            throw new IllegalArgumentException("Product already exists: " + request.getId());
+        }
+        validate(request);
+
+        Product product = new Product(
+                request.getId(),
+                request.getName(),
+                request.getDescription(),
+                request.getPrice(),
+                request.getImage(),
+                request.getCategory()
+        );
+        Product saved = productRepository.save(product);
+        invalidateAfterCommit();
+
+        logger.info("✅ Product {} created", saved.getId());
+        return convertToDto(saved);
+    }
+
+    // ✅ Update product (admin)
+    public ProductDto updateProduct(Long productId, ProductDto request) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new IllegalArgumentException("Product not found: " + productId));
+        validate(request);
+
+        product.setName(request.getName());
+        product.setDescription(request.getDescription());
+        product.setPrice(request.getPrice());
+        product.setImage(request.getImage());
+        product.setCategory(request.getCategory());
+        if (request.getActive() != null) {
+            product.setActive(request.getActive());
+        }
+        product.setUpdatedAt(new Date());
+        invalidateAfterCommit();
+
+        logger.info("✅ Product {} updated", productId);
+        return convertToDto(product);
+    }
+
+    // ✅ Deactivate product (admin) - kept in the table since orders still reference it
+    public void deactivateProduct(Long productId) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new IllegalArgumentException("Product not found: " + productId));
+        product.setActive(false);
+        product.setUpdatedAt(new Date());
+        invalidateAfterCommit();
+
+        logger.info("❌ Product {} deactivated", productId);
+    }
+
+    // One-time migration: seed the product table from the products already sold
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillFromOrderItems() {
+        if (productRepository.count() > 0) {
+            return;
+        }
+
+        List<Product> products = new ArrayList<>();
+        for (Object[] row : orderItemRepository.findDistinctProducts()) {
+            products.add(new Product((Long) row[0], (String) row[1], null, (Double) row[2], (String) row[3], null));
+        }
+
+        if (!products.isEmpty()) {
+            productRepository.saveAll(products);
+            invalidateAfterCommit();
+            logger.info("📦 Product catalogue seeded with {} products from order items", products.size());
+        }
+    }
+
+    private void validate(ProductDto request) {
+        if (request.getName() == null || request.getName().isBlank()) {
+            throw new IllegalArgumentException("Product name is required");
+        }
+        if (request.getPrice() == null || request.getPrice() < 0) {
+            throw new IllegalArgumentException("Product price must be positive");
+        }
+    }
+
+    // Bump the cache version only once the write is visible to other transactions,
+    // otherwise a concurrent reader could cache the pre-commit rows under the new version
+    private void invalidateAfterCommit() {
+        AfterCommit.run(() -> productCache.invalidate());
+    }
+
+    private ProductDto convertToDto(Product product) {
+        return ProductDto.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .description(product.getDescription())
+                .price(product.getPrice())
+                // Content-hashed paths (under /images) so the shop can cache them forever
+                .image(imageStore.publicPath(product.getImage()))
+                .thumbnail(imageStore.thumbnailPath(product.getImage(), THUMBNAIL_WIDTH))
+                .category(product.getCategory())
+                .active(product.isActive())
+                .build();
+    }
+}
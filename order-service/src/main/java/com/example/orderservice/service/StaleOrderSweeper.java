@@ -0,0 +1,116 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.OrderStatusChangeDto;
+import com.example.orderservice.entity.OrderStatus;
+import com.example.orderservice.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cancels orders left PENDING for longer than orders.stale-sweep.max-age-hours.
+ * Works in bounded chunks: each chunk claims its rows with FOR UPDATE SKIP LOCKED and
+ * cancels them in the same short transaction, so several instances can sweep at once
+ * without touching the same orders. Each committed chunk is pushed to the catalogue
+ * as a single batched status-change call, and its orders' stock goes back on sale.
+ */
+@Component
+public class StaleOrderSweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(StaleOrderSweeper.class);
+
+    private final OrderRepository orderRepository;
+    private final StockLedger stockLedger;
+    private final CatalogueIntegrationService catalogueIntegrationService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${orders.stale-sweep.enabled:false}")
+    private boolean enabled;
+
+    @Value("${orders.stale-sweep.max-age-hours:48}")
+    private long maxAgeHours;
+
+    @Value("${orders.stale-sweep.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${orders.stale-sweep.max-chunks-per-run:50}")
+    private int maxChunksPerRun;
+
+    public StaleOrderSweeper(OrderRepository orderRepository,
+                             StockLedger stockLedger,
+                             CatalogueIntegrationService catalogueIntegrationService,
+                             TransactionTemplate transactionTemplate,
+                             ApplicationEventPublisher eventPublisher) {
+        this.orderRepository = orderRepository;
+        this.stockLedger = stockLedger;
+        this.catalogueIntegrationService = catalogueIntegrationService;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Scheduled(fixedDelayString = "${orders.stale-sweep.interval-ms:600000}",
+            initialDelayString = "${orders.stale-sweep.initial-delay-ms:60000}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+
+        Date cutoff = new Date(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(maxAgeHours));
+        int total = 0;
+
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            List<OrderStatusChangeDto> cancelled = transactionTemplate.execute(tx -> cancelChunk(cutoff));
+            if (cancelled == null || cancelled.isEmpty()) {
+                break;
+            }
+
+            // Sent after commit: the catalogue never hears about a cancellation that was rolled back
+            catalogueIntegrationService.sendStatusChanges(cancelled);
+            total += cancelled.size();
+
+            if (cancelled.size() < chunkSize) {
+                break;
+            }
+        }
+
+        if (total > 0) {
+            logger.info("🧹 Auto-cancelled {} orders pending since before {}", total, cutoff);
+        }
+    }
+
+    private List<OrderStatusChangeDto> cancelChunk(Date cutoff) {
+        List<Object[]> claimed = orderRepository.claimStalePending(cutoff, chunkSize);
+        if (claimed.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> ids = new ArrayList<>(claimed.size());
+        List<OrderStatusChangeDto> changes = new ArrayList<>(claimed.size());
+        List<OrderStatusChangedEvent> events = new ArrayList<>(claimed.size());
+        for (Object[] row : claimed) {
+            Long id = ((Number) row[0]).longValue();
+            ids.add(id);
+            changes.add(new OrderStatusChangeDto((String) row[1], OrderStatus.CANCELLED.name()));
+            events.add(new OrderStatusChangedEvent(id, (String) row[1],
+                    row[2] != null ? ((Number) row[2]).longValue() : null, OrderStatus.CANCELLED));
+        }
+
+        // Rows are locked by the claim above, so the guard on PENDING always holds here
+        orderRepository.updateStatusWhereStatusIn(
+                ids, List.of(OrderStatus.PENDING), OrderStatus.CANCELLED, new Date());
+        // Owners' live streams are notified, and the stock returned, when this chunk commits
+        events.forEach(eventPublisher::publishEvent);
+        stockLedger.restockAfterCommit(changes.stream().map(OrderStatusChangeDto::getOrderNumber).toList());
+        return changes;
+    }
+}
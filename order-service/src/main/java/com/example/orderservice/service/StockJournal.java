@@ -0,0 +1,147 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.entity.ProductStock;
+import com.example.orderservice.entity.StockMovement;
+import com.example.orderservice.repository.ProductStockRepository;
+import com.example.orderservice.repository.StockMovementRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind persistence of the stock ledger.
+ * Movements are queued in memory by StockLedger and flushed in batches: one batched INSERT into
+ * stock_movements plus one relative UPDATE of product_stock per product, in a single transaction.
+ * A failed batch goes back to the head of the queue and is retried on the next run.
+ * Unflushed movements are lost on a crash, so the window is bounded by the flush interval
+ * (and the queue is flushed on shutdown).
+ */
+@Component
+public class StockJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockJournal.class);
+    private static final Set<StockMovement.Type> ORDER_TYPES =
+            EnumSet.of(StockMovement.Type.SALE, StockMovement.Type.RETURN);
+
+    private final ProductStockRepository productStockRepository;
+    private final StockMovementRepository stockMovementRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ConcurrentLinkedDeque<StockMovement> pending = new ConcurrentLinkedDeque<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    @Value("${inventory.journal.batch-size:500}")
+    private int batchSize = 500;
+
+    public StockJournal(ProductStockRepository productStockRepository,
+                        StockMovementRepository stockMovementRepository,
+                        TransactionTemplate transactionTemplate) {
+        this.productStockRepository = productStockRepository;
+        this.stockMovementRepository = stockMovementRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public void append(Long productId, int delta, StockMovement.Type type, String reference) {
+        pending.addLast(new StockMovement(productId, delta, type, reference));
+    }
+
+    /**
+     * Units each order still holds per product: what its SALE movements took, less what RETURN
+     * movements already gave back, persisted and queued alike. Orders absent from the journal
+     * (placed before their products were tracked) hold nothing.
+     */
+    public Map<String, Map<Long, Integer>> unitsHeldBy(Collection<String> orderNumbers) {
+        Map<String, Map<Long, Integer>> held = new HashMap<>();
+        if (orderNumbers.isEmpty()) {
+            return held;
+        }
+        // Held by the flusher while a batch is on its way to the table: a movement is then
+        // always either persisted or queued, never counted twice or missed
+        flushLock.lock();
+        try {
+            for (Object[] row : stockMovementRepository.sumDeltasByReferenceIn(orderNumbers, ORDER_TYPES)) {
+                held.computeIfAbsent((String) row[0], number -> new HashMap<>())
+                        .merge((Long) row[1], -((Number) row[2]).intValue(), Integer::sum);
+            }
+            Set<String> wanted = new HashSet<>(orderNumbers);
+            for (StockMovement movement : pending) {
+                if (ORDER_TYPES.contains(movement.getType()) && wanted.contains(movement.getReference())) {
+                    held.computeIfAbsent(movement.getReference(), number -> new HashMap<>())
+                            .merge(movement.getProductId(), -movement.getDelta(), Integer::sum);
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+        return held;
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.journal.flush-interval-ms:1000}")
+    public void flush() {
+        // One flusher at a time; a concurrent run would only race for the same queue
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            while (!pending.isEmpty()) {
+                List<StockMovement> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+                StockMovement movement;
+                while (batch.size() < batchSize && (movement = pending.pollFirst()) != null) {
+                    batch.add(movement);
+                }
+
+                try {
+                    transactionTemplate.executeWithoutResult(tx -> write(batch));
+                } catch (RuntimeException ex) {
+                    // Keep the original order for the retry
+                    for (int i = batch.size() - 1; i >= 0; i--) {
+                        pending.addFirst(batch.get(i));
+                    }
+                    logger.error("❌ Stock journal flush failed, {} movements kept for retry: {}",
+                            pending.size(), ex.getMessage());
+                    return;
+                }
+                logger.debug("📒 Stock journal: {} movements persisted", batch.size());
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+        if (!pending.isEmpty()) {
+            logger.warn("⚠️ {} stock movements could not be persisted before shutdown", pending.size());
+        }
+    }
+
+    private void write(List<StockMovement> batch) {
+        stockMovementRepository.saveAll(batch);
+
+        Map<Long, Long> deltas = new TreeMap<>();
+        for (StockMovement movement : batch) {
+            deltas.merge(movement.getProductId(), (long) movement.getDelta(), Long::sum);
+        }
+
+        Date now = new Date();
+        deltas.forEach((productId, delta) -> {
+            if (productStockRepository.addOnHand(productId, delta, now) == 0) {
+                // First movement of a newly tracked product
+                productStockRepository.save(new ProductStock(productId, delta));
+            }
+        });
+    }
+}
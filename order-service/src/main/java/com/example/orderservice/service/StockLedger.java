@@ -0,0 +1,285 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.StockDto;
+import com.example.orderservice.entity.ProductStock;
+import com.example.orderservice.entity.StockMovement;
+import com.example.orderservice.repository.ProductStockRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory stock ledger (single instance, like CartStore).
+ * Each tracked product has an atomic "available" counter; a reservation takes units with a
+ * compare-and-decrement, so concurrent checkouts on the same product can never take more than
+ * what is available. Reservations hold units until confirmed (order committed -> SALE journaled),
+ * released (order failed) or expired (checkout never finished). A cancelled order's units go back
+ * on sale once the cancellation commits (RETURN journaled).
+ * Products without a product_stock row are untracked and never limited.
+ */
+@Component
+public class StockLedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockLedger.class);
+
+    enum State { ACTIVE, CHECKOUT, CONFIRMED, RELEASED }
+
+    public static final class Reservation {
+        private final String id;
+        private final Long userId;
+        private final Map<Long, Integer> quantities; // tracked products only
+        private final long expiresAt;
+        private final AtomicReference<State> state;
+
+        private Reservation(Long userId, Map<Long, Integer> quantities, long expiresAt, State state) {
+            this.id = UUID.randomUUID().toString();
+            this.userId = userId;
+            this.quantities = quantities;
+            this.expiresAt = expiresAt;
+            this.state = new AtomicReference<>(state);
+        }
+
+        public String getId() { return id; }
+        public Map<Long, Integer> getQuantities() { return quantities; }
+        public long getExpiresAt() { return expiresAt; }
+    }
+
+    private static final class Counter {
+        final AtomicLong available;
+        final AtomicLong reserved = new AtomicLong();
+
+        Counter(long available) {
+            this.available = new AtomicLong(available);
+        }
+
+        // Compare-and-decrement: never lets available go below zero
+        boolean tryTake(long quantity) {
+            while (true) {
+                long current = available.get();
+                if (current < quantity) {
+                    return false;
+                }
+                if (available.compareAndSet(current, current - quantity)) {
+                    reserved.addAndGet(quantity);
+                    return true;
+                }
+            }
+        }
+
+        void giveBack(long quantity) {
+            reserved.addAndGet(-quantity);
+            available.addAndGet(quantity);
+        }
+    }
+
+    private final ProductStockRepository productStockRepository;
+    private final StockJournal stockJournal;
+
+    private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Reservation> reservations = new ConcurrentHashMap<>();
+    private final Map<Long, Reservation> reservationsByUser = new ConcurrentHashMap<>();
+
+    @Value("${inventory.reservation-ttl-ms:600000}")
+    private long reservationTtlMs = 600_000L;
+
+    public StockLedger(ProductStockRepository productStockRepository, StockJournal stockJournal) {
+        this.productStockRepository = productStockRepository;
+        this.stockJournal = stockJournal;
+    }
+
+    @PostConstruct
+    void load() {
+        for (ProductStock stock : productStockRepository.findAll()) {
+            counters.put(stock.getProductId(), new Counter(Math.max(0, stock.getOnHand())));
+        }
+        logger.info("📦 Stock ledger loaded: {} tracked products", counters.size());
+    }
+
+    /**
+     * Holds stock for a user's cart until checkout or expiry. Replaces the user's previous hold.
+     */
+    public Reservation reserve(Long userId, Map<Long, Integer> quantities) {
+        Reservation previous = reservationsByUser.get(userId);
+        if (previous != null) {
+            release(previous, State.ACTIVE);
+        }
+        Reservation reservation = take(userId, quantities, State.ACTIVE);
+        reservationsByUser.put(userId, reservation);
+        return reservation;
+    }
+
+    /**
+     * Reservation for an order being created. Reuses the user's hold when it covers exactly these
+     * quantities (and stops it from expiring); otherwise takes the stock now.
+     */
+    public Reservation beginCheckout(Long userId, Map<Long, Integer> quantities) {
+        Reservation held = reservationsByUser.get(userId);
+        if (held != null) {
+            if (held.quantities.equals(tracked(quantities))
+                    && held.state.compareAndSet(State.ACTIVE, State.CHECKOUT)) {
+                return held;
+            }
+            release(held, State.ACTIVE);
+        }
+        return take(userId, quantities, State.CHECKOUT);
+    }
+
+    // Order committed: reserved units become a sale in the journal
+    public void confirm(Reservation reservation, String orderNumber) {
+        if (!reservation.state.compareAndSet(State.CHECKOUT, State.CONFIRMED)) {
+            return;
+        }
+        forget(reservation);
+        reservation.quantities.forEach((productId, quantity) -> {
+            counters.get(productId).reserved.addAndGet(-quantity);
+            stockJournal.append(productId, -quantity, StockMovement.Type.SALE, orderNumber);
+        });
+    }
+
+    /**
+     * Puts cancelled orders' units back on sale once the current transaction commits (immediately
+     * without one), so a rolled-back cancellation never returns anything. Only the units the journal
+     * shows each order took are returned: an order placed before a product was tracked took none.
+     */
+    public void restockAfterCommit(Collection<String> orderNumbers) {
+        Map<String, Map<Long, Integer>> held = stockJournal.unitsHeldBy(orderNumbers);
+        AfterCommit.run(() -> held.forEach(this::restock));
+    }
+
+    // Cancelled order: the units it took go back to available
+    public void restock(String orderNumber, Map<Long, Integer> quantities) {
+        quantities.forEach((productId, quantity) -> {
+            Counter counter = counters.get(productId);
+            if (counter == null || quantity == null || quantity < 1) {
+                return;
+            }
+            counter.available.addAndGet(quantity);
+            stockJournal.append(productId, quantity, StockMovement.Type.RETURN, orderNumber);
+        });
+    }
+
+    // Order failed or cart abandoned: units go back to available
+    public void release(Reservation reservation) {
+        if (!release(reservation, State.ACTIVE)) {
+            release(reservation, State.CHECKOUT);
+        }
+    }
+
+    public void releaseForUser(Long userId) {
+        Reservation held = reservationsByUser.get(userId);
+        if (held != null) {
+            release(held, State.ACTIVE);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.expiry-interval-ms:10000}")
+    public void releaseExpired() {
+        long now = System.currentTimeMillis();
+        int released = 0;
+        for (Reservation reservation : reservations.values()) {
+            // Only holds: a reservation already in checkout is settled by its transaction
+            if (reservation.expiresAt < now && release(reservation, State.ACTIVE)) {
+                released++;
+            }
+        }
+        if (released > 0) {
+            logger.info("⏱️ Released {} expired stock reservations", released);
+        }
+    }
+
+    /**
+     * Admin restock (positive) or write-off (negative). A write-off can only take available units.
+     */
+    public StockDto adjust(Long productId, int delta) {
+        Counter counter = counters.computeIfAbsent(productId, id -> new Counter(0));
+        if (delta < 0 && !counter.tryTake(-delta)) {
+            throw new IllegalArgumentException("Only " + counter.available.get()
+                    + " units available for product " + productId);
+        }
+        if (delta < 0) {
+            // tryTake moved the units to reserved; they are gone for good
+            counter.reserved.addAndGet(delta);
+        } else {
+            counter.available.addAndGet(delta);
+        }
+        stockJournal.append(productId, delta, StockMovement.Type.ADJUSTMENT, "admin");
+        logger.info("📦 Stock of product {} adjusted by {}", productId, delta);
+        return getStock(productId);
+    }
+
+    public StockDto getStock(Long productId) {
+        Counter counter = counters.get(productId);
+        if (counter == null) {
+            return StockDto.builder().productId(productId).tracked(false).build();
+        }
+        long available = counter.available.get();
+        long reserved = counter.reserved.get();
+        return StockDto.builder()
+                .productId(productId)
+                .tracked(true)
+                .available(available)
+                .reserved(reserved)
+                .onHand(available + reserved)
+                .build();
+    }
+
+    private Reservation take(Long userId, Map<Long, Integer> quantities, State state) {
+        Map<Long, Integer> tracked = tracked(quantities);
+        Map<Long, Integer> taken = new TreeMap<>();
+
+        for (Map.Entry<Long, Integer> line : tracked.entrySet()) {
+            Counter counter = counters.get(line.getKey());
+            if (!counter.tryTake(line.getValue())) {
+                // All or nothing: hand back what this reservation already took
+                taken.forEach((productId, quantity) -> counters.get(productId).giveBack(quantity));
+                throw new IllegalArgumentException("Insufficient stock for product " + line.getKey()
+                        + " (available: " + counter.available.get() + ")");
+            }
+            taken.put(line.getKey(), line.getValue());
+        }
+
+        Reservation reservation = new Reservation(userId, Collections.unmodifiableMap(tracked),
+                System.currentTimeMillis() + reservationTtlMs, state);
+        reservations.put(reservation.id, reservation);
+        return reservation;
+    }
+
+    // Quantities of tracked products, merged per product, in a stable order
+    private Map<Long, Integer> tracked(Map<Long, Integer> quantities) {
+        Map<Long, Integer> tracked = new TreeMap<>();
+        quantities.forEach((productId, quantity) -> {
+            if (productId == null) {
+                throw new IllegalArgumentException("productId is required");
+            }
+            if (quantity == null || quantity < 1) {
+                throw new IllegalArgumentException("Invalid quantity for product " + productId);
+            }
+            if (counters.containsKey(productId)) {
+                tracked.merge(productId, quantity, Integer::sum);
+            }
+        });
+        return tracked;
+    }
+
+    private boolean release(Reservation reservation, State expected) {
+        if (!reservation.state.compareAndSet(expected, State.RELEASED)) {
+            return false;
+        }
+        forget(reservation);
+        reservation.quantities.forEach((productId, quantity) -> counters.get(productId).giveBack(quantity));
+        return true;
+    }
+
+    private void forget(Reservation reservation) {
+        reservations.remove(reservation.id);
+        reservationsByUser.remove(reservation.userId, reservation);
+    }
+}
@@ -0,0 +1,4 @@
+-- Hibernate created the enum check on stock_movements.type when the table was first made and
+-- "update" never widens it: recreate it with every StockMovement.Type (RETURN: cancelled orders)
+ALTER TABLE stock_movements DROP CONSTRAINT IF EXISTS stock_movements_type_check;
+ALTER TABLE stock_movements ADD CONSTRAINT stock_movements_type_check CHECK (type IN ('ADJUSTMENT', 'SALE', 'RETURN'));
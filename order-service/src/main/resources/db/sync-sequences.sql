@@ -0,0 +1,4 @@
+-- Ids used to come from IDENTITY columns: move each pooled sequence past the existing rows
+-- (runs after Hibernate's schema update; never moves a sequence backwards)
+SELECT setval('orders_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM orders) + 50, (SELECT last_value FROM orders_seq)));
+SELECT setval('order_items_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM order_items) + 50, (SELECT last_value FROM order_items_seq)));
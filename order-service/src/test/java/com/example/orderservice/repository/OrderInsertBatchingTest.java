@@ -0,0 +1,69 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.entity.Order;
+import com.example.orderservice.entity.OrderItem;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Regression test for insert batching: an order with 20 items must not cost 21 INSERT round trips.
+ * Breaks again if an entity goes back to GenerationType.IDENTITY or batching is switched off.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.sql.init.mode=never"
+})
+class OrderInsertBatchingTest {
+
+    private static final int ITEMS = 20;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // Warm up both sequences so the measured flush only contains INSERTs
+        orderRepository.saveAndFlush(newOrder("ORD-WARMUP", 1));
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    @Test
+    void multiItemOrderIsInsertedWithOneBatchPerTable() {
+        orderRepository.save(newOrder("ORD-BATCH", ITEMS));
+        entityManager.flush();
+
+        assertEquals(1 + ITEMS, statistics.getEntityInsertCount(), "every row must be inserted");
+        assertEquals(2, statistics.getPrepareStatementCount(),
+                "expected one batched INSERT for orders and one for order_items");
+    }
+
+    private static Order newOrder(String orderNumber, int itemCount) {
+        Order order = new Order(1L, orderNumber, 10.0 * itemCount, "1 rue de test");
+        for (int i = 0; i < itemCount; i++) {
+            OrderItem item = new OrderItem((long) i + 1, "Product " + i, 1, 10.0, null);
+            item.setOrder(order);
+            order.getItems().add(item);
+        }
+        return order;
+    }
+}
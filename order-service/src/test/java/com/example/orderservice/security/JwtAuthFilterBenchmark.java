@@ -0,0 +1,73 @@
+package com.example.orderservice.security;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtAuthFilter throughput with a warm verified-token cache vs. a full signature check per request.
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.example.orderservice.security.JwtAuthFilterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthFilterBenchmark {
+
+    private static final String SECRET =
+            "GJHs7d92JH9a8sdGHJ9as8d7JhA92jd8HJASD89a7sd98AHSD98ahs9d8ASD98asd7A9S8d7aS9d8as7d98ASD7asd";
+
+    private JwtAuthFilter cachedFilter;
+    private JwtAuthFilter uncachedFilter;
+    private String header;
+
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationInMs", 900000L);
+        header = "Bearer " + jwtUtil.generateAccessToken("bench-user", 42L, List.of("USER"));
+
+        cachedFilter = new JwtAuthFilter(jwtUtil, new VerifiedTokenCache());
+
+        // Zero-capacity cache: every request pays the parse + HMAC check
+        VerifiedTokenCache disabled = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(disabled, "maxEntries", 0);
+        uncachedFilter = new JwtAuthFilter(jwtUtil, disabled);
+    }
+
+    @Benchmark
+    public void cachedToken(Blackhole bh) throws Exception {
+        bh.consume(run(cachedFilter));
+    }
+
+    @Benchmark
+    public void verifyEveryRequest(Blackhole bh) throws Exception {
+        bh.consume(run(uncachedFilter));
+    }
+
+    private Object run(JwtAuthFilter filter) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders/my-orders");
+        request.addHeader("Authorization", header);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return request.getAttribute("userId");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
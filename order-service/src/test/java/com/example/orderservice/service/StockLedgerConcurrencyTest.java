@@ -0,0 +1,126 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.entity.ProductStock;
+import com.example.orderservice.entity.StockMovement;
+import com.example.orderservice.repository.ProductStockRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Hundreds of concurrent checkouts on one hot product: exactly the units in stock are sold,
+ * never more, and every sale reaches the journal.
+ */
+class StockLedgerConcurrencyTest {
+
+    private static final long HOT_PRODUCT = 1L;
+    private static final int STOCK = 100;
+    private static final int CHECKOUTS = 500;
+
+    private StockJournal journal;
+    private StockLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        ProductStockRepository repository = mock(ProductStockRepository.class);
+        when(repository.findAll()).thenReturn(List.of(new ProductStock(HOT_PRODUCT, STOCK)));
+        journal = mock(StockJournal.class);
+
+        ledger = new StockLedger(repository, journal);
+        ledger.load();
+    }
+
+    @Test
+    void hotProductIsNeverOversold() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        AtomicInteger released = new AtomicInteger();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < CHECKOUTS; i++) {
+            long userId = i;
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    StockLedger.Reservation reservation = ledger.beginCheckout(userId, Map.of(HOT_PRODUCT, 1));
+                    // One order in ten fails after reserving: its unit must go back on sale
+                    if (userId % 10 == 0) {
+                        ledger.release(reservation);
+                        released.incrementAndGet();
+                    } else {
+                        ledger.confirm(reservation, "ORD-" + userId);
+                        sold.incrementAndGet();
+                    }
+                } catch (IllegalArgumentException ex) {
+                    refused.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        // Released units may or may not have been bought again, but nothing is lost or created
+        long available = ledger.getStock(HOT_PRODUCT).getAvailable();
+        assertTrue(sold.get() <= STOCK, "oversold: " + sold.get());
+        assertEquals(STOCK, sold.get() + available);
+        assertEquals(0L, ledger.getStock(HOT_PRODUCT).getReserved());
+        assertEquals(CHECKOUTS, sold.get() + refused.get() + released.get());
+        verify(journal, times(sold.get())).append(eq(HOT_PRODUCT), eq(-1), eq(StockMovement.Type.SALE), anyString());
+    }
+
+    @Test
+    void expiredHoldGoesBackOnSale() {
+        ReflectionTestUtils.setField(ledger, "reservationTtlMs", -1L);
+
+        ledger.reserve(42L, Map.of(HOT_PRODUCT, STOCK));
+        assertThrows(IllegalArgumentException.class, () -> ledger.beginCheckout(7L, Map.of(HOT_PRODUCT, 1)));
+
+        ledger.releaseExpired();
+
+        assertEquals((long) STOCK, ledger.getStock(HOT_PRODUCT).getAvailable());
+        verify(journal, never()).append(anyLong(), anyInt(), any(), anyString());
+    }
+
+    @Test
+    void cancelledOrderGivesItsUnitsBack() {
+        StockLedger.Reservation reservation = ledger.beginCheckout(42L, Map.of(HOT_PRODUCT, 3, 99L, 1));
+        ledger.confirm(reservation, "ORD-42");
+        // What the journal holds for it: the sale of the tracked product only
+        when(journal.unitsHeldBy(List.of("ORD-42"))).thenReturn(Map.of("ORD-42", Map.of(HOT_PRODUCT, 3)));
+
+        ledger.restockAfterCommit(List.of("ORD-42"));
+
+        assertEquals((long) STOCK, ledger.getStock(HOT_PRODUCT).getAvailable());
+        verify(journal).append(HOT_PRODUCT, 3, StockMovement.Type.RETURN, "ORD-42");
+        verify(journal, never()).append(eq(99L), anyInt(), any(), anyString());
+    }
+
+    @Test
+    void orderPlacedBeforeTrackingReturnsNothing() {
+        // No SALE in the journal: the order never took units from the ledger
+        when(journal.unitsHeldBy(List.of("ORD-LEGACY"))).thenReturn(Map.of());
+
+        ledger.restockAfterCommit(List.of("ORD-LEGACY"));
+
+        assertEquals((long) STOCK, ledger.getStock(HOT_PRODUCT).getAvailable());
+        verify(journal, never()).append(anyLong(), anyInt(), eq(StockMovement.Type.RETURN), anyString());
+    }
+}
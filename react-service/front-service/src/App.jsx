@@ -11,6 +11,7 @@ import About from "./components/Home/About";
 import Location from "./components/Home/Location";
 import MyOrders from "./components/Home/MyOrders.jsx";
 import MyReviews from "./components/Home/MyReviews.jsx";
+import Dashboard from "./components/Home/Dashboard.jsx";
 
 
 export default function App() {
@@ -34,6 +35,14 @@ export default function App() {
                             </PrivateRoute>
                         }
                     />
+                    <Route
+                        path="/dashboard"
+                        element={
+                            <PrivateRoute>
+                                <Dashboard />
+                            </PrivateRoute>
+                        }
+                    />
                     <Route
                         path="/MyReviews"
                         element={
@@ -0,0 +1,116 @@
+// src/pages/Dashboard.jsx
+import React, { useState, useEffect } from 'react';
+import {
+    subscribeToLiveOrders,
+    formatCurrency,
+    formatOrderDate,
+    getStatusLabel,
+    getStatusColor
+} from '../../services/catalogueService';
+
+const MAX_ORDERS = 20;
+
+// Admin dashboard: orders and per-minute counters are pushed by catalogue-service
+const Dashboard = () => {
+    const [orders, setOrders] = useState([]);
+    const [counters, setCounters] = useState(null);
+    const [skipped, setSkipped] = useState(0);
+
+    useEffect(() => {
+        return subscribeToLiveOrders({
+            onOrder: (order) => {
+                setOrders(prev => [
+                    order,
+                    ...prev.filter(existing => existing.orderNumber !== order.orderNumber)
+                ].slice(0, MAX_ORDERS));
+            },
+            onCounters: setCounters,
+            onSkipped: (count) => setSkipped(prev => prev + count)
+        });
+    }, []);
+
+    const lastMinute = counters?.minutes?.length
+        ? counters.minutes[counters.minutes.length - 1]
+        : null;
+
+    return (
+        <div className="container mt-4">
+            <h2 className="mb-4">📡 Commandes en direct</h2>
+
+            <div className="row g-3 mb-4">
+                <div className="col-md-4">
+                    <div className="card shadow-sm border-0">
+                        <div className="card-body">
+                            <h3 className="mb-1">{counters?.orders ?? 0}</h3>
+                            <p className="text-muted mb-0">
+                                Commandes ({counters?.windowMinutes ?? 60} dernières minutes)
+                            </p>
+                        </div>
+                    </div>
+                </div>
+                <div className="col-md-4">
+                    <div className="card shadow-sm border-0">
+                        <div className="card-body">
+                            <h3 className="mb-1">{formatCurrency(counters?.revenue)}</h3>
+                            <p className="text-muted mb-0">Chiffre d'affaires</p>
+                        </div>
+                    </div>
+                </div>
+                <div className="col-md-4">
+                    <div className="card shadow-sm border-0">
+                        <div className="card-body">
+                            <h3 className="mb-1">{lastMinute?.orders ?? 0}</h3>
+                            <p className="text-muted mb-0">Commandes cette minute</p>
+                        </div>
+                    </div>
+                </div>
+            </div>
+
+            {skipped > 0 && (
+                <div className="alert alert-warning">
+                    {skipped} commande(s) non affichée(s) : la connexion a pris du retard.
+                </div>
+            )}
+
+            <div className="card shadow-sm border-0">
+                <div className="card-body">
+                    <h5 className="card-title mb-3">Dernières commandes</h5>
+                    {orders.length === 0 ? (
+                        <p className="text-muted mb-0">En attente de commandes...</p>
+                    ) : (
+                        <table className="table table-hover mb-0">
+                            <thead>
+                                <tr>
+                                    <th>Commande</th>
+                                    <th>Client</th>
+                                    <th>Articles</th>
+                                    <th>Montant</th>
+                                    <th>Statut</th>
+                                    <th>Date</th>
+                                </tr>
+                            </thead>
+                            <tbody>
+                                {orders.map(order => (
+                                    <tr key={order.orderNumber}>
+                                        <td>{order.orderNumber}</td>
+                                        <td>{order.userName || `#${order.userId}`}</td>
+                                        <td>{order.itemCount}</td>
+                                        <td>{formatCurrency(order.totalAmount)}</td>
+                                        <td>
+                                            <span className={`badge bg-${getStatusColor(order.orderStatus)}`}>
+                                                {getStatusLabel(order.orderStatus)}
+                                            </span>
+                                        </td>
+                                        <td>{formatOrderDate(order.orderDate)}</td>
+                                    </tr>
+                                ))}
+                            </tbody>
+                        </table>
+                    )}
+                </div>
+            </div>
+        </div>
+    );
+};
+
+export default Dashboard;
@@ -9,6 +9,7 @@ import catalogueService, {
     getStatusColor,
     checkServiceStatus
 } from '../../services/catalogueService';
+import { subscribeToOrderStatuses } from '../../services/orderService';
 
 const MyOrders = () => {
     const { user } = useAuth();
@@ -34,6 +35,23 @@ const MyOrders = () => {
         }
     }, [user?.id, serviceStatus]);
 
+    // Status changes are pushed by order-service; no need to reload the whole history
+    useEffect(() => {
+        if (!user?.id || !serviceStatus) {
+            return undefined;
+        }
+        return subscribeToOrderStatuses({
+            onStatus: (update) => {
+                setOrders(prev => prev.map(order =>
+                    order.orderNumber === update.orderNumber
+                        ? { ...order, orderStatus: update.status }
+                        : order
+                ));
+            },
+            onResync: () => loadUserData()
+        });
+    }, [user?.id, serviceStatus]);
+
     useEffect(() => {
         filterOrders();
     }, [orders, searchTerm, statusFilter]);
@@ -93,9 +93,7 @@ const MyReviews = () => {
     // Charger mes reviews
     const loadMyReviews = async () => {
         try {
-            // Récupérer TOUS les reviews puis filtrer
-            const allReviews = await reviewService.getAllReviews();
-            const myReviewsList = allReviews.filter(review => review.userId === user.id);
+            const myReviewsList = await reviewService.getUserReviews(user.id);
             setMyReviews(myReviewsList);
         } catch (error) {
             console.error('Erreur chargement reviews:', error);
@@ -1,5 +1,6 @@
 import React, { useState, useEffect } from 'react';
 import { getCartItems, createOrder, testOrderService } from '../../services/orderService';
+import { searchProducts, getSuggestions } from '../../services/searchService';
 
 export default function Shop() {
     const [products, setProducts] = useState([]);
@@ -13,6 +14,9 @@ export default function Shop() {
     const [searchTerm, setSearchTerm] = useState('');
     const [selectedCity, setSelectedCity] = useState('');
     const [addressDetails, setAddressDetails] = useState('');
+    // Ranked product ids from search-service for the current search term (null = use local filter)
+    const [searchRanking, setSearchRanking] = useState(null);
+    const [suggestions, setSuggestions] = useState([]);
 
     // Pagination states
     const [currentPage, setCurrentPage] = useState(1);
@@ -76,6 +80,7 @@ export default function Shop() {
                     price: parseFloat(item.price || item.prix || item.unitPrice || 0),
                     description: item.description || item.desc || 'Description non disponible',
                     image: item.image || ['💻', '🖱️', '⌨️', '🖥️', '📱'][index % 5],
+                    thumbnail: item.thumbnail || item.image,
                     category: item.category || 'Général',
                     stock: item.stock || 10
                 }));
@@ -112,12 +117,68 @@ export default function Shop() {
         }
     };
 
+    // Server-side ranked search, debounced; falls back to the local filter if search-service is down
+    useEffect(() => {
+        const query = searchTerm.trim();
+        if (!query) {
+            setSearchRanking(null);
+            return undefined;
+        }
+        let cancelled = false;
+        const timer = setTimeout(async () => {
+            try {
+                const result = await searchProducts(query, { size: 50 });
+                if (!cancelled) {
+                    setSearchRanking((result.results || []).map(hit => hit.id));
+                    setCurrentPage(1);
+                }
+            } catch (err) {
+                console.warn('⚠️ Recherche serveur indisponible, filtre local:', err.message);
+                if (!cancelled) {
+                    setSearchRanking(null);
+                }
+            }
+        }, 200);
+        return () => {
+            cancelled = true;
+            clearTimeout(timer);
+        };
+    }, [searchTerm]);
+
+    // Type-ahead suggestions on every keystroke (cheap on the server, cached by the browser)
+    useEffect(() => {
+        const prefix = searchTerm.trim();
+        if (!prefix) {
+            setSuggestions([]);
+            return undefined;
+        }
+        let cancelled = false;
+        getSuggestions(prefix)
+            .then(list => {
+                if (!cancelled) {
+                    setSuggestions(list);
+                }
+            })
+            .catch(() => {
+                if (!cancelled) {
+                    setSuggestions([]);
+                }
+            });
+        return () => {
+            cancelled = true;
+        };
+    }, [searchTerm]);
+
     // Filter products by search
-    const filteredProducts = products.filter(product =>
-        product.productName.toLowerCase().includes(searchTerm.toLowerCase()) ||
-        product.description.toLowerCase().includes(searchTerm.toLowerCase()) ||
-        product.category.toLowerCase().includes(searchTerm.toLowerCase())
-    );
+    const filteredProducts = searchRanking
+        ? searchRanking
+            .map(id => products.find(product => product.productId === id))
+            .filter(Boolean)
+        : products.filter(product =>
+            product.productName.toLowerCase().includes(searchTerm.toLowerCase()) ||
+            product.description.toLowerCase().includes(searchTerm.toLowerCase()) ||
+            product.category.toLowerCase().includes(searchTerm.toLowerCase())
+        );
 
     // Pagination logic
     const indexOfLastProduct = currentPage * productsPerPage;
@@ -729,7 +790,13 @@ export default function Shop() {
                             value={searchTerm}
                             onChange={(e) => setSearchTerm(e.target.value)}
                             style={styles.searchInput}
+                            list="shop-search-suggestions"
                         />
+                        <datalist id="shop-search-suggestions">
+                            {suggestions.map(suggestion => (
+                                <option key={`${suggestion.type}-${suggestion.text}`} value={suggestion.text} />
+                            ))}
+                        </datalist>
                         <button
                             onClick={fetchProducts}
                             style={{
@@ -864,7 +931,8 @@ export default function Shop() {
                                         <div key={product.productId} style={styles.productCard}>
                                             <div style={styles.productImage}>
                                                 <img
-                                                    src={`${BASE_IMAGE_URL}/${product.image}`}
+                                                    src={`${BASE_IMAGE_URL}/${product.thumbnail || product.image}`}
+                                                    loading="lazy"
                                                     alt={product.productName}
                                                     style={{ width: '100%', height: '100%', objectFit: 'cover' }}
                                                 />
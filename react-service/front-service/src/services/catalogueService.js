@@ -137,6 +137,29 @@ export const recordOrder = async (orderData) => {
     }
 };
 
+// Live admin order feed (server-sent events instead of polling /orders/all and /statistics).
+// EventSource reconnects by itself and resumes with Last-Event-ID; "skipped" means the
+// client fell behind and that many orders were not delivered.
+export const subscribeToLiveOrders = ({ onOrder, onCounters, onSkipped }) => {
+    if (typeof EventSource === 'undefined') {
+        return () => {};
+    }
+
+    const source = new EventSource(`${CATALOGUE_API_BASE_URL}/orders/live`);
+    const listen = (name, handler) => source.addEventListener(name, (event) => {
+        try {
+            handler?.(JSON.parse(event.data));
+        } catch (error) {
+            console.error(`❌ Invalid ${name} event:`, error);
+        }
+    });
+    listen('order', onOrder);
+    listen('counters', onCounters);
+    listen('skipped', (data) => onSkipped?.(data.skipped));
+
+    return () => source.close();
+};
+
 // Fonctions utilitaires
 export const formatCurrency = (amount) => {
     if (amount === null || amount === undefined) return "MAD 0.00";
@@ -224,6 +247,7 @@ export default {
     getOrderByNumber,
     getGlobalStatistics,
     recordOrder,
+    subscribeToLiveOrders,
     formatCurrency,
     formatOrderDate,
     getStatusLabel,
@@ -296,4 +320,18 @@ export const getUserDeliveredProducts = async (userId) => {
         console.error('Erreur récupération produits livrés:', error);
         return [];
     }
-};
\ No newline at end of file
+};
+/**
+ * PRODUITS SOUVENT ACHETÉS AVEC CELUI-CI ("also bought")
+ */
+export const getAlsoBought = async (productId, limit = 10) => {
+    try {
+        const response = await catalogueApi.get(`/products/${productId}/also-bought`, {
+            params: { limit }
+        });
+        return response.data;
+    } catch (error) {
+        console.error('Erreur récupération recommandations:', error);
+        return [];
+    }
+};
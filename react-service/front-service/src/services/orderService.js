@@ -79,4 +79,27 @@ export const fetchCartItemsDirect = async () => {
         }
     });
     return response.json();
-};
\ No newline at end of file
+};
+// Live status changes of the user's orders (server-sent events instead of polling).
+// EventSource reconnects by itself and resumes with Last-Event-ID; "resync" means the
+// server no longer has the missed changes and the list should be reloaded.
+export const subscribeToOrderStatuses = ({ onStatus, onResync }) => {
+    const token = localStorage.getItem('jwt');
+    if (!token || typeof EventSource === 'undefined') {
+        return () => {};
+    }
+
+    const source = new EventSource(
+        `${ORDER_API_BASE_URL}/api/orders/stream?access_token=${encodeURIComponent(token)}`
+    );
+    source.addEventListener('order-status', (event) => {
+        try {
+            onStatus?.(JSON.parse(event.data));
+        } catch (error) {
+            console.error('❌ Invalid order-status event:', error);
+        }
+    });
+    source.addEventListener('resync', () => onResync?.());
+
+    return () => source.close();
+};
@@ -50,46 +50,68 @@ export const addReview = async (reviewData) => {
 };
 
 /**
- * 2. RÉCUPÉRER TOUS LES REVIEWS
+ * PAGE DE REVIEWS (pagination par curseur)
+ * options : { sort: 'newest' | 'oldest' | 'highest' | 'lowest', size, cursor }
+ * Retourne { reviews, count, nextCursor, hasMore }
  */
-export const getAllReviews = async () => {
-    try {
-        console.log('📊 Récupération de TOUS les reviews...');
-        const response = await reviewApi.get('/all');
+const getReviewPage = async (path, { sort, size = 20, cursor } = {}) => {
+    const response = await reviewApi.get(path, {
+        params: { sort, size, cursor: cursor || undefined }
+    });
+    return response.data || { reviews: [], count: 0, nextCursor: null, hasMore: false };
+};
 
-        console.log(`✅ ${response.data?.length || 0} reviews récupérés:`, response.data);
-        return response.data || [];
+const EMPTY_PAGE = { reviews: [], count: 0, nextCursor: null, hasMore: false };
 
+/**
+ * 2. RÉCUPÉRER LES REVIEWS (toutes, page par page)
+ */
+export const getAllReviewsPage = async (options) => {
+    try {
+        return await getReviewPage('/all', options);
     } catch (error) {
-        console.error('❌ Erreur récupération tous reviews:', error);
-        return [];
+        console.error('❌ Erreur récupération reviews:', error);
+        return EMPTY_PAGE;
     }
 };
 
+// Les plus récentes (première page seulement)
+export const getAllReviews = async (size = 50) => {
+    const page = await getAllReviewsPage({ sort: 'newest', size });
+    console.log(`✅ ${page.reviews.length} reviews récupérés`);
+    return page.reviews;
+};
+
 /**
  * 3. RÉCUPÉRER REVIEWS D'UN PRODUIT
  */
-export const getReviewsByProduct = async (productId) => {
+export const getReviewsByProductPage = async (productId, options) => {
     try {
-        console.log(`📊 Récupération reviews produit ${productId}...`);
-        const response = await reviewApi.get(`/product/${productId}`);
-        console.log(`✅ ${response.data?.length || 0} reviews pour produit ${productId}`);
-        return response.data || [];
+        return await getReviewPage(`/product/${productId}`, options);
     } catch (error) {
         console.error(`❌ Erreur reviews produit ${productId}:`, error);
-        return [];
+        return EMPTY_PAGE;
     }
 };
 
+export const getReviewsByProduct = async (productId, options) => {
+    const page = await getReviewsByProductPage(productId, options);
+    return page.reviews;
+};
+
 /**
- * 4. RÉCUPÉRER REVIEWS D'UN UTILISATEUR
+ * 4. RÉCUPÉRER REVIEWS D'UN UTILISATEUR (toutes ses pages, une par produit acheté au plus)
  */
 export const getUserReviews = async (userId) => {
     try {
         console.log(`📊 Récupération reviews utilisateur ${userId}...`);
-        // Récupère tous les reviews puis filtre
-        const allReviews = await getAllReviews();
-        const userReviews = allReviews.filter(review => review.userId === userId);
+        const userReviews = [];
+        let cursor = null;
+        do {
+            const page = await getReviewPage(`/user/${userId}`, { size: 100, cursor });
+            userReviews.push(...page.reviews);
+            cursor = page.hasMore ? page.nextCursor : null;
+        } while (cursor);
         console.log(`✅ ${userReviews.length} reviews pour utilisateur ${userId}`);
         return userReviews;
 
@@ -146,48 +168,65 @@ export const canUserReviewProduct = async (userId, productId) => {
 };
 
 /**
- * 8. NOTE MOYENNE D'UN PRODUIT
+ * 8. NOTE MOYENNE D'UN PRODUIT (agrégat tenu à jour côté serveur)
  */
 export const getProductAverageRating = async (productId) => {
     try {
-        const reviews = await getReviewsByProduct(productId);
+        const response = await reviewApi.get(`/product/${productId}/summary`);
+        return toAverageRating(response.data);
+    } catch (error) {
+        return { average: 0, count: 0 };
+    }
+};
 
-        if (reviews.length === 0) {
-            return { average: 0, count: 0 };
+/**
+ * 9. NOTES DE PLUSIEURS PRODUITS EN UN APPEL (grilles produits)
+ * Retourne { [productId]: { average, count, distribution } }
+ */
+export const getProductRatings = async (productIds) => {
+    const ids = [...new Set((productIds || []).filter(id => id != null))];
+    if (ids.length === 0) {
+        return {};
+    }
+    try {
+        const ratings = {};
+        // 200 ids max par appel côté serveur
+        for (let i = 0; i < ids.length; i += 200) {
+            const response = await reviewApi.get('/summaries', {
+                params: { productIds: ids.slice(i, i + 200).join(',') }
+            });
+            (response.data || []).forEach(summary => {
+                ratings[summary.productId] = toAverageRating(summary);
+            });
         }
-
-        const sum = reviews.reduce((total, review) => total + review.rating, 0);
-        const average = (sum / reviews.length).toFixed(1);
-
-        return {
-            average: parseFloat(average),
-            count: reviews.length,
-            distribution: calculateRatingDistribution(reviews)
-        };
-
+        return ratings;
     } catch (error) {
-        return { average: 0, count: 0 };
+        console.error('❌ Erreur récupération notes produits:', error);
+        return {};
     }
 };
 
 // ==================== FONCTIONS UTILITAIRES ====================
 
 /**
- * CALCULER DISTRIBUTION DES NOTES
+ * RÉSUMÉ SERVEUR -> { average, count, distribution } (distribution en pourcentages)
  */
-const calculateRatingDistribution = (reviews) => {
-    const distribution = { 1: 0, 2: 0, 3: 0, 4: 0, 5: 0 };
-
-    reviews.forEach(review => {
-        distribution[review.rating]++;
-    });
+const toAverageRating = (summary) => {
+    const count = summary?.count || 0;
+    if (count === 0) {
+        return { average: 0, count: 0 };
+    }
 
-    // Convertir en pourcentages
+    const distribution = { 1: 0, 2: 0, 3: 0, 4: 0, 5: 0 };
     Object.keys(distribution).forEach(key => {
-        distribution[key] = Math.round((distribution[key] / reviews.length) * 100);
+        distribution[key] = Math.round(((summary.histogram?.[key] || 0) / count) * 100);
     });
 
-    return distribution;
+    return {
+        average: parseFloat(Number(summary.average).toFixed(1)),
+        count,
+        distribution
+    };
 };
 
 /**
@@ -225,7 +264,7 @@ export const formatReviewDate = (dateString) => {
 export const checkServiceStatus = async () => {
     try {
         console.log('🔍 Vérification statut service reviews...');
-        await reviewApi.get('/all');
+        await reviewApi.get('/all', { params: { size: 1 } });
         console.log('✅ Service reviews disponible');
         return true;
     } catch (error) {
@@ -240,7 +279,9 @@ export default {
     // CRUD Operations
     addReview,
     getAllReviews,
+    getAllReviewsPage,
     getReviewsByProduct,
+    getReviewsByProductPage,
     getUserReviews,
     updateReview,
     deleteReview,
@@ -248,6 +289,7 @@ export default {
     // Utility Functions
     canUserReviewProduct,
     getProductAverageRating,
+    getProductRatings,
     formatReviewDate,
 
     // Service Status
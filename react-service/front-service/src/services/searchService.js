@@ -0,0 +1,59 @@
+// src/services/searchService.js
+import axios from 'axios';
+
+const SEARCH_API_BASE_URL = 'http://localhost:8088/api/search';
+
+const searchApi = axios.create({
+    baseURL: SEARCH_API_BASE_URL,
+    headers: {
+        'Content-Type': 'application/json'
+    },
+    timeout: 3000
+});
+
+// Ranked product search (BM25 over names, descriptions and categories)
+export const searchProducts = async (query, { category, page = 0, size = 50 } = {}) => {
+    const response = await searchApi.get('/products', {
+        params: { q: query, category, page, size }
+    });
+    return response.data;
+};
+
+// Type-ahead suggestions (product names weighted by sales, popular searches)
+export const getSuggestions = async (prefix, limit = 8) => {
+    const response = await searchApi.get('/autocomplete', {
+        params: { q: prefix, limit }
+    });
+    return response.data?.suggestions || [];
+};
+
+// Review comments: words, "phrases", OR, -exclusions; highlight is escaped HTML with <mark> tags
+export const searchReviews = async (query, { productId, minRating, maxRating, sort, page = 0, size = 20 } = {}) => {
+    const response = await searchApi.get('/reviews', {
+        params: { q: query, productId, minRating, maxRating, sort, page, size }
+    });
+    return response.data;
+};
+
+// Home page rankings (Bayesian average rating / review count), optionally within a category
+export const getTopRated = async ({ category, limit = 10 } = {}) => {
+    const response = await searchApi.get('/leaderboard/top-rated', {
+        params: { category, limit }
+    });
+    return response.data?.products || [];
+};
+
+export const getMostReviewed = async ({ category, limit = 10 } = {}) => {
+    const response = await searchApi.get('/leaderboard/most-reviewed', {
+        params: { category, limit }
+    });
+    return response.data?.products || [];
+};
+
+export default {
+    searchProducts,
+    getSuggestions,
+    searchReviews,
+    getTopRated,
+    getMostReviewed
+};
@@ -2,10 +2,20 @@ package com.example.searchservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.thread.Threading;
 import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+
 @SpringBootApplication
+@EnableScheduling
 public class SearchServiceApplication {
 
 	public static void main(String[] args) {
@@ -13,7 +23,21 @@ public class SearchServiceApplication {
 	}
 
 	@Bean
-	public RestTemplate restTemplate() {
-		return new RestTemplate();
+	public RestTemplate restTemplate(Environment environment) {
+		if (Threading.VIRTUAL.isActive(environment)) {
+			// java.net.http client: blocks the calling virtual thread without pinning its carrier
+			HttpClient httpClient = HttpClient.newBuilder()
+					.executor(new VirtualThreadTaskExecutor("order-http-"))
+					.connectTimeout(Duration.ofSeconds(5))
+					.build();
+			JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+			requestFactory.setReadTimeout(Duration.ofSeconds(10));
+			return new RestTemplate(requestFactory);
+		}
+		// Same limits on platform threads: a hung service must not hold a request thread forever
+		SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+		requestFactory.setConnectTimeout(Duration.ofSeconds(5));
+		requestFactory.setReadTimeout(Duration.ofSeconds(10));
+		return new RestTemplate(requestFactory);
 	}
 }
@@ -0,0 +1,33 @@
+package com.example.searchservice.controller;
+
+import com.example.searchservice.service.AutocompleteService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/search/autocomplete")
+@RequiredArgsConstructor
+@CrossOrigin("*")
+public class AutocompleteController {
+
+    private final AutocompleteService autocompleteService;
+
+    @GetMapping
+    public ResponseEntity<?> suggest(@RequestParam(required = false) String q,
+                                     @RequestParam(defaultValue = "8") int limit) {
+        try {
+            // Same prefix typed again within a minute is served by the browser
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.maxAge(Duration.ofSeconds(60)).cachePublic())
+                    .body(autocompleteService.suggest(q, limit));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", ex.getMessage()));
+        }
+    }
+}
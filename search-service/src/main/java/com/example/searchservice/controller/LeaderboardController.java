@@ -0,0 +1,56 @@
+package com.example.searchservice.controller;
+
+import com.example.searchservice.service.LeaderboardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/search/leaderboard")
+@RequiredArgsConstructor
+@CrossOrigin("*")
+public class LeaderboardController {
+
+    private final LeaderboardService leaderboardService;
+
+    // ✅ Bayesian average, so a couple of 5-star reviews don't top the list: ?category=&limit=
+    @GetMapping("/top-rated")
+    public ResponseEntity<?> topRated(@RequestParam(required = false) String category,
+                                      @RequestParam(defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(leaderboardService.topRated(category, limit));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    // ✅ ?category=&limit=
+    @GetMapping("/most-reviewed")
+    public ResponseEntity<?> mostReviewed(@RequestParam(required = false) String category,
+                                          @RequestParam(defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(leaderboardService.mostReviewed(category, limit));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    // Full rebuild from the review table (after a bulk import or a manual fix)
+    @PostMapping("/rebuild")
+    public ResponseEntity<?> rebuild() {
+        try {
+            return ResponseEntity.ok(leaderboardService.rebuild());
+        } catch (IllegalStateException ex) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", ex.getMessage()));
+        } catch (RuntimeException ex) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", ex.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.searchservice.controller;
+
+import com.example.searchservice.service.ProductSearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/search/products")
+@RequiredArgsConstructor
+@CrossOrigin("*")
+public class ProductSearchController {
+
+    private final ProductSearchService productSearchService;
+
+    @GetMapping
+    public ResponseEntity<?> search(@RequestParam(required = false) String q,
+                                    @RequestParam(required = false) String category,
+                                    @RequestParam(defaultValue = "0") int page,
+                                    @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(productSearchService.search(q, category, page, size));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    // Rebuild now instead of waiting for the next scheduled refresh (after a catalogue import)
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh() {
+        try {
+            return ResponseEntity.ok(productSearchService.refresh());
+        } catch (IllegalStateException ex) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", ex.getMessage()));
+        } catch (RuntimeException ex) {
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY)
+                    .body(Map.of("error", "Product source unavailable: " + ex.getMessage()));
+        }
+    }
+}
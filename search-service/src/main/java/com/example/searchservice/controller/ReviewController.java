@@ -1,7 +1,8 @@
 package com.example.searchservice.controller;
 
+import com.example.searchservice.dto.RatingSummaryResponse;
 import com.example.searchservice.dto.ReviewRequest;
-import com.example.searchservice.dto.ReviewResponse;
+import com.example.searchservice.dto.ReviewSort;
 import com.example.searchservice.service.ReviewService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -28,16 +29,62 @@ public class ReviewController {
         }
     }
 
+    // ✅ Reviews d'un produit : ?sort=newest|oldest|highest|lowest&size=20&cursor=...
     @GetMapping("/product/{productId}")
-    public ResponseEntity<?> getReviews(@PathVariable Long productId) {
-        return ResponseEntity.ok(
-                reviewService.getReviewsByProduct(productId)
-        );
+    public ResponseEntity<?> getReviews(@PathVariable Long productId,
+                                        @RequestParam(required = false) String sort,
+                                        @RequestParam(required = false) String cursor,
+                                        @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(
+                    reviewService.getReviewsByProduct(productId, ReviewSort.from(sort), cursor, size)
+            );
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    // ✅ Reviews d'un utilisateur, les plus récentes d'abord
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<?> getUserReviews(@PathVariable Long userId,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(reviewService.getUserReviews(userId, cursor, size));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    // ✅ Note moyenne + histogramme d'un produit
+    @GetMapping("/product/{productId}/summary")
+    public ResponseEntity<RatingSummaryResponse> getRatingSummary(@PathVariable Long productId) {
+        return ResponseEntity.ok(reviewService.getRatingSummary(productId));
     }
 
+    // ✅ Résumés pour une grille de produits : /api/reviews/summaries?productIds=1,2,3
+    @GetMapping("/summaries")
+    public ResponseEntity<?> getRatingSummaries(@RequestParam List<Long> productIds) {
+        try {
+            return ResponseEntity.ok(reviewService.getRatingSummaries(productIds));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    // ✅ Toutes les reviews (admin), page par page
     @GetMapping("/all")
-    public ResponseEntity<List<ReviewResponse>> getAllReviews() {
-        List<ReviewResponse> reviews = reviewService.getAllReviews();
-        return ResponseEntity.ok(reviews);
+    public ResponseEntity<?> getAllReviews(@RequestParam(required = false) String sort,
+                                           @RequestParam(required = false) String cursor,
+                                           @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(reviewService.getAllReviews(ReviewSort.from(sort), cursor, size));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", ex.getMessage()));
+        }
     }
-}
\ No newline at end of file
+}
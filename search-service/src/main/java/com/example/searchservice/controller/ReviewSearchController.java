@@ -0,0 +1,50 @@
+package com.example.searchservice.controller;
+
+import com.example.searchservice.service.ReviewSearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/search/reviews")
+@RequiredArgsConstructor
+@CrossOrigin("*")
+public class ReviewSearchController {
+
+    private final ReviewSearchService reviewSearchService;
+
+    // ✅ ?q=battery -charger OR "late delivery"&productId=&minRating=&maxRating=&sort=relevance|newest
+    @GetMapping
+    public ResponseEntity<?> search(@RequestParam(required = false) String q,
+                                    @RequestParam(required = false) Long productId,
+                                    @RequestParam(required = false) Integer minRating,
+                                    @RequestParam(required = false) Integer maxRating,
+                                    @RequestParam(required = false) String sort,
+                                    @RequestParam(defaultValue = "0") int page,
+                                    @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(
+                    reviewSearchService.search(q, productId, minRating, maxRating, sort, page, size));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    // Full rebuild from the review table (after a bulk import or a manual fix)
+    @PostMapping("/rebuild")
+    public ResponseEntity<?> rebuild() {
+        try {
+            return ResponseEntity.ok(reviewSearchService.rebuild());
+        } catch (IllegalStateException ex) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", ex.getMessage()));
+        } catch (RuntimeException ex) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", ex.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.searchservice.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AutocompleteResponse {
+    private String query;
+    private Long tookMicros;
+    private List<Suggestion> suggestions;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Suggestion {
+        private String text;
+        private String type;      // PRODUCT or QUERY
+        private Long productId;   // PRODUCT only
+        private Long weight;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.searchservice.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardResponse {
+    private String ranking;      // top-rated | most-reviewed
+    private String category;     // null for all products
+    private Double priorMean;
+    private Long tookMicros;
+    private Boolean rebuilding;
+    private List<Entry> products;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        private Long productId;
+        private String name;
+        private Double price;
+        private String image;
+        private String thumbnail;
+        private String category;
+        private Long reviewCount;
+        private Double average;
+        private Double score;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.searchservice.dto;
+
+import lombok.*;
+
+// A product as served by order-service (/api/products), the source of the search index
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductDocument {
+    private Long id;
+    private String name;
+    private String description;
+    private Double price;
+    private String image;
+    private String thumbnail;
+    private String category;
+    private Boolean active;
+}
@@ -0,0 +1,12 @@
+package com.example.searchservice.dto;
+
+import lombok.*;
+
+// Product name, from catalogue-service (/api/catalogue/products/names)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductNameDto {
+    private Long productId;
+    private String productName;
+}
@@ -0,0 +1,17 @@
+package com.example.searchservice.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+// One page of order-service's product listing
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductPageResponse {
+    private List<ProductDocument> products;
+    private Integer page;
+    private Integer size;
+    private Long totalElements;
+    private Integer totalPages;
+}
@@ -0,0 +1,13 @@
+package com.example.searchservice.dto;
+
+import lombok.*;
+
+// Units sold per product, from catalogue-service (/api/catalogue/products/sales)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSalesDto {
+    private Long productId;
+    private String productName;
+    private Long unitsSold;
+}
@@ -0,0 +1,33 @@
+package com.example.searchservice.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchResponse {
+    private String query;
+    private Integer page;
+    private Integer size;
+    private Integer totalHits;
+    private Long tookMicros;
+    private List<Hit> results;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Hit {
+        private Long id;
+        private String name;
+        private String description;
+        private Double price;
+        private String image;
+        private String thumbnail;
+        private String category;
+        private Double score;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.searchservice.dto;
+
+import lombok.*;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingSummaryResponse {
+    private Long productId;
+    private Long count;
+    private Double average;                 // 0 when there is no review yet
+    private Map<Integer, Long> histogram;   // stars (1-5) -> number of reviews
+}
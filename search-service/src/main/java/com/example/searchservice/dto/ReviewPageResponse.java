@@ -0,0 +1,18 @@
+package com.example.searchservice.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewPageResponse {
+    private List<ReviewResponse> reviews;
+    private Integer count;
+
+    // Opaque keyset cursor to pass back as ?cursor=..., null on the last page
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,35 @@
+package com.example.searchservice.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewSearchResponse {
+    private String query;
+    private Integer page;
+    private Integer size;
+    private Integer totalHits;
+    private Long tookMicros;
+    private boolean indexing;       // startup rebuild still running: results may be incomplete
+    private List<Hit> results;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Hit {
+        private Long id;
+        private Long userId;
+        private Long productId;
+        private Integer rating;
+        private String comment;
+        private String highlight;   // HTML-escaped comment (or excerpt) with <mark> around the matches
+        private LocalDateTime createdAt;
+        private Double score;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.searchservice.dto;
+
+/**
+ * Orderings of a review listing. Every one reads a single index in one direction, so within a
+ * rating HIGHEST lists the newest reviews first and LOWEST the oldest first.
+ */
+public enum ReviewSort {
+    NEWEST,
+    OLDEST,
+    HIGHEST,
+    LOWEST;
+
+    public boolean byRating() {
+        return this == HIGHEST || this == LOWEST;
+    }
+
+    public boolean descending() {
+        return this == NEWEST || this == HIGHEST;
+    }
+
+    public static ReviewSort from(String value) {
+        if (value == null || value.isBlank()) {
+            return NEWEST;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid sort: " + value + " (newest, oldest, highest or lowest)");
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.searchservice.dto;
+
+import lombok.*;
+
+// Display name of a user, from User-Service (/api/users/names)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserNameDto {
+    private Long id;
+    private String username;
+}
@@ -0,0 +1,36 @@
+package com.example.searchservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Running rating aggregate of one product, kept up to date by ReviewService.addReview
+@Entity
+@Table(name = "product_rating")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductRating {
+
+    @Id
+    private Long productId;
+
+    private long reviewCount;
+    private long ratingSum;
+
+    // Number of reviews per star
+    @Column(name = "stars_1")
+    private long stars1;
+    @Column(name = "stars_2")
+    private long stars2;
+    @Column(name = "stars_3")
+    private long stars3;
+    @Column(name = "stars_4")
+    private long stars4;
+    @Column(name = "stars_5")
+    private long stars5;
+
+    private LocalDateTime updatedAt;
+}
@@ -6,6 +6,17 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(name = "review", indexes = {
+        // One review per user and product, enforced by the insert itself (ReviewRepository.insertIfAbsent)
+        @Index(name = "uk_review_user_product", columnList = "user_id, product_id", unique = true),
+        // Keyset pages of a product's reviews, by date or by rating (see ReviewSort)
+        @Index(name = "idx_review_product_created", columnList = "product_id, created_at, id"),
+        @Index(name = "idx_review_product_rating_created", columnList = "product_id, rating, created_at, id"),
+        // Same orderings over all reviews (admin view), and a user's own reviews
+        @Index(name = "idx_review_created", columnList = "created_at, id"),
+        @Index(name = "idx_review_rating_created", columnList = "rating, created_at, id"),
+        @Index(name = "idx_review_user_created", columnList = "user_id, created_at, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -13,7 +24,8 @@ import java.time.LocalDateTime;
 public class Review {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "review_seq")
+    @SequenceGenerator(name = "review_seq", sequenceName = "review_seq", allocationSize = 50)
     private Long id;
 
     private Long userId;
@@ -0,0 +1,52 @@
+package com.example.searchservice.repository;
+
+import com.example.searchservice.entity.ProductRating;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ProductRatingRepository extends JpaRepository<ProductRating, Long> {
+
+    List<ProductRating> findByProductIdIn(Collection<Long> productIds);
+
+    // One review more: a single upsert, atomic per product row even under concurrent reviews
+    @Modifying
+    @Query(value = "INSERT INTO product_rating (product_id, review_count, rating_sum, " +
+            "stars_1, stars_2, stars_3, stars_4, stars_5, updated_at) " +
+            "VALUES (:productId, 1, :rating, " +
+            "CASE WHEN :rating = 1 THEN 1 ELSE 0 END, CASE WHEN :rating = 2 THEN 1 ELSE 0 END, " +
+            "CASE WHEN :rating = 3 THEN 1 ELSE 0 END, CASE WHEN :rating = 4 THEN 1 ELSE 0 END, " +
+            "CASE WHEN :rating = 5 THEN 1 ELSE 0 END, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (product_id) DO UPDATE SET " +
+            "review_count = product_rating.review_count + 1, " +
+            "rating_sum = product_rating.rating_sum + EXCLUDED.rating_sum, " +
+            "stars_1 = product_rating.stars_1 + EXCLUDED.stars_1, " +
+            "stars_2 = product_rating.stars_2 + EXCLUDED.stars_2, " +
+            "stars_3 = product_rating.stars_3 + EXCLUDED.stars_3, " +
+            "stars_4 = product_rating.stars_4 + EXCLUDED.stars_4, " +
+            "stars_5 = product_rating.stars_5 + EXCLUDED.stars_5, " +
+            "updated_at = EXCLUDED.updated_at", nativeQuery = true)
+    int addRating(@Param("productId") Long productId, @Param("rating") int rating);
+
+    // Full recount from the review table (first start, or after manual fixes)
+    @Modifying
+    @Query(value = "INSERT INTO product_rating (product_id, review_count, rating_sum, " +
+            "stars_1, stars_2, stars_3, stars_4, stars_5, updated_at) " +
+            "SELECT product_id, COUNT(*), SUM(rating), " +
+            "COUNT(*) FILTER (WHERE rating = 1), COUNT(*) FILTER (WHERE rating = 2), " +
+            "COUNT(*) FILTER (WHERE rating = 3), COUNT(*) FILTER (WHERE rating = 4), " +
+            "COUNT(*) FILTER (WHERE rating = 5), CURRENT_TIMESTAMP " +
+            "FROM review WHERE product_id IS NOT NULL GROUP BY product_id " +
+            "ON CONFLICT (product_id) DO UPDATE SET " +
+            "review_count = EXCLUDED.review_count, rating_sum = EXCLUDED.rating_sum, " +
+            "stars_1 = EXCLUDED.stars_1, stars_2 = EXCLUDED.stars_2, stars_3 = EXCLUDED.stars_3, " +
+            "stars_4 = EXCLUDED.stars_4, stars_5 = EXCLUDED.stars_5, updated_at = EXCLUDED.updated_at",
+            nativeQuery = true)
+    int recountAll();
+}
@@ -2,16 +2,40 @@ package com.example.searchservice.repository;
 
 import com.example.searchservice.entity.Review;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
+// Listings are keyset pages built from ReviewSpecifications (findBy with a limit), never findAll()
 @Repository
-public interface ReviewRepository extends JpaRepository<Review, Long> {
-    List<Review> findByProductId(Long productId);
+public interface ReviewRepository extends JpaRepository<Review, Long>, JpaSpecificationExecutor<Review> {
 
-    // Cette méthode existe déjà grâce à JpaRepository
-    // findAll() est automatiquement disponible
+    // One statement instead of exists + save: the unique (user_id, product_id) index settles
+    // concurrent submissions. Returns the new id, empty when the user already reviewed the product.
+    // The id is a plain nextval (ids of these rows step by the sequence increment).
+    @Query(value = "INSERT INTO review (id, user_id, product_id, rating, comment, created_at) " +
+            "VALUES (nextval('review_seq'), :userId, :productId, :rating, :comment, :createdAt) " +
+            "ON CONFLICT (user_id, product_id) DO NOTHING RETURNING id", nativeQuery = true)
+    Optional<Long> insertIfAbsent(@Param("userId") Long userId, @Param("productId") Long productId,
+                                  @Param("rating") int rating, @Param("comment") String comment,
+                                  @Param("createdAt") LocalDateTime createdAt);
 
-    boolean existsByUserIdAndProductId(Long userId, Long productId);
-}
\ No newline at end of file
+    @Query("SELECT MIN(r.id), MAX(r.id) FROM Review r")
+    List<Object[]> findIdRange();
+
+    // Comment index rebuild, one id range per task: id, userId, productId, rating, comment, createdAt
+    @Query("SELECT r.id, r.userId, r.productId, r.rating, r.comment, r.createdAt FROM Review r " +
+            "WHERE r.id >= :fromId AND r.id < :toId")
+    List<Object[]> findForIndexing(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    // Leaderboard rebuild, one id range per task: id, productId, rating (summed by the caller,
+    // which also needs to know which reviews it has seen)
+    @Query("SELECT r.id, r.productId, r.rating FROM Review r " +
+            "WHERE r.id >= :fromId AND r.id < :toId AND r.productId IS NOT NULL")
+    List<Object[]> findRatings(@Param("fromId") Long fromId, @Param("toId") Long toId);
+}
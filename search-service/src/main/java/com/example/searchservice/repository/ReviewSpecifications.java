@@ -0,0 +1,61 @@
+package com.example.searchservice.repository;
+
+import com.example.searchservice.dto.ReviewSort;
+import com.example.searchservice.entity.Review;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Keyset pagination of review listings. The ORDER BY of each ReviewSort is the column order of
+ * one index (idx_review_product_created / idx_review_product_rating_created and their
+ * product-less twins), so a page is an index range scan of `size` rows whatever its depth.
+ */
+public final class ReviewSpecifications {
+
+    private ReviewSpecifications() {}
+
+    public static Specification<Review> forProduct(Long productId) {
+        return (root, query, cb) -> cb.equal(root.get("productId"), productId);
+    }
+
+    public static Specification<Review> forUser(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("userId"), userId);
+    }
+
+    public static Specification<Review> all() {
+        return (root, query, cb) -> cb.conjunction();
+    }
+
+    public static Sort orderOf(ReviewSort sort) {
+        Sort.Direction direction = sort.descending() ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return sort.byRating()
+                ? Sort.by(direction, "rating", "createdAt", "id")
+                : Sort.by(direction, "createdAt", "id");
+    }
+
+    // Keyset position: strictly after the (rating,) createdAt, id of the last review of the previous page
+    public static Specification<Review> after(ReviewSort sort, int rating, LocalDateTime createdAt, Long id) {
+        return (root, query, cb) -> {
+            boolean desc = sort.descending();
+            Predicate afterDate = cb.or(
+                    beyond(cb, root.get("createdAt"), createdAt, desc),
+                    cb.and(cb.equal(root.get("createdAt"), createdAt), beyond(cb, root.get("id"), id, desc)));
+            if (!sort.byRating()) {
+                return afterDate;
+            }
+            return cb.or(
+                    beyond(cb, root.get("rating"), rating, desc),
+                    cb.and(cb.equal(root.get("rating"), rating), afterDate));
+        };
+    }
+
+    private static <T extends Comparable<? super T>> Predicate beyond(CriteriaBuilder cb, Path<T> path,
+                                                                     T value, boolean desc) {
+        return desc ? cb.lessThan(path, value) : cb.greaterThan(path, value);
+    }
+}
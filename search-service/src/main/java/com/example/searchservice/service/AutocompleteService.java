@@ -0,0 +1,94 @@
+package com.example.searchservice.service;
+
+import com.example.searchservice.dto.AutocompleteResponse;
+import com.example.searchservice.dto.ProductDocument;
+import com.example.searchservice.dto.ProductSalesDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Type-ahead suggestions from a CompletionIndex over the indexed product names (weighted by
+ * units sold) and the popular searches (weighted by how often they were searched).
+ * Rebuilt on a fixed delay; suggest() only reads the current immutable index.
+ */
+@Service
+@Slf4j
+public class AutocompleteService {
+
+    private static final int MAX_LIMIT = 20;
+    private static final int MAX_PREFIX_LENGTH = 100;
+
+    private final ProductSearchService productSearchService;
+    private final OrderClient orderClient;
+    private final PopularQueries popularQueries;
+
+    private volatile CompletionIndex index = CompletionIndex.empty();
+
+    public AutocompleteService(ProductSearchService productSearchService,
+                               OrderClient orderClient,
+                               PopularQueries popularQueries) {
+        this.productSearchService = productSearchService;
+        this.orderClient = orderClient;
+        this.popularQueries = popularQueries;
+    }
+
+    public AutocompleteResponse suggest(String prefix, int limit) {
+        if (prefix != null && prefix.length() > MAX_PREFIX_LENGTH) {
+            throw new IllegalArgumentException("Prefix is too long (max " + MAX_PREFIX_LENGTH + " characters)");
+        }
+        int max = Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        long start = System.nanoTime();
+        List<CompletionIndex.Suggestion> suggestions = prefix == null ? List.of() : index.complete(prefix, max);
+        long tookMicros = (System.nanoTime() - start) / 1_000;
+
+        return AutocompleteResponse.builder()
+                .query(prefix)
+                .tookMicros(tookMicros)
+                .suggestions(suggestions.stream()
+                        .map(s -> AutocompleteResponse.Suggestion.builder()
+                                .text(s.text())
+                                .type(s.source().name())
+                                .productId(s.productId())
+                                .weight(s.weight())
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    @Scheduled(fixedDelayString = "${search.autocomplete.refresh-ms:300000}",
+            initialDelayString = "${search.autocomplete.initial-delay-ms:15000}")
+    public void rebuild() {
+        Map<Long, Long> unitsSold = new HashMap<>();
+        try {
+            for (ProductSalesDto sales : orderClient.fetchProductSales()) {
+                if (sales.getProductId() != null && sales.getUnitsSold() != null) {
+                    unitsSold.put(sales.getProductId(), sales.getUnitsSold());
+                }
+            }
+        } catch (RuntimeException ex) {
+            // Still worth rebuilding: new products and queries are picked up, only unweighted
+            log.warn("⚠️ Sales counts unavailable for autocomplete: {}", ex.getMessage());
+        }
+
+        CompletionIndex.Builder builder = new CompletionIndex.Builder();
+        for (ProductDocument product : productSearchService.indexedProducts()) {
+            if (product.getName() != null) {
+                builder.add(product.getName(), CompletionIndex.Source.PRODUCT, product.getId(),
+                        1 + unitsSold.getOrDefault(product.getId(), 0L));
+            }
+        }
+        popularQueries.snapshotAndDecay().forEach((query, count) ->
+                builder.add(query, CompletionIndex.Source.QUERY, null, count));
+
+        CompletionIndex rebuilt = builder.build();
+        index = rebuilt;
+        log.debug("🔤 Autocomplete rebuilt: {} completions, {} entries",
+                rebuilt.completionCount(), rebuilt.entryCount());
+    }
+}
@@ -0,0 +1,319 @@
+package com.example.searchservice.service;
+
+import java.util.*;
+
+/**
+ * Immutable top-k prefix completion structure, laid out as a handful of primitive arrays.
+ * Every completion (product name or popular query) is stored once as a folded key and a display
+ * text in two char blobs. The sorted "entries" point into the key blob at every word start, so
+ * "sans fil" also completes "Souris sans fil". A prefix is a contiguous range of entries (two
+ * binary searches); a max segment tree over the entry weights then yields the k heaviest
+ * completions of that range best-first, without looking at the rest of the range.
+ * Per entry: 4 bytes (key start) + 4 (completion) + 8 (segment tree), plus the text itself.
+ */
+public final class CompletionIndex {
+
+    public enum Source { PRODUCT, QUERY }
+
+    public record Suggestion(String text, Source source, Long productId, long weight) {
+    }
+
+    private static final int MAX_WORD_STARTS = 6;
+
+    // Completions
+    private final char[] keys;
+    private final int[] keyOffsets;      // completion i: keys[keyOffsets[i], keyOffsets[i + 1])
+    private final char[] texts;
+    private final int[] textOffsets;
+    private final long[] weights;
+    private final long[] productIds;     // 0 = not a product
+    private final byte[] sources;
+
+    // Entries, sorted by the key suffix they start
+    private final int[] entryStarts;
+    private final int[] entryCompletions;
+    private final int[] tree;            // tree[n + e] = e, tree[i] = heavier of tree[2i], tree[2i + 1]
+
+    private CompletionIndex(char[] keys, int[] keyOffsets, char[] texts, int[] textOffsets, long[] weights,
+                            long[] productIds, byte[] sources, int[] entryStarts, int[] entryCompletions) {
+        this.keys = keys;
+        this.keyOffsets = keyOffsets;
+        this.texts = texts;
+        this.textOffsets = textOffsets;
+        this.weights = weights;
+        this.productIds = productIds;
+        this.sources = sources;
+        this.entryStarts = entryStarts;
+        this.entryCompletions = entryCompletions;
+
+        int n = entryStarts.length;
+        this.tree = new int[2 * n];
+        for (int e = 0; e < n; e++) {
+            tree[n + e] = e;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            tree[i] = heavier(tree[2 * i], tree[2 * i + 1]);
+        }
+    }
+
+    public static CompletionIndex empty() {
+        return new Builder().build();
+    }
+
+    public int completionCount() {
+        return weights.length;
+    }
+
+    public int entryCount() {
+        return entryStarts.length;
+    }
+
+    /**
+     * The `limit` heaviest distinct completions having a word that starts with `prefix`.
+     */
+    public List<Suggestion> complete(String prefix, int limit) {
+        char[] folded = foldKey(prefix, true).toCharArray();
+        int n = entryStarts.length;
+        if (folded.length == 0 || n == 0 || limit <= 0) {
+            return List.of();
+        }
+
+        int lo = lowerBound(folded, false);
+        int hi = lowerBound(folded, true);
+        if (lo >= hi) {
+            return List.of();
+        }
+
+        // Canonical segment tree nodes covering [lo, hi), then best-first descent
+        PriorityQueue<Integer> frontier = new PriorityQueue<>(
+                (a, b) -> Long.compare(weightOf(tree[b]), weightOf(tree[a])));
+        for (int l = lo + n, r = hi + n; l < r; l >>= 1, r >>= 1) {
+            if ((l & 1) == 1) {
+                frontier.add(l++);
+            }
+            if ((r & 1) == 1) {
+                frontier.add(--r);
+            }
+        }
+
+        List<Suggestion> suggestions = new ArrayList<>(limit);
+        Set<Integer> seen = new HashSet<>();
+        while (!frontier.isEmpty() && suggestions.size() < limit) {
+            int node = frontier.poll();
+            if (node >= n) {
+                int completion = entryCompletions[node - n];
+                if (seen.add(completion)) {
+                    suggestions.add(suggestion(completion));
+                }
+            } else {
+                frontier.add(2 * node);
+                frontier.add(2 * node + 1);
+            }
+        }
+        return suggestions;
+    }
+
+    // First entry whose key is >= prefix (or, with `past`, whose key does not start with a smaller-or-equal prefix)
+    private int lowerBound(char[] prefix, boolean past) {
+        int lo = 0;
+        int hi = entryStarts.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = comparePrefix(mid, prefix);
+            if (cmp < 0 || (past && cmp == 0)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // Entry key compared with the prefix over the prefix length: 0 when the key starts with it
+    private int comparePrefix(int entry, char[] prefix) {
+        int start = entryStarts[entry];
+        int end = keyOffsets[entryCompletions[entry] + 1];
+        for (int i = 0; i < prefix.length; i++) {
+            if (start + i >= end) {
+                return -1;
+            }
+            char c = keys[start + i];
+            if (c != prefix[i]) {
+                return c < prefix[i] ? -1 : 1;
+            }
+        }
+        return 0;
+    }
+
+    private long weightOf(int entry) {
+        return weights[entryCompletions[entry]];
+    }
+
+    private int heavier(int a, int b) {
+        long wa = weightOf(a);
+        long wb = weightOf(b);
+        // Equal weights: the first in key order wins, so results are stable
+        return wb > wa || (wb == wa && b < a) ? b : a;
+    }
+
+    private Suggestion suggestion(int completion) {
+        String text = new String(texts, textOffsets[completion], textOffsets[completion + 1] - textOffsets[completion]);
+        long productId = productIds[completion];
+        return new Suggestion(text, Source.values()[sources[completion]],
+                productId != 0 ? productId : null, weights[completion]);
+    }
+
+    // Folded text with every run of separators as one space; a trailing separator is kept when asked
+    static String foldKey(String text, boolean keepTrailingSpace) {
+        if (text == null) {
+            return "";
+        }
+        String folded = TextAnalyzer.fold(text);
+        StringBuilder key = new StringBuilder(folded.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && key.length() > 0) {
+                    key.append(' ');
+                }
+                pendingSpace = false;
+                key.append(c);
+            } else {
+                pendingSpace = true;
+            }
+        }
+        if (pendingSpace && keepTrailingSpace && key.length() > 0) {
+            key.append(' ');
+        }
+        return key.toString();
+    }
+
+    /**
+     * Collects completions; the same folded text added twice is merged (weights summed, a
+     * product wins over a query).
+     */
+    public static final class Builder {
+
+        private static final class Pending {
+            final String key;
+            String text;
+            long weight;
+            long productId;
+            Source source;
+
+            Pending(String key, String text, long weight, long productId, Source source) {
+                this.key = key;
+                this.text = text;
+                this.weight = weight;
+                this.productId = productId;
+                this.source = source;
+            }
+        }
+
+        private final Map<String, Pending> byKey = new HashMap<>();
+
+        public Builder add(String text, Source source, Long productId, long weight) {
+            String key = foldKey(text, false);
+            if (key.isEmpty()) {
+                return this;
+            }
+            Pending pending = byKey.get(key);
+            if (pending == null) {
+                byKey.put(key, new Pending(key, text.trim(), Math.max(1, weight),
+                        productId != null ? productId : 0, source));
+            } else {
+                pending.weight += Math.max(1, weight);
+                if (source == Source.PRODUCT && pending.source != Source.PRODUCT) {
+                    pending.text = text.trim();
+                    pending.productId = productId != null ? productId : 0;
+                    pending.source = Source.PRODUCT;
+                }
+            }
+            return this;
+        }
+
+        public CompletionIndex build() {
+            List<Pending> completions = new ArrayList<>(byKey.values());
+            int count = completions.size();
+
+            int keyLength = 0;
+            int textLength = 0;
+            for (Pending pending : completions) {
+                keyLength += pending.key.length();
+                textLength += pending.text.length();
+            }
+
+            char[] keys = new char[keyLength];
+            int[] keyOffsets = new int[count + 1];
+            char[] texts = new char[textLength];
+            int[] textOffsets = new int[count + 1];
+            long[] weights = new long[count];
+            long[] productIds = new long[count];
+            byte[] sources = new byte[count];
+
+            int[] starts = new int[Math.max(16, count * 2)];
+            int[] owners = new int[starts.length];
+            int entries = 0;
+
+            for (int i = 0; i < count; i++) {
+                Pending pending = completions.get(i);
+                int keyStart = keyOffsets[i];
+                pending.key.getChars(0, pending.key.length(), keys, keyStart);
+                keyOffsets[i + 1] = keyStart + pending.key.length();
+                pending.text.getChars(0, pending.text.length(), texts, textOffsets[i]);
+                textOffsets[i + 1] = textOffsets[i] + pending.text.length();
+                weights[i] = pending.weight;
+                productIds[i] = pending.productId;
+                sources[i] = (byte) pending.source.ordinal();
+
+                // One entry per word start (bounded, long names do not blow up the index)
+                int wordStarts = 0;
+                for (int p = 0; p < pending.key.length() && wordStarts < MAX_WORD_STARTS; p++) {
+                    if (p == 0 || pending.key.charAt(p - 1) == ' ') {
+                        if (entries == starts.length) {
+                            starts = Arrays.copyOf(starts, entries * 2);
+                            owners = Arrays.copyOf(owners, entries * 2);
+                        }
+                        starts[entries] = keyStart + p;
+                        owners[entries] = i;
+                        entries++;
+                        wordStarts++;
+                    }
+                }
+            }
+
+            // Sort entries by the key suffix they start (boxing is fine here, only at build time)
+            Integer[] order = new Integer[entries];
+            for (int e = 0; e < entries; e++) {
+                order[e] = e;
+            }
+            final int[] entryStarts = starts;
+            final int[] entryOwners = owners;
+            Arrays.sort(order, (a, b) -> {
+                int pa = entryStarts[a];
+                int pb = entryStarts[b];
+                int ea = keyOffsets[entryOwners[a] + 1];
+                int eb = keyOffsets[entryOwners[b] + 1];
+                while (pa < ea && pb < eb) {
+                    if (keys[pa] != keys[pb]) {
+                        return Character.compare(keys[pa], keys[pb]);
+                    }
+                    pa++;
+                    pb++;
+                }
+                return Integer.compare(ea - pa, eb - pb);
+            });
+
+            int[] sortedStarts = new int[entries];
+            int[] sortedCompletions = new int[entries];
+            for (int e = 0; e < entries; e++) {
+                sortedStarts[e] = entryStarts[order[e]];
+                sortedCompletions[e] = entryOwners[order[e]];
+            }
+
+            return new CompletionIndex(keys, keyOffsets, texts, textOffsets, weights, productIds, sources,
+                    sortedStarts, sortedCompletions);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.searchservice.service;
+
+import com.example.searchservice.dto.LeaderboardResponse;
+import com.example.searchservice.dto.ProductDocument;
+import com.example.searchservice.entity.Review;
+import com.example.searchservice.repository.ReviewRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * "Top rated" / "most reviewed" products (RatingLeaderboard), kept up to date as reviews are
+ * committed. Rebuilt at startup and periodically (which also refreshes the Bayesian prior) from
+ * the review table: id ranges summed per product in parallel, then merged and swapped in, with
+ * the reviews committed meanwhile that the scan missed replayed into it.
+ * Categories, names and images come from the product search index.
+ */
+@Service
+@Slf4j
+public class LeaderboardService {
+
+    private static final int MAX_LIMIT = 50;
+
+    private record RecordedReview(long productId, int rating) {
+    }
+
+    private final ReviewRepository reviewRepository;
+    private final ProductSearchService productSearchService;
+    private final double priorWeight;
+    private final IdRangeRebuild<RatingLeaderboard, RecordedReview> leaderboard;
+
+    private volatile Map<Long, ProductDocument> products = Map.of();
+
+    @Value("${search.leaderboard.chunk-size:20000}")
+    private int chunkSize = 20_000;
+
+    @Value("${search.leaderboard.rebuild-threads:4}")
+    private int rebuildThreads = 4;
+
+    public LeaderboardService(ReviewRepository reviewRepository,
+                              ProductSearchService productSearchService,
+                              @Value("${search.leaderboard.prior-weight:10}") double priorWeight) {
+        this.reviewRepository = reviewRepository;
+        this.productSearchService = productSearchService;
+        this.priorWeight = priorWeight;
+        this.leaderboard = new IdRangeRebuild<>("Leaderboard", "leaderboard",
+                new RatingLeaderboard(3.0, priorWeight), this::apply);
+    }
+
+    public LeaderboardResponse topRated(String category, int limit) {
+        return respond("top-rated", category, limit);
+    }
+
+    public LeaderboardResponse mostReviewed(String category, int limit) {
+        return respond("most-reviewed", category, limit);
+    }
+
+    /**
+     * Counts a saved review once the current transaction commits (immediately without one).
+     */
+    public void recordAfterCommit(Review review) {
+        long reviewId = review.getId();
+        RecordedReview recorded = new RecordedReview(review.getProductId(), review.getRating());
+        AfterCommit.run(() -> leaderboard.record(reviewId, recorded));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        IdRangeRebuild.startInBackground("leaderboard-rebuild", this::scheduledRebuild);
+    }
+
+    @Scheduled(initialDelayString = "${search.leaderboard.rebuild-ms:3600000}",
+            fixedDelayString = "${search.leaderboard.rebuild-ms:3600000}")
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (IllegalStateException ex) {
+            log.debug("Leaderboard rebuild skipped: {}", ex.getMessage());
+        } catch (RuntimeException ex) {
+            log.error("❌ Leaderboard rebuild failed, keeping the current one: {}", ex.getMessage());
+        }
+    }
+
+    // ✅ Product categories follow the product index
+    @Scheduled(initialDelayString = "${search.leaderboard.categories-ms:60000}",
+            fixedDelayString = "${search.leaderboard.categories-ms:60000}")
+    public void syncCategories() {
+        Map<Long, ProductDocument> byId = new HashMap<>();
+        for (ProductDocument product : productSearchService.indexedProducts()) {
+            byId.put(product.getId(), product);
+        }
+        products = byId;
+        leaderboard.current().assignCategories(categoriesOf(byId));
+    }
+
+    // ✅ Rebuilds the leaderboard from the review table, id ranges in parallel, and swaps it in
+    public Map<String, Object> rebuild() {
+        long start = System.currentTimeMillis();
+        RatingLeaderboard fresh = leaderboard.rebuild(reviewRepository::findIdRange, rebuildThreads, chunkSize,
+                this::sumChunk, partials -> {
+                    Map<Long, long[]> totals = new HashMap<>();
+                    for (Map<Long, long[]> partial : partials) {
+                        partial.forEach((productId, sums) -> {
+                            long[] total = totals.computeIfAbsent(productId, id -> new long[2]);
+                            total[0] += sums[0];
+                            total[1] += sums[1];
+                        });
+                    }
+                    RatingLeaderboard built = RatingLeaderboard.build(totals, priorWeight);
+                    built.assignCategories(categoriesOf(products));
+                    return built;
+                });
+
+        long tookMs = System.currentTimeMillis() - start;
+        log.info("🏆 Leaderboard rebuilt: {} products, prior mean {} in {} ms",
+                fresh.size(), String.format("%.2f", fresh.priorMean()), tookMs);
+        return Map.of("products", fresh.size(), "priorMean", fresh.priorMean(), "tookMs", tookMs);
+    }
+
+    // One id range, summed per product ([count, sum]) by the calling worker
+    private Map<Long, long[]> sumChunk(long fromId, long toId, BitSet seen) {
+        Map<Long, long[]> totals = new HashMap<>();
+        for (Object[] row : reviewRepository.findRatings(fromId, toId)) {
+            seen.set((int) (((Number) row[0]).longValue() - fromId));
+            long[] total = totals.computeIfAbsent(((Number) row[1]).longValue(), id -> new long[2]);
+            total[0]++;
+            total[1] += ((Number) row[2]).longValue();
+        }
+        return totals;
+    }
+
+    private void apply(RatingLeaderboard target, RecordedReview review) {
+        target.record(review.productId(), review.rating());
+        ProductDocument product = products.get(review.productId());
+        if (product != null && product.getCategory() != null) {
+            target.assignCategories(Map.of(review.productId(), TextAnalyzer.fold(product.getCategory())));
+        }
+    }
+
+    private LeaderboardResponse respond(String ranking, String category, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        String folded = category != null && !category.isBlank() ? TextAnalyzer.fold(category.trim()) : null;
+
+        long start = System.nanoTime();
+        RatingLeaderboard current = leaderboard.current();
+        List<RatingLeaderboard.Ranked> ranked = ranking.equals("top-rated")
+                ? current.topRated(folded, limit)
+                : current.mostReviewed(folded, limit);
+        Map<Long, ProductDocument> known = products;
+        List<LeaderboardResponse.Entry> entries = ranked.stream()
+                .map(entry -> toEntry(entry, known.get(entry.productId())))
+                .toList();
+        long tookMicros = (System.nanoTime() - start) / 1_000;
+
+        return LeaderboardResponse.builder()
+                .ranking(ranking)
+                .category(folded != null ? category.trim() : null)
+                .priorMean(Math.round(current.priorMean() * 100) / 100.0)
+                .tookMicros(tookMicros)
+                .rebuilding(leaderboard.isRunning())
+                .products(entries)
+                .build();
+    }
+
+    private static Map<Long, String> categoriesOf(Map<Long, ProductDocument> products) {
+        Map<Long, String> categories = new HashMap<>();
+        products.forEach((id, product) -> {
+            if (product.getCategory() != null) {
+                categories.put(id, TextAnalyzer.fold(product.getCategory()));
+            }
+        });
+        return categories;
+    }
+
+    private static LeaderboardResponse.Entry toEntry(RatingLeaderboard.Ranked ranked, ProductDocument product) {
+        LeaderboardResponse.Entry.EntryBuilder entry = LeaderboardResponse.Entry.builder()
+                .productId(ranked.productId())
+                .reviewCount(ranked.reviewCount())
+                .average(Math.round(ranked.average() * 100) / 100.0)
+                .score(Math.round(ranked.score() * 1000) / 1000.0);
+        if (product != null) {
+            entry.name(product.getName())
+                    .price(product.getPrice())
+                    .image(product.getImage())
+                    .thumbnail(product.getThumbnail())
+                    .category(product.getCategory());
+        }
+        return entry.build();
+    }
+}
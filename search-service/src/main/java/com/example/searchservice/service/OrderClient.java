@@ -1,27 +1,238 @@
 package com.example.searchservice.service;
 
+import com.example.searchservice.dto.ProductNameDto;
+import com.example.searchservice.dto.ProductSalesDto;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
-import java.util.Map;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
+/**
+ * Calls to catalogue-service, resolved through Eureka (catalogue.service.url when no instance
+ * is registered).
+ * Review eligibility is cached (long TTL for "allowed", short for "not allowed": the order may
+ * get delivered soon). Misses arriving within `batch-window-ms` of each other share one bulk
+ * call, and concurrent checks of the same pair share one answer. A circuit breaker turns a
+ * failing or slow catalogue into an immediate error, and a caller never waits more than
+ * `timeout-ms` for its answer.
+ */
 @Component
+@Slf4j
 public class OrderClient {
 
+    record Check(Long userId, Long productId) {
+    }
+
+    private record Cached(boolean allowed, long expiresAt) {
+    }
+
+    record BulkResponse(List<Boolean> allowed) {
+    }
+
     private final RestTemplate restTemplate;
+    private final RestTemplate shortTimeoutTemplate;
+    private final ServiceLocator serviceLocator;
+    private final CircuitBreaker breaker;
+
+    private final Map<Check, Cached> cache = new ConcurrentHashMap<>();
+    private final Map<Check, CompletableFuture<Boolean>> inFlight = new ConcurrentHashMap<>();
+    private final Queue<Check> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService batcher;
+
+    @Value("${catalogue.service.id:catalogue-service}")
+    private String catalogueServiceId = "catalogue-service";
+
+    @Value("${catalogue.service.url:http://localhost:8090}")
+    private String catalogueServiceUrl = "http://localhost:8090";
+
+    @Value("${review.eligibility.positive-ttl-ms:600000}")
+    private long positiveTtlMs = 600_000L;
 
-    public OrderClient (RestTemplate restTemplate) {
+    @Value("${review.eligibility.negative-ttl-ms:30000}")
+    private long negativeTtlMs = 30_000L;
+
+    @Value("${review.eligibility.max-cached:100000}")
+    private int maxCached = 100_000;
+
+    @Value("${review.eligibility.batch-window-ms:5}")
+    private long batchWindowMs = 5;
+
+    @Value("${review.eligibility.max-batch:200}")
+    private int maxBatch = 200;
+
+    @Value("${review.eligibility.timeout-ms:2000}")
+    private long timeoutMs = 2_000L;
+
+    public OrderClient(RestTemplate restTemplate,
+                       ServiceLocator serviceLocator,
+                       @Value("${review.eligibility.connect-timeout-ms:500}") long connectTimeoutMs,
+                       @Value("${review.eligibility.read-timeout-ms:1500}") long readTimeoutMs,
+                       @Value("${review.eligibility.breaker.failure-threshold:5}") int failureThreshold,
+                       @Value("${review.eligibility.breaker.open-ms:30000}") long openMs,
+                       @Value("${review.eligibility.threads:2}") int threads) {
         this.restTemplate = restTemplate;
+        this.serviceLocator = serviceLocator;
+        this.breaker = new CircuitBreaker(failureThreshold, openMs);
+
+        // Own client with tight timeouts: a hung catalogue must not hold the batcher threads
+        // (nor a review listing waiting for product names)
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(Duration.ofMillis(connectTimeoutMs));
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+        this.shortTimeoutTemplate = new RestTemplate(requestFactory);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.batcher = Executors.newScheduledThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "review-eligibility-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     public boolean canUserReview(Long userId, Long productId) {
-        String url = "http://localhost:8090/api/catalogue/validate-review"
-                + "?userId=" + userId
-                + "&productId=" + productId;
+        if (userId == null || productId == null) {
+            return false;
+        }
+        Check check = new Check(userId, productId);
+
+        Cached cached = cache.get(check);
+        if (cached != null && cached.expiresAt > System.currentTimeMillis()) {
+            return cached.allowed;
+        }
+        if (breaker.isRejecting()) {
+            throw new IllegalStateException("Review eligibility service unavailable, try again later");
+        }
+
+        CompletableFuture<Boolean> answer = inFlight.computeIfAbsent(check, key -> {
+            pending.add(key);
+            return new CompletableFuture<>();
+        });
+        if (flushScheduled.compareAndSet(false, true)) {
+            batcher.schedule(this::flush, batchWindowMs, TimeUnit.MILLISECONDS);
+        }
 
-        Map<?, ?> response = restTemplate.getForObject(url, Map.class);
-        return response != null && Boolean.TRUE.equals(response.get("allowed"));
+        try {
+            return answer.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            throw new IllegalStateException("Review eligibility check timed out");
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Review eligibility service unavailable, try again later", ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Review eligibility check interrupted");
+        }
+    }
+
+    // Units sold per product (one aggregate query on the catalogue side)
+    public List<ProductSalesDto> fetchProductSales() {
+        ProductSalesDto[] sales = restTemplate.getForObject(
+                catalogueUrl() + "/api/catalogue/products/sales", ProductSalesDto[].class);
+        return sales != null ? Arrays.asList(sales) : List.of();
+    }
+
+    // Names of many products in one call (ids unknown to the catalogue are absent)
+    public Map<Long, String> fetchProductNames(Collection<Long> productIds) {
+        String ids = productIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        ProductNameDto[] names = shortTimeoutTemplate.getForObject(
+                catalogueUrl() + "/api/catalogue/products/names?ids=" + ids, ProductNameDto[].class);
+        Map<Long, String> byId = new HashMap<>();
+        if (names != null) {
+            for (ProductNameDto name : names) {
+                byId.put(name.getProductId(), name.getProductName());
+            }
+        }
+        return byId;
     }
-}
 
+    @PreDestroy
+    void shutdown() {
+        batcher.shutdownNow();
+        inFlight.values().forEach(answer -> answer.completeExceptionally(new IllegalStateException("Shutting down")));
+    }
+
+    // Drains the pending checks into batches of at most max-batch, sent in parallel
+    private void flush() {
+        flushScheduled.set(false);
+        List<Check> batch = new ArrayList<>(maxBatch);
+        Check check;
+        while ((check = pending.poll()) != null) {
+            batch.add(check);
+            if (batch.size() == maxBatch) {
+                List<Check> full = batch;
+                batcher.execute(() -> send(full));
+                batch = new ArrayList<>(maxBatch);
+            }
+        }
+        if (!batch.isEmpty()) {
+            send(batch);
+        }
+    }
 
+    private void send(List<Check> batch) {
+        if (!breaker.tryAcquire()) {
+            fail(batch, new IllegalStateException("Circuit open"));
+            return;
+        }
+        try {
+            BulkResponse response = shortTimeoutTemplate.postForObject(
+                    catalogueUrl() + "/api/catalogue/validate-review/bulk", batch, BulkResponse.class);
+            if (response == null || response.allowed() == null || response.allowed().size() != batch.size()) {
+                throw new IllegalStateException("Malformed bulk eligibility response");
+            }
+            breaker.onSuccess();
+
+            long now = System.currentTimeMillis();
+            if (cache.size() + batch.size() > maxCached) {
+                evict(now);
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                boolean allowed = Boolean.TRUE.equals(response.allowed().get(i));
+                Check check = batch.get(i);
+                cache.put(check, new Cached(allowed, now + (allowed ? positiveTtlMs : negativeTtlMs)));
+                complete(check, allowed);
+            }
+        } catch (RuntimeException ex) {
+            breaker.onFailure();
+            log.warn("⚠️ Review eligibility batch of {} failed ({}): {}", batch.size(), breaker.state(), ex.getMessage());
+            fail(batch, ex);
+        }
+    }
+
+    private void complete(Check check, boolean allowed) {
+        CompletableFuture<Boolean> answer = inFlight.remove(check);
+        if (answer != null) {
+            answer.complete(allowed);
+        }
+    }
+
+    private void fail(List<Check> batch, Exception cause) {
+        for (Check check : batch) {
+            CompletableFuture<Boolean> answer = inFlight.remove(check);
+            if (answer != null) {
+                answer.completeExceptionally(cause);
+            }
+        }
+    }
+
+    // Expired entries first; a cache still full of live entries starts over
+    private void evict(long now) {
+        cache.values().removeIf(cached -> cached.expiresAt <= now);
+        if (cache.size() >= maxCached) {
+            cache.clear();
+        }
+    }
+
+    private String catalogueUrl() {
+        return serviceLocator.baseUrl(catalogueServiceId, catalogueServiceUrl);
+    }
+}
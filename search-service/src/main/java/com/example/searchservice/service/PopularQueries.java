@@ -0,0 +1,58 @@
+package com.example.searchservice.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the product searches that found something, as completion candidates.
+ * Bounded: once `max-entries` distinct queries are tracked, new ones are ignored until the next
+ * decay. Each snapshot halves the counts, so old trends fade and rare queries drop out.
+ */
+@Component
+public class PopularQueries {
+
+    private final Map<String, LongAdder> counts = new ConcurrentHashMap<>();
+
+    @Value("${search.autocomplete.max-tracked-queries:50000}")
+    private int maxEntries = 50_000;
+
+    @Value("${search.autocomplete.min-query-count:3}")
+    private long minCount = 3;
+
+    public void record(String query) {
+        String key = CompletionIndex.foldKey(query, false);
+        if (key.isEmpty() || key.length() > 60) {
+            return;
+        }
+        LongAdder count = counts.get(key);
+        if (count == null) {
+            if (counts.size() >= maxEntries) {
+                return;
+            }
+            count = counts.computeIfAbsent(key, k -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    // Queries searched at least `min-query-count` times since the counts were last halved
+    public Map<String, Long> snapshotAndDecay() {
+        Map<String, Long> popular = new HashMap<>();
+        counts.forEach((query, count) -> {
+            long current = count.sumThenReset();
+            if (current >= minCount) {
+                popular.put(query, current);
+            }
+            if (current / 2 > 0) {
+                count.add(current / 2);
+            } else {
+                counts.remove(query, count);
+            }
+        });
+        return popular;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.searchservice.service;
+
+import com.example.searchservice.dto.ProductDocument;
+import com.example.searchservice.dto.ProductPageResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class ProductClient {
+
+    private static final int PAGE_SIZE = 100;
+
+    private final RestTemplate restTemplate;
+
+    @Value("${order.service.url:http://localhost:8086}")
+    private String orderServiceUrl;
+
+    public ProductClient(RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+
+    // Every active product, page by page (order-service serves at most 100 per page)
+    public List<ProductDocument> fetchAllProducts() {
+        List<ProductDocument> products = new ArrayList<>();
+        int page = 0;
+        int totalPages;
+        do {
+            ProductPageResponse response = restTemplate.getForObject(
+                    orderServiceUrl + "/api/products?page=" + page + "&size=" + PAGE_SIZE,
+                    ProductPageResponse.class);
+            if (response == null || response.getProducts() == null) {
+                break;
+            }
+            products.addAll(response.getProducts());
+            totalPages = response.getTotalPages() != null ? response.getTotalPages() : 0;
+            page++;
+        } while (page < totalPages);
+        return products;
+    }
+}
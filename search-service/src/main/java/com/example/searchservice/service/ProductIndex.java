@@ -0,0 +1,186 @@
+package com.example.searchservice.service;
+
+import com.example.searchservice.dto.ProductDocument;
+
+import java.util.*;
+
+/**
+ * Immutable in-memory inverted index over product names, descriptions and categories, ranked
+ * with BM25. A name match weighs NAME_WEIGHT times a description match (the weighted counts are
+ * used as term frequency and document length, BM25F style).
+ * Postings are parallel int arrays (doc, weighted tf) and the length normalisation of every
+ * document is computed at build time, so a query only walks the postings of its own terms.
+ * A new index is built for every refresh and swapped in whole, readers never lock.
+ */
+public final class ProductIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int NAME_WEIGHT = 3;
+    private static final int CATEGORY_WEIGHT = 1;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    public record ScoredProduct(ProductDocument product, float score) {
+    }
+
+    public record Result(int totalHits, List<ScoredProduct> hits) {
+    }
+
+    private record Postings(int[] docs, int[] freqs, float idf) {
+    }
+
+    private final ProductDocument[] products;
+    private final String[] categories; // folded, for the category filter
+    private final float[] lengthNorms;
+    private final Map<String, Postings> postings;
+
+    private ProductIndex(ProductDocument[] products, String[] categories, float[] lengthNorms,
+                         Map<String, Postings> postings) {
+        this.products = products;
+        this.categories = categories;
+        this.lengthNorms = lengthNorms;
+        this.postings = postings;
+    }
+
+    public static ProductIndex build(List<ProductDocument> source) {
+        List<ProductDocument> active = source.stream()
+                .filter(product -> product.getId() != null && !Boolean.FALSE.equals(product.getActive()))
+                .toList();
+        int count = active.size();
+
+        ProductDocument[] products = active.toArray(new ProductDocument[0]);
+        String[] categories = new String[count];
+        int[] lengths = new int[count];
+        Map<String, int[]> growing = new HashMap<>(); // term -> [size, doc0, tf0, doc1, tf1, ...]
+        long totalLength = 0;
+
+        for (int doc = 0; doc < count; doc++) {
+            ProductDocument product = products[doc];
+            categories[doc] = product.getCategory() != null ? TextAnalyzer.fold(product.getCategory()) : null;
+
+            Map<String, Integer> frequencies = new LinkedHashMap<>();
+            addTerms(frequencies, product.getName(), NAME_WEIGHT);
+            addTerms(frequencies, product.getCategory(), CATEGORY_WEIGHT);
+            addTerms(frequencies, product.getDescription(), DESCRIPTION_WEIGHT);
+
+            for (Map.Entry<String, Integer> term : frequencies.entrySet()) {
+                lengths[doc] += term.getValue();
+                int[] list = growing.get(term.getKey());
+                if (list == null) {
+                    list = new int[9];
+                } else if (list[0] * 2 + 3 > list.length) {
+                    list = Arrays.copyOf(list, list.length * 2 + 1);
+                }
+                list[1 + list[0] * 2] = doc;
+                list[2 + list[0] * 2] = term.getValue();
+                list[0]++;
+                growing.put(term.getKey(), list);
+            }
+            totalLength += lengths[doc];
+        }
+
+        float averageLength = count > 0 ? Math.max(1f, (float) totalLength / count) : 1f;
+        float[] lengthNorms = new float[count];
+        for (int doc = 0; doc < count; doc++) {
+            lengthNorms[doc] = K1 * (1 - B + B * lengths[doc] / averageLength);
+        }
+
+        Map<String, Postings> postings = new HashMap<>(growing.size() * 2);
+        growing.forEach((term, list) -> {
+            int df = list[0];
+            int[] docs = new int[df];
+            int[] freqs = new int[df];
+            for (int i = 0; i < df; i++) {
+                docs[i] = list[1 + i * 2];
+                freqs[i] = list[2 + i * 2];
+            }
+            float idf = (float) Math.log(1 + (count - df + 0.5) / (df + 0.5));
+            postings.put(term, new Postings(docs, freqs, idf));
+        });
+
+        return new ProductIndex(products, categories, lengthNorms, postings);
+    }
+
+    public int size() {
+        return products.length;
+    }
+
+    public List<ProductDocument> products() {
+        return List.of(products);
+    }
+
+    public int termCount() {
+        return postings.size();
+    }
+
+    /**
+     * Products matching any query term, best first; `category` (optional) must match exactly,
+     * accents and case aside.
+     */
+    public Result search(String query, String category, int offset, int limit) {
+        Set<String> terms = new LinkedHashSet<>(TextAnalyzer.terms(query));
+        String categoryFilter = category != null && !category.isBlank() ? TextAnalyzer.fold(category.trim()) : null;
+        if (terms.isEmpty() || products.length == 0) {
+            return new Result(0, List.of());
+        }
+
+        float[] scores = new float[products.length];
+        int[] touched = new int[products.length];
+        int touchedCount = 0;
+
+        for (String term : terms) {
+            Postings list = postings.get(term);
+            if (list == null) {
+                continue;
+            }
+            for (int i = 0; i < list.docs.length; i++) {
+                int doc = list.docs[i];
+                if (categoryFilter != null && !categoryFilter.equals(categories[doc])) {
+                    continue;
+                }
+                int tf = list.freqs[i];
+                if (scores[doc] == 0f) {
+                    touched[touchedCount++] = doc;
+                }
+                scores[doc] += list.idf * tf * (K1 + 1) / (tf + lengthNorms[doc]);
+            }
+        }
+
+        int wanted = offset + limit;
+        if (touchedCount == 0 || offset >= touchedCount) {
+            return new Result(touchedCount, List.of());
+        }
+
+        // Min-heap of the best `wanted` docs: worst on top, ties broken by index for a stable order
+        Comparator<Integer> worstFirst = (a, b) -> scores[a] != scores[b]
+                ? Float.compare(scores[a], scores[b])
+                : Integer.compare(b, a);
+        PriorityQueue<Integer> best = new PriorityQueue<>(Math.min(wanted, touchedCount) + 1, worstFirst);
+        for (int i = 0; i < touchedCount; i++) {
+            int doc = touched[i];
+            if (best.size() < wanted) {
+                best.add(doc);
+            } else if (worstFirst.compare(doc, best.peek()) > 0) {
+                best.poll();
+                best.add(doc);
+            }
+        }
+
+        int[] ranked = new int[best.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = best.poll();
+        }
+
+        List<ScoredProduct> hits = new ArrayList<>(Math.max(0, ranked.length - offset));
+        for (int i = offset; i < ranked.length; i++) {
+            hits.add(new ScoredProduct(products[ranked[i]], scores[ranked[i]]));
+        }
+        return new Result(touchedCount, hits);
+    }
+
+    private static void addTerms(Map<String, Integer> frequencies, String text, int weight) {
+        for (String term : TextAnalyzer.terms(text)) {
+            frequencies.merge(term, weight, Integer::sum);
+        }
+    }
+}
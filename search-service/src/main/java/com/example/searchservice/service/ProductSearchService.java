@@ -0,0 +1,111 @@
+package com.example.searchservice.service;
+
+import com.example.searchservice.dto.ProductDocument;
+import com.example.searchservice.dto.ProductSearchResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Product search over an in-memory ProductIndex, rebuilt from order-service's products on a
+ * fixed delay (and on demand). A failed refresh keeps serving the previous index.
+ */
+@Service
+@Slf4j
+public class ProductSearchService {
+
+    private static final int MAX_PAGE_SIZE = 50;
+    private static final int MAX_QUERY_LENGTH = 200;
+
+    private final ProductClient productClient;
+    private final PopularQueries popularQueries;
+    private final ReentrantLock refreshing = new ReentrantLock();
+
+    private volatile ProductIndex index = ProductIndex.build(List.of());
+
+    public ProductSearchService(ProductClient productClient, PopularQueries popularQueries) {
+        this.productClient = productClient;
+        this.popularQueries = popularQueries;
+    }
+
+    public ProductSearchResponse search(String query, String category, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Query parameter 'q' is required");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Query is too long (max " + MAX_QUERY_LENGTH + " characters)");
+        }
+        int pageNumber = Math.max(0, page);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        long start = System.nanoTime();
+        ProductIndex.Result result = index.search(query, category, pageNumber * pageSize, pageSize);
+        long tookMicros = (System.nanoTime() - start) / 1_000;
+
+        // Searches that found something feed the autocomplete suggestions
+        if (pageNumber == 0 && result.totalHits() > 0) {
+            popularQueries.record(query);
+        }
+
+        return ProductSearchResponse.builder()
+                .query(query)
+                .page(pageNumber)
+                .size(pageSize)
+                .totalHits(result.totalHits())
+                .tookMicros(tookMicros)
+                .results(result.hits().stream().map(ProductSearchService::toHit).toList())
+                .build();
+    }
+
+    public List<ProductDocument> indexedProducts() {
+        return index.products();
+    }
+
+    @Scheduled(fixedDelayString = "${search.products.refresh-ms:60000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (RuntimeException ex) {
+            log.warn("⚠️ Product index refresh failed, keeping {} indexed products: {}",
+                    index.size(), ex.getMessage());
+        }
+    }
+
+    // ✅ Rebuilds the index from order-service and swaps it in
+    public Map<String, Object> refresh() {
+        if (!refreshing.tryLock()) {
+            throw new IllegalStateException("Product index refresh already running");
+        }
+        try {
+            long start = System.currentTimeMillis();
+            List<ProductDocument> products = productClient.fetchAllProducts();
+            ProductIndex rebuilt = ProductIndex.build(products);
+            index = rebuilt;
+
+            long tookMs = System.currentTimeMillis() - start;
+            log.debug("🔎 Product index rebuilt: {} products, {} terms in {} ms",
+                    rebuilt.size(), rebuilt.termCount(), tookMs);
+            return Map.of("products", rebuilt.size(), "terms", rebuilt.termCount(), "tookMs", tookMs);
+        } finally {
+            refreshing.unlock();
+        }
+    }
+
+    private static ProductSearchResponse.Hit toHit(ProductIndex.ScoredProduct scored) {
+        ProductDocument product = scored.product();
+        return ProductSearchResponse.Hit.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .description(product.getDescription())
+                .price(product.getPrice())
+                .image(product.getImage())
+                .thumbnail(product.getThumbnail())
+                .category(product.getCategory())
+                .score(Math.round(scored.score() * 1000) / 1000.0)
+                .build();
+    }
+}
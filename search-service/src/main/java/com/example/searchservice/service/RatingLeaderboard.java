@@ -0,0 +1,159 @@
+package com.example.searchservice.service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Products ranked by Bayesian average rating ("top rated") and by review count ("most
+ * reviewed"), overall and per category.
+ * score = (priorWeight * priorMean + ratingSum) / (priorWeight + reviewCount): a product with a
+ * handful of 5-star reviews does not outrank one with hundreds of 4.8s. The prior is fixed for
+ * the life of an instance (the mean of all reviews at build time); a periodic rebuild refreshes it.
+ * Every ranking is a skip list ordered best first, so top-k walks k nodes; a new review moves
+ * its product (remove + insert, O(log n)). Writers are serialised, readers never lock.
+ */
+public final class RatingLeaderboard {
+
+    public record Ranked(long productId, long reviewCount, double average, double score) {
+    }
+
+    // Position of a product in the rankings; equal keys need the same product id
+    private record Key(long productId, long count, long sum, double score) {
+    }
+
+    private static final Comparator<Key> BY_SCORE = Comparator.comparingDouble(Key::score).reversed()
+            .thenComparing(Comparator.comparingLong(Key::count).reversed())
+            .thenComparingLong(Key::productId);
+
+    private static final Comparator<Key> BY_COUNT = Comparator.comparingLong(Key::count).reversed()
+            .thenComparing(Comparator.comparingDouble(Key::score).reversed())
+            .thenComparingLong(Key::productId);
+
+    private static final class Stats {
+        long count;
+        long sum;
+        String category;
+        Key key;
+    }
+
+    private final double priorMean;
+    private final double priorWeight;
+
+    // Guarded by "this" for writes
+    private final Map<Long, Stats> stats = new HashMap<>();
+
+    private final NavigableSet<Key> topRated = new ConcurrentSkipListSet<>(BY_SCORE);
+    private final NavigableSet<Key> mostReviewed = new ConcurrentSkipListSet<>(BY_COUNT);
+    private final Map<String, NavigableSet<Key>> topRatedByCategory = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<Key>> mostReviewedByCategory = new ConcurrentHashMap<>();
+
+    public RatingLeaderboard(double priorMean, double priorWeight) {
+        this.priorMean = priorMean;
+        this.priorWeight = priorWeight;
+    }
+
+    /**
+     * Leaderboard of per-product totals (productId -> {count, sum}); the prior mean is the mean
+     * of all the ratings given (3 when there are none).
+     */
+    public static RatingLeaderboard build(Map<Long, long[]> totals, double priorWeight) {
+        long count = 0;
+        long sum = 0;
+        for (long[] total : totals.values()) {
+            count += total[0];
+            sum += total[1];
+        }
+        RatingLeaderboard leaderboard = new RatingLeaderboard(count > 0 ? (double) sum / count : 3.0, priorWeight);
+        totals.forEach((productId, total) -> leaderboard.add(productId, total[0], total[1]));
+        return leaderboard;
+    }
+
+    public double priorMean() {
+        return priorMean;
+    }
+
+    public int size() {
+        return topRated.size();
+    }
+
+    public void record(long productId, int rating) {
+        add(productId, 1, rating);
+    }
+
+    public synchronized void add(long productId, long count, long sum) {
+        Stats product = stats.computeIfAbsent(productId, id -> new Stats());
+        unlink(product);
+        product.count += count;
+        product.sum += sum;
+        product.key = new Key(productId, product.count, product.sum, score(product.count, product.sum));
+        link(product);
+    }
+
+    /**
+     * Moves products between category rankings; products missing from the map keep theirs.
+     */
+    public synchronized void assignCategories(Map<Long, String> categories) {
+        categories.forEach((productId, category) -> {
+            Stats product = stats.get(productId);
+            if (product != null && !Objects.equals(product.category, category)) {
+                unlink(product);
+                product.category = category;
+                link(product);
+            }
+        });
+    }
+
+    public List<Ranked> topRated(String category, int limit) {
+        return top(category == null ? topRated : topRatedByCategory.get(category), limit);
+    }
+
+    public List<Ranked> mostReviewed(String category, int limit) {
+        return top(category == null ? mostReviewed : mostReviewedByCategory.get(category), limit);
+    }
+
+    private List<Ranked> top(NavigableSet<Key> ranking, int limit) {
+        if (ranking == null || limit <= 0) {
+            return List.of();
+        }
+        List<Ranked> ranked = new ArrayList<>(Math.min(limit, 64));
+        for (Key key : ranking) {
+            ranked.add(new Ranked(key.productId(), key.count(),
+                    key.count() > 0 ? (double) key.sum() / key.count() : 0, key.score()));
+            if (ranked.size() == limit) {
+                break;
+            }
+        }
+        return ranked;
+    }
+
+    private double score(long count, long sum) {
+        return (priorWeight * priorMean + sum) / (priorWeight + count);
+    }
+
+    private void unlink(Stats product) {
+        if (product.key == null) {
+            return;
+        }
+        topRated.remove(product.key);
+        mostReviewed.remove(product.key);
+        if (product.category != null) {
+            topRatedByCategory.get(product.category).remove(product.key);
+            mostReviewedByCategory.get(product.category).remove(product.key);
+        }
+    }
+
+    private void link(Stats product) {
+        if (product.key == null) {
+            return;
+        }
+        topRated.add(product.key);
+        mostReviewed.add(product.key);
+        if (product.category != null) {
+            topRatedByCategory.computeIfAbsent(product.category, c -> new ConcurrentSkipListSet<>(BY_SCORE))
+                    .add(product.key);
+            mostReviewedByCategory.computeIfAbsent(product.category, c -> new ConcurrentSkipListSet<>(BY_COUNT))
+                    .add(product.key);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.searchservice.service;
+
+import com.example.searchservice.dto.ReviewResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Fills userName and productName of review responses. The distinct ids of a whole page are
+ * looked up in a local TTL cache first; the misses cost one bulk call to User-Service and one
+ * to catalogue-service, whatever the page size. Ids the services do not know are cached as
+ * such; a failed call leaves the names null (the client shows its fallback) and that lookup is
+ * skipped for failure-backoff-ms before being tried again. User names are not looked up at all
+ * when no USER_LOOKUP_TOKEN is configured.
+ */
+@Component
+@Slf4j
+public class ReviewEnricher {
+
+    private final UserClient userClient;
+    private final OrderClient orderClient;
+    private final TtlCache<Long, String> userNames;
+    private final TtlCache<Long, String> productNames;
+    private final long failureBackoffMs;
+
+    // Per kind ("user", "product"): no call before this time after a failure
+    private final Map<String, Long> retryAfter = new ConcurrentHashMap<>();
+
+    public ReviewEnricher(UserClient userClient, OrderClient orderClient,
+                          @Value("${review.enrichment.ttl-ms:600000}") long ttlMs,
+                          @Value("${review.enrichment.max-cached:50000}") int maxCached,
+                          @Value("${review.enrichment.failure-backoff-ms:30000}") long failureBackoffMs) {
+        this.userClient = userClient;
+        this.orderClient = orderClient;
+        this.failureBackoffMs = failureBackoffMs;
+        this.userNames = new TtlCache<>(ttlMs, maxCached);
+        this.productNames = new TtlCache<>(ttlMs, maxCached);
+    }
+
+    public void enrich(List<ReviewResponse> reviews) {
+        if (reviews.isEmpty()) {
+            return;
+        }
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> productIds = new HashSet<>();
+        for (ReviewResponse review : reviews) {
+            if (review.getUserId() != null) {
+                userIds.add(review.getUserId());
+            }
+            if (review.getProductId() != null) {
+                productIds.add(review.getProductId());
+            }
+        }
+
+        Map<Long, String> users = userClient.isEnabled()
+                ? resolve(userIds, userNames, userClient::fetchUsernames, "user")
+                : Collections.emptyMap();
+        Map<Long, String> products = resolve(productIds, productNames, orderClient::fetchProductNames, "product");
+
+        for (ReviewResponse review : reviews) {
+            review.setUserName(users.get(review.getUserId()));
+            review.setProductName(products.get(review.getProductId()));
+        }
+    }
+
+    private Map<Long, String> resolve(Set<Long> ids, TtlCache<Long, String> cache,
+                                      Function<Collection<Long>, Map<Long, String>> fetch, String kind) {
+        List<Long> missing = new ArrayList<>();
+        Map<Long, String> names = cache.getAll(ids, missing);
+        Long blockedUntil = retryAfter.get(kind);
+        if (missing.isEmpty() || (blockedUntil != null && System.currentTimeMillis() < blockedUntil)) {
+            return names;
+        }
+        try {
+            Map<Long, String> fetched = fetch.apply(missing);
+            for (Long id : missing) {
+                String name = fetched.get(id);
+                cache.put(id, name);
+                names.put(id, name);
+            }
+            retryAfter.remove(kind);
+        } catch (RuntimeException ex) {
+            retryAfter.put(kind, System.currentTimeMillis() + failureBackoffMs);
+            log.warn("⚠️ {} name lookup of {} ids failed, next try in {} ms: {}",
+                    kind, missing.size(), failureBackoffMs, ex.getMessage());
+        }
+        return names;
+    }
+}
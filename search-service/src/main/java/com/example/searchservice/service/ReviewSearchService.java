@@ -0,0 +1,191 @@
+package com.example.searchservice.service;
+
+import com.example.searchservice.dto.ReviewSearchResponse;
+import com.example.searchservice.entity.Review;
+import com.example.searchservice.repository.ReviewRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Full-text search over review comments (ReviewTextIndex). New reviews are indexed once their
+ * transaction commits; the whole index is rebuilt at startup (and on demand) from id ranges
+ * read and tokenised in parallel, then swapped in. Reviews committed during a rebuild go to
+ * both the serving index and the one being built.
+ */
+@Service
+@Slf4j
+public class ReviewSearchService {
+
+    private static final int MAX_PAGE_SIZE = 50;
+    private static final int MAX_QUERY_LENGTH = 200;
+    private static final int HIGHLIGHT_LENGTH = 240;
+
+    private final ReviewRepository reviewRepository;
+    private final ReentrantLock rebuilding = new ReentrantLock();
+
+    private volatile ReviewTextIndex index = new ReviewTextIndex();
+    private volatile ReviewTextIndex rebuildTarget;
+    private volatile boolean indexing;
+
+    @Value("${review.search.chunk-size:5000}")
+    private int chunkSize = 5_000;
+
+    @Value("${review.search.rebuild-threads:4}")
+    private int rebuildThreads = 4;
+
+    public ReviewSearchService(ReviewRepository reviewRepository) {
+        this.reviewRepository = reviewRepository;
+    }
+
+    public ReviewSearchResponse search(String query, Long productId, Integer minRating, Integer maxRating,
+                                       String sort, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Query parameter 'q' is required");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Query is too long (max " + MAX_QUERY_LENGTH + " characters)");
+        }
+        if (minRating != null && maxRating != null && minRating > maxRating) {
+            throw new IllegalArgumentException("minRating must not exceed maxRating");
+        }
+        ReviewTextIndex.Order order = parseOrder(sort);
+        int pageNumber = Math.max(0, page);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        long start = System.nanoTime();
+        ReviewTextIndex.Query parsed = ReviewTextIndex.Query.parse(query);
+        ReviewTextIndex.Result result = index.search(parsed, productId, minRating, maxRating,
+                order, pageNumber * pageSize, pageSize);
+        Set<String> terms = parsed.positiveTerms();
+        List<ReviewSearchResponse.Hit> hits = result.hits().stream()
+                .map(hit -> toHit(hit, terms))
+                .toList();
+        long tookMicros = (System.nanoTime() - start) / 1_000;
+
+        return ReviewSearchResponse.builder()
+                .query(query)
+                .page(pageNumber)
+                .size(pageSize)
+                .totalHits(result.totalHits())
+                .tookMicros(tookMicros)
+                .indexing(indexing)
+                .results(hits)
+                .build();
+    }
+
+    /**
+     * Indexes a saved review once the current transaction commits (immediately without one).
+     */
+    public void indexAfterCommit(Review review) {
+        ReviewTextIndex.ReviewDocument document = toDocument(review.getId(), review.getUserId(),
+                review.getProductId(), review.getRating(), review.getComment(), review.getCreatedAt());
+
+        AfterCommit.run(() -> add(document));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        // In the background: searches answer (incompletely, "indexing": true) while it runs
+        IdRangeRebuild.startInBackground("review-index-rebuild", () -> {
+            try {
+                rebuild();
+            } catch (RuntimeException ex) {
+                log.error("❌ Review comment index rebuild failed: {}", ex.getMessage());
+            }
+        });
+    }
+
+    // ✅ Rebuilds the index from the review table, id ranges in parallel, and swaps it in
+    public Map<String, Object> rebuild() {
+        if (!rebuilding.tryLock()) {
+            throw new IllegalStateException("Review index rebuild already running");
+        }
+        indexing = true;
+        try {
+            long start = System.currentTimeMillis();
+            ReviewTextIndex fresh = new ReviewTextIndex();
+            rebuildTarget = fresh;
+
+            List<Object[]> range = reviewRepository.findIdRange();
+            Object[] bounds = range.isEmpty() ? null : range.get(0);
+            if (bounds != null && bounds[0] != null) {
+                IdRangeRebuild.scan("review-index", rebuildThreads, ((Number) bounds[0]).longValue(),
+                        ((Number) bounds[1]).longValue(), chunkSize,
+                        (fromId, toId) -> fresh.merge(indexChunk(fromId, toId)));
+            }
+
+            index = fresh;
+            rebuildTarget = null;
+
+            long tookMs = System.currentTimeMillis() - start;
+            log.info("🔎 Review comment index rebuilt: {} reviews, {} terms in {} ms",
+                    fresh.size(), fresh.termCount(), tookMs);
+            return Map.of("reviews", fresh.size(), "terms", fresh.termCount(), "tookMs", tookMs);
+        } finally {
+            rebuildTarget = null;
+            indexing = false;
+            rebuilding.unlock();
+        }
+    }
+
+    public int indexedReviews() {
+        return index.size();
+    }
+
+    // One id range, tokenised by the calling worker into its own partial index
+    private ReviewTextIndex indexChunk(long fromId, long toId) {
+        ReviewTextIndex partial = new ReviewTextIndex();
+        for (Object[] row : reviewRepository.findForIndexing(fromId, toId)) {
+            partial.add(toDocument((Long) row[0], (Long) row[1], (Long) row[2],
+                    ((Number) row[3]).intValue(), (String) row[4], (LocalDateTime) row[5]));
+        }
+        return partial;
+    }
+
+    private void add(ReviewTextIndex.ReviewDocument document) {
+        // Target first: once it is null the swap has happened and `index` is the new one
+        ReviewTextIndex target = rebuildTarget;
+        index.add(document);
+        if (target != null) {
+            target.add(document);
+        }
+    }
+
+    private static ReviewTextIndex.ReviewDocument toDocument(Long id, Long userId, Long productId, int rating,
+                                                             String comment, LocalDateTime createdAt) {
+        return new ReviewTextIndex.ReviewDocument(id, userId, productId, rating, comment, createdAt);
+    }
+
+    private static ReviewTextIndex.Order parseOrder(String sort) {
+        if (sort == null || sort.isBlank() || sort.equalsIgnoreCase("relevance")) {
+            return ReviewTextIndex.Order.RELEVANCE;
+        }
+        if (sort.equalsIgnoreCase("newest")) {
+            return ReviewTextIndex.Order.NEWEST;
+        }
+        throw new IllegalArgumentException("Invalid sort: " + sort + " (relevance or newest)");
+    }
+
+    private static ReviewSearchResponse.Hit toHit(ReviewTextIndex.Hit hit, Set<String> terms) {
+        ReviewTextIndex.ReviewDocument review = hit.review();
+        return ReviewSearchResponse.Hit.builder()
+                .id(review.reviewId())
+                .userId(review.userId())
+                .productId(review.productId())
+                .rating(review.rating())
+                .comment(review.comment())
+                .highlight(ReviewTextIndex.highlight(review.comment(), terms, HIGHLIGHT_LENGTH))
+                .createdAt(review.createdAt())
+                .score(Math.round(hit.score() * 1000) / 1000.0)
+                .build();
+    }
+}
@@ -1,92 +1,249 @@
 package com.example.searchservice.service;
 
+import com.example.searchservice.dto.RatingSummaryResponse;
+import com.example.searchservice.dto.ReviewPageResponse;
 import com.example.searchservice.dto.ReviewRequest;
 import com.example.searchservice.dto.ReviewResponse;
+import com.example.searchservice.dto.ReviewSort;
+import com.example.searchservice.entity.ProductRating;
 import com.example.searchservice.entity.Review;
+import com.example.searchservice.repository.ProductRatingRepository;
 import com.example.searchservice.repository.ReviewRepository;
+import com.example.searchservice.repository.ReviewSpecifications;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class ReviewService {
 
+    static final int MAX_PAGE_SIZE = 100;
+    static final int MAX_SUMMARY_IDS = 200;
+
     private final ReviewRepository reviewRepository;
+    private final ProductRatingRepository productRatingRepository;
+    private final ReviewSearchService reviewSearchService;
+    private final LeaderboardService leaderboardService;
+    private final ReviewEnricher reviewEnricher;
     private final OrderClient orderClient;
+    private final TransactionTemplate transactionTemplate;
 
+    // Pas de @Transactional : la transaction ne couvre que l'insertion et l'agrégat. La vérification
+    // auprès de order-service (jusqu'à 2 s) se fait avant, la résolution des noms après le commit
     public ReviewResponse addReview(ReviewRequest request) {
 
-        // 1️⃣ Vérifier si l'utilisateur peut review
+        if (request.getRating() < 1 || request.getRating() > 5) {
+            throw new IllegalArgumentException("Rating must be between 1 and 5");
+        }
+
+        // 1️⃣ Vérifier si l'utilisateur peut review (aucune connexion base tenue pendant l'appel)
         if (!orderClient.canUserReview(
                 request.getUserId(),
                 request.getProductId())) {
             throw new RuntimeException("Review not allowed");
         }
 
-        // 2️⃣ Vérifier si review déjà exist
-        if (reviewRepository.existsByUserIdAndProductId(
-                request.getUserId(),
-                request.getProductId())) {
-            throw new RuntimeException("Already reviewed");
+        Review saved = transactionTemplate.execute(tx -> {
+            // 2️⃣ Insérer la review en une seule requête : l'index unique (user_id, product_id)
+            //     refuse un doublon, même soumis en parallèle (double-clic)
+            LocalDateTime createdAt = LocalDateTime.now();
+            Long id = reviewRepository.insertIfAbsent(
+                            request.getUserId(),
+                            request.getProductId(),
+                            request.getRating(),
+                            request.getComment(),
+                            createdAt)
+                    .orElseThrow(() -> new RuntimeException("Already reviewed"));
+
+            // 3️⃣ La review telle qu'insérée
+            Review review = Review.builder()
+                    .id(id)
+                    .userId(request.getUserId())
+                    .productId(request.getProductId())
+                    .rating(request.getRating())
+                    .comment(request.getComment())
+                    .createdAt(createdAt)
+                    .build();
+
+            // ✅ Agrégat du produit mis à jour dans la même transaction (upsert atomique)
+            productRatingRepository.addRating(review.getProductId(), review.getRating());
+
+            // ✅ Recherchable dès le commit
+            reviewSearchService.indexAfterCommit(review);
+
+            // ✅ Classements (top rated / most reviewed) mis à jour au commit
+            leaderboardService.recordAfterCommit(review);
+            return review;
+        });
+
+        // 4️⃣ Retourner la réponse, une fois la transaction validée : les noms sont résolus via
+        //     User-Service / Catalogue-Service (en cache) sans tenir de connexion
+        ReviewResponse response = toResponse(saved);
+        reviewEnricher.enrich(List.of(response));
+        return response;
+    }
+
+    // ✅ Reviews d'un produit (page keyset, tri au choix)
+    public ReviewPageResponse getReviewsByProduct(Long productId, ReviewSort sort, String cursor, int size) {
+        return page(ReviewSpecifications.forProduct(productId), sort, cursor, size);
+    }
+
+    // ✅ Toutes les reviews (vue admin), page par page
+    public ReviewPageResponse getAllReviews(ReviewSort sort, String cursor, int size) {
+        return page(ReviewSpecifications.all(), sort, cursor, size);
+    }
+
+    // ✅ Reviews d'un utilisateur, les plus récentes d'abord
+    public ReviewPageResponse getUserReviews(Long userId, String cursor, int size) {
+        return page(ReviewSpecifications.forUser(userId), ReviewSort.NEWEST, cursor, size);
+    }
+
+    // One query of size + 1 rows per page: the extra row only tells whether another page exists.
+    // No transaction around it, so no connection is held while the names are resolved.
+    private ReviewPageResponse page(Specification<Review> filter, ReviewSort sort, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        Specification<Review> spec = filter;
+        if (cursor != null && !cursor.isBlank()) {
+            Object[] position = decodeCursor(cursor);
+            spec = spec.and(ReviewSpecifications.after(
+                    sort, (Integer) position[0], (LocalDateTime) position[1], (Long) position[2]));
         }
 
-        // 3️⃣ Créer et sauvegarder la review
-        Review review = Review.builder()
-                .userId(request.getUserId())
-                .productId(request.getProductId())
-                .rating(request.getRating())
-                .comment(request.getComment())
-                .createdAt(LocalDateTime.now())
-                .build();
+        List<Review> reviews = reviewRepository.findBy(spec, query -> query
+                .sortBy(ReviewSpecifications.orderOf(sort))
+                .limit(pageSize + 1)
+                .all());
 
-        Review saved = reviewRepository.save(review);
+        boolean hasMore = reviews.size() > pageSize;
+        if (hasMore) {
+            reviews = reviews.subList(0, pageSize);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            Review last = reviews.get(reviews.size() - 1);
+            nextCursor = encodeCursor(last.getRating(), last.getCreatedAt(), last.getId());
+        }
 
-        // 4️⃣ Retourner la réponse
+        List<ReviewResponse> dtos = reviews.stream().map(ReviewService::toResponse).toList();
+        reviewEnricher.enrich(dtos);
+        return ReviewPageResponse.builder()
+                .reviews(dtos)
+                .count(dtos.size())
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private static ReviewResponse toResponse(Review r) {
         return ReviewResponse.builder()
-                .id(saved.getId())
-                .userId(saved.getUserId())
-                .userName(null)       // prêt pour User-Service plus tard
-                .productId(saved.getProductId())
-                .productName(null)    // prêt pour Catalogue-Service plus tard
-                .rating(saved.getRating())
-                .comment(saved.getComment())
-                .createdAt(saved.getCreatedAt())
+                .id(r.getId())
+                .userId(r.getUserId())
+                .productId(r.getProductId())
+                .rating(r.getRating())
+                .comment(r.getComment())
+                .createdAt(r.getCreatedAt())
                 .build();
     }
 
-    public List<ReviewResponse> getReviewsByProduct(Long productId) {
-        return reviewRepository.findByProductId(productId)
-                .stream()
-                .map(r -> ReviewResponse.builder()
-                        .id(r.getId())
-                        .userId(r.getUserId())
-                        .userName(null)
-                        .productId(r.getProductId())
-                        .productName(null)
-                        .rating(r.getRating())
-                        .comment(r.getComment())
-                        .createdAt(r.getCreatedAt())
-                        .build())
-                .toList();
+    // Cursor = base64url("<rating>|<createdAt ISO>|<review id>") of the last review on the page
+    private static String encodeCursor(int rating, LocalDateTime createdAt, Long id) {
+        String raw = rating + "|" + createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
     }
 
-    // ✅ Récupérer toutes les reviews
-    public List<ReviewResponse> getAllReviews() {
-        return reviewRepository.findAll()
-                .stream()
-                .map(r -> ReviewResponse.builder()
-                        .id(r.getId())
-                        .userId(r.getUserId())
-                        .userName(null)
-                        .productId(r.getProductId())
-                        .productName(null)
-                        .rating(r.getRating())
-                        .comment(r.getComment())
-                        .createdAt(r.getCreatedAt())
-                        .build())
+    private static Object[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            return new Object[] {
+                    Integer.parseInt(parts[0]),
+                    LocalDateTime.parse(parts[1]),
+                    Long.parseLong(parts[2])
+            };
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    // ✅ Résumé des notes d'un produit (lu depuis l'agrégat, sans charger les reviews)
+    @Transactional(readOnly = true)
+    public RatingSummaryResponse getRatingSummary(Long productId) {
+        return productRatingRepository.findById(productId)
+                .map(ReviewService::toSummary)
+                .orElseGet(() -> emptySummary(productId));
+    }
+
+    // ✅ Résumés de plusieurs produits en une requête, dans l'ordre demandé
+    @Transactional(readOnly = true)
+    public List<RatingSummaryResponse> getRatingSummaries(Collection<Long> productIds) {
+        Set<Long> ids = new LinkedHashSet<>(productIds);
+        ids.remove(null);
+        if (ids.size() > MAX_SUMMARY_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_SUMMARY_IDS + " product ids per request");
+        }
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, ProductRating> ratings = productRatingRepository.findByProductIdIn(ids).stream()
+                .collect(Collectors.toMap(ProductRating::getProductId, Function.identity()));
+        return ids.stream()
+                .map(id -> ratings.containsKey(id) ? toSummary(ratings.get(id)) : emptySummary(id))
                 .toList();
     }
+
+    // ✅ Premier démarrage : l'agrégat est reconstruit depuis les reviews existantes
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillRatings() {
+        if (productRatingRepository.count() == 0 && reviewRepository.count() > 0) {
+            int products = productRatingRepository.recountAll();
+            log.info("⭐ Rating aggregates rebuilt for {} products", products);
+        }
+    }
+
+    private static RatingSummaryResponse toSummary(ProductRating rating) {
+        Map<Integer, Long> histogram = new LinkedHashMap<>();
+        histogram.put(1, rating.getStars1());
+        histogram.put(2, rating.getStars2());
+        histogram.put(3, rating.getStars3());
+        histogram.put(4, rating.getStars4());
+        histogram.put(5, rating.getStars5());
+        long count = rating.getReviewCount();
+        return RatingSummaryResponse.builder()
+                .productId(rating.getProductId())
+                .count(count)
+                .average(count > 0 ? Math.round(rating.getRatingSum() * 100.0 / count) / 100.0 : 0.0)
+                .histogram(histogram)
+                .build();
+    }
+
+    private static RatingSummaryResponse emptySummary(Long productId) {
+        Map<Integer, Long> histogram = new LinkedHashMap<>();
+        for (int stars = 1; stars <= 5; stars++) {
+            histogram.put(stars, 0L);
+        }
+        return RatingSummaryResponse.builder()
+                .productId(productId)
+                .count(0L)
+                .average(0.0)
+                .histogram(histogram)
+                .build();
+    }
 }
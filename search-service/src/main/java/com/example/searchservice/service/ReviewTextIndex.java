@@ -0,0 +1,523 @@
+package com.example.searchservice.service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Positional inverted index over review comments, ranked with BM25.
+ * Each term keeps its documents in ascending order with the word positions inside each, so a
+ * phrase is checked with a few binary searches. Documents only get appended (new reviews, or
+ * a partial index merged in during the startup rebuild), which keeps every postings list
+ * sorted; a review id already indexed is ignored, so both paths may deliver the same review.
+ * Readers share a read lock, appends take the write lock for the time of one review.
+ *
+ * Query syntax: words and "quoted phrases" must all match, OR separates alternatives, and a
+ * leading - (or NOT) excludes a word or phrase: battery -charger OR "late delivery".
+ */
+public final class ReviewTextIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    public record ReviewDocument(long reviewId, Long userId, Long productId, int rating, String comment,
+                                 LocalDateTime createdAt) {
+    }
+
+    public record Hit(ReviewDocument review, float score) {
+    }
+
+    public record Result(int totalHits, List<Hit> hits) {
+    }
+
+    public enum Order { RELEVANCE, NEWEST }
+
+    // Phrase of one or more terms; offsets are the word distance from the first term
+    record Clause(String[] terms, int[] offsets, boolean negated) {
+    }
+
+    /**
+     * Parsed query: alternatives (OR) of conjunctions of clauses.
+     */
+    public record Query(List<List<Clause>> alternatives) {
+
+        public boolean isEmpty() {
+            return alternatives.isEmpty();
+        }
+
+        // Terms of the positive clauses, for highlighting
+        public Set<String> positiveTerms() {
+            Set<String> terms = new LinkedHashSet<>();
+            for (List<Clause> conjunction : alternatives) {
+                for (Clause clause : conjunction) {
+                    if (!clause.negated()) {
+                        terms.addAll(Arrays.asList(clause.terms()));
+                    }
+                }
+            }
+            return terms;
+        }
+
+        public static Query parse(String text) {
+            List<List<Clause>> alternatives = new ArrayList<>();
+            List<Clause> current = new ArrayList<>();
+            boolean negateNext = false;
+            int i = 0;
+            int length = text != null ? text.length() : 0;
+
+            while (i < length) {
+                char c = text.charAt(i);
+                if (Character.isWhitespace(c)) {
+                    i++;
+                    continue;
+                }
+                boolean negated = negateNext;
+                negateNext = false;
+                if (c == '-') {
+                    negated = true;
+                    i++;
+                    if (i >= length) {
+                        break;
+                    }
+                    c = text.charAt(i);
+                }
+
+                String raw;
+                if (c == '"') {
+                    int close = text.indexOf('"', i + 1);
+                    int end = close < 0 ? length : close;
+                    raw = text.substring(i + 1, end);
+                    i = close < 0 ? length : close + 1;
+                } else {
+                    int end = i;
+                    while (end < length && !Character.isWhitespace(text.charAt(end)) && text.charAt(end) != '"') {
+                        end++;
+                    }
+                    raw = text.substring(i, end);
+                    i = end;
+                    if (!negated) {
+                        if (raw.equals("OR") || raw.equals("|")) {
+                            addConjunction(alternatives, current);
+                            current = new ArrayList<>();
+                            continue;
+                        }
+                        if (raw.equals("AND")) {
+                            continue;
+                        }
+                        if (raw.equals("NOT")) {
+                            negateNext = true;
+                            continue;
+                        }
+                    }
+                }
+
+                Clause clause = clause(raw, negated);
+                if (clause != null) {
+                    current.add(clause);
+                }
+            }
+            addConjunction(alternatives, current);
+            return new Query(alternatives);
+        }
+
+        private static Clause clause(String raw, boolean negated) {
+            List<String> terms = new ArrayList<>();
+            List<Integer> offsets = new ArrayList<>();
+            int first = -1;
+            for (TextAnalyzer.Token token : TextAnalyzer.tokens(raw)) {
+                if (token.term() == null) {
+                    continue;
+                }
+                if (first < 0) {
+                    first = token.position();
+                }
+                terms.add(token.term());
+                offsets.add(token.position() - first);
+            }
+            if (terms.isEmpty()) {
+                return null;
+            }
+            return new Clause(terms.toArray(new String[0]),
+                    offsets.stream().mapToInt(Integer::intValue).toArray(), negated);
+        }
+
+        // A conjunction needs something to match: exclusions alone are dropped
+        private static void addConjunction(List<List<Clause>> alternatives, List<Clause> conjunction) {
+            if (conjunction.stream().anyMatch(clause -> !clause.negated())) {
+                alternatives.add(List.copyOf(conjunction));
+            }
+        }
+    }
+
+    // docs ascending; positions of docs[i] are positions[starts[i] .. starts[i + 1] (or posSize))
+    private static final class Postings {
+        int[] docs = new int[4];
+        int[] starts = new int[4];
+        int size;
+        int[] positions = new int[8];
+        int posSize;
+
+        void append(int doc, int[] source, int from, int to) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                starts = Arrays.copyOf(starts, size * 2);
+            }
+            int count = to - from;
+            if (posSize + count > positions.length) {
+                positions = Arrays.copyOf(positions, Math.max(positions.length * 2, posSize + count));
+            }
+            docs[size] = doc;
+            starts[size] = posSize;
+            size++;
+            System.arraycopy(source, from, positions, posSize, count);
+            posSize += count;
+        }
+
+        int end(int i) {
+            return i + 1 < size ? starts[i + 1] : posSize;
+        }
+
+        int find(int doc) {
+            return Arrays.binarySearch(docs, 0, size, doc);
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<ReviewDocument> documents = new ArrayList<>();
+    private int[] lengths = new int[16];
+    private long totalLength;
+    private final Map<Long, Integer> docByReviewId = new HashMap<>();
+    private final Map<Long, List<Integer>> docsByProduct = new HashMap<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes one review; false when its id is already indexed.
+     */
+    public boolean add(ReviewDocument review) {
+        // Tokenised outside the lock
+        Map<String, int[]> termPositions = positionsByTerm(review.comment());
+        int length = termPositions.values().stream().mapToInt(p -> p[0]).sum();
+
+        lock.writeLock().lock();
+        try {
+            return append(review, termPositions, length);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Appends every review of `other` not indexed here yet (other must not be modified meanwhile).
+     */
+    public int merge(ReviewTextIndex other) {
+        lock.writeLock().lock();
+        try {
+            int[] remap = new int[other.documents.size()];
+            int added = 0;
+            for (int doc = 0; doc < remap.length; doc++) {
+                ReviewDocument review = other.documents.get(doc);
+                if (docByReviewId.containsKey(review.reviewId())) {
+                    remap[doc] = -1;
+                } else {
+                    remap[doc] = newDocument(review, other.lengths[doc]);
+                    added++;
+                }
+            }
+            for (Map.Entry<String, Postings> entry : other.postings.entrySet()) {
+                Postings source = entry.getValue();
+                Postings target = null;
+                for (int i = 0; i < source.size; i++) {
+                    int doc = remap[source.docs[i]];
+                    if (doc < 0) {
+                        continue;
+                    }
+                    if (target == null) {
+                        target = postings.computeIfAbsent(entry.getKey(), term -> new Postings());
+                    }
+                    target.append(doc, source.positions, source.starts[i], source.end(i));
+                }
+            }
+            return added;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Matching reviews, best first (or newest first); productId, minRating and maxRating are
+     * optional filters.
+     */
+    public Result search(Query query, Long productId, Integer minRating, Integer maxRating,
+                         Order order, int offset, int limit) {
+        if (query.isEmpty()) {
+            return new Result(0, List.of());
+        }
+
+        lock.readLock().lock();
+        try {
+            int count = documents.size();
+            if (count == 0) {
+                return new Result(0, List.of());
+            }
+            float averageLength = Math.max(1f, (float) totalLength / count);
+            List<Integer> productDocs = productId != null ? docsByProduct.getOrDefault(productId, List.of()) : null;
+
+            Map<Integer, Float> scores = new HashMap<>();
+            for (List<Clause> conjunction : query.alternatives()) {
+                for (int doc : candidates(conjunction, productDocs)) {
+                    ReviewDocument review = documents.get(doc);
+                    if ((productId != null && !productId.equals(review.productId()))
+                            || (minRating != null && review.rating() < minRating)
+                            || (maxRating != null && review.rating() > maxRating)
+                            || !matches(conjunction, doc)) {
+                        continue;
+                    }
+                    scores.merge(doc, score(conjunction, doc, count, averageLength), Math::max);
+                }
+            }
+
+            int wanted = offset + limit;
+            if (scores.isEmpty() || offset >= scores.size()) {
+                return new Result(scores.size(), List.of());
+            }
+
+            // Min-heap of the best `wanted` docs: worst on top; equal scores rank the newer review first
+            Comparator<Integer> worstFirst = order == Order.NEWEST
+                    ? Comparator.comparingLong(doc -> documents.get(doc).reviewId())
+                    : Comparator.<Integer>comparingDouble(scores::get)
+                            .thenComparingLong(doc -> documents.get(doc).reviewId());
+            PriorityQueue<Integer> best = new PriorityQueue<>(Math.min(wanted, scores.size()) + 1, worstFirst);
+            for (int doc : scores.keySet()) {
+                if (best.size() < wanted) {
+                    best.add(doc);
+                } else if (worstFirst.compare(doc, best.peek()) > 0) {
+                    best.poll();
+                    best.add(doc);
+                }
+            }
+
+            int[] ranked = new int[best.size()];
+            for (int i = ranked.length - 1; i >= 0; i--) {
+                ranked[i] = best.poll();
+            }
+
+            List<Hit> hits = new ArrayList<>(Math.max(0, ranked.length - offset));
+            for (int i = offset; i < ranked.length; i++) {
+                hits.add(new Hit(documents.get(ranked[i]), scores.get(ranked[i])));
+            }
+            return new Result(scores.size(), hits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The comment with the query terms wrapped in <mark>, HTML-escaped; a long comment is cut to
+     * a window of about maxLength characters around the first match.
+     */
+    public static String highlight(String comment, Set<String> terms, int maxLength) {
+        if (comment == null) {
+            return null;
+        }
+        List<TextAnalyzer.Token> marked = TextAnalyzer.tokens(comment).stream()
+                .filter(token -> token.term() != null && terms.contains(token.term()))
+                .toList();
+
+        int from = 0;
+        int to = comment.length();
+        if (to > maxLength) {
+            int anchor = marked.isEmpty() ? 0 : marked.get(0).start();
+            from = Math.max(0, anchor - maxLength / 4);
+            to = Math.min(comment.length(), from + maxLength);
+        }
+
+        StringBuilder html = new StringBuilder(to - from + marked.size() * 13 + 2);
+        if (from > 0) {
+            html.append('…');
+        }
+        int cursor = from;
+        for (TextAnalyzer.Token token : marked) {
+            if (token.start() < from || token.end() > to) {
+                continue;
+            }
+            escape(html, comment, cursor, token.start());
+            html.append("<mark>");
+            escape(html, comment, token.start(), token.end());
+            html.append("</mark>");
+            cursor = token.end();
+        }
+        escape(html, comment, cursor, to);
+        if (to < comment.length()) {
+            html.append('…');
+        }
+        return html.toString();
+    }
+
+    // Caller holds the write lock
+    private boolean append(ReviewDocument review, Map<String, int[]> termPositions, int length) {
+        if (docByReviewId.containsKey(review.reviewId())) {
+            return false;
+        }
+        int doc = newDocument(review, length);
+        termPositions.forEach((term, positions) ->
+                postings.computeIfAbsent(term, t -> new Postings()).append(doc, positions, 1, 1 + positions[0]));
+        return true;
+    }
+
+    private int newDocument(ReviewDocument review, int length) {
+        int doc = documents.size();
+        documents.add(review);
+        if (doc == lengths.length) {
+            lengths = Arrays.copyOf(lengths, doc * 2);
+        }
+        lengths[doc] = length;
+        totalLength += length;
+        docByReviewId.put(review.reviewId(), doc);
+        if (review.productId() != null) {
+            docsByProduct.computeIfAbsent(review.productId(), id -> new ArrayList<>()).add(doc);
+        }
+        return doc;
+    }
+
+    // term -> [count, pos0, pos1, ...] in text order
+    private static Map<String, int[]> positionsByTerm(String text) {
+        Map<String, int[]> byTerm = new HashMap<>();
+        for (TextAnalyzer.Token token : TextAnalyzer.tokens(text)) {
+            if (token.term() == null) {
+                continue;
+            }
+            int[] positions = byTerm.get(token.term());
+            if (positions == null) {
+                positions = new int[4];
+            } else if (positions[0] + 1 == positions.length) {
+                positions = Arrays.copyOf(positions, positions.length * 2);
+            }
+            positions[++positions[0]] = token.position();
+            byTerm.put(token.term(), positions);
+        }
+        return byTerm;
+    }
+
+    // Docs to check for a conjunction: the shortest of its rarest term's postings and the product's reviews
+    private Iterable<Integer> candidates(List<Clause> conjunction, List<Integer> productDocs) {
+        Postings rarest = null;
+        for (Clause clause : conjunction) {
+            if (clause.negated()) {
+                continue;
+            }
+            for (String term : clause.terms()) {
+                Postings list = postings.get(term);
+                if (list == null) {
+                    return List.of();
+                }
+                if (rarest == null || list.size < rarest.size) {
+                    rarest = list;
+                }
+            }
+        }
+        if (rarest == null) {
+            return List.of();
+        }
+        if (productDocs != null && productDocs.size() < rarest.size) {
+            return productDocs;
+        }
+        int[] docs = Arrays.copyOf(rarest.docs, rarest.size);
+        return () -> Arrays.stream(docs).iterator();
+    }
+
+    private boolean matches(List<Clause> conjunction, int doc) {
+        for (Clause clause : conjunction) {
+            if (matches(clause, doc) == clause.negated()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Every term at its offset from some occurrence of the first one
+    private boolean matches(Clause clause, int doc) {
+        Postings first = postings.get(clause.terms()[0]);
+        int index = first != null ? first.find(doc) : -1;
+        if (index < 0) {
+            return false;
+        }
+        if (clause.terms().length == 1) {
+            return true;
+        }
+
+        Postings[] lists = new Postings[clause.terms().length];
+        int[] indexes = new int[lists.length];
+        for (int t = 1; t < lists.length; t++) {
+            lists[t] = postings.get(clause.terms()[t]);
+            indexes[t] = lists[t] != null ? lists[t].find(doc) : -1;
+            if (indexes[t] < 0) {
+                return false;
+            }
+        }
+
+        for (int p = first.starts[index]; p < first.end(index); p++) {
+            int start = first.positions[p];
+            boolean phrase = true;
+            for (int t = 1; t < lists.length && phrase; t++) {
+                Postings list = lists[t];
+                phrase = Arrays.binarySearch(list.positions, list.starts[indexes[t]], list.end(indexes[t]),
+                        start + clause.offsets()[t]) >= 0;
+            }
+            if (phrase) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private float score(List<Clause> conjunction, int doc, int count, float averageLength) {
+        float lengthNorm = K1 * (1 - B + B * lengths[doc] / averageLength);
+        float score = 0f;
+        for (Clause clause : conjunction) {
+            if (clause.negated()) {
+                continue;
+            }
+            for (String term : clause.terms()) {
+                Postings list = postings.get(term);
+                int index = list.find(doc);
+                int tf = list.end(index) - list.starts[index];
+                float idf = (float) Math.log(1 + (count - list.size + 0.5) / (list.size + 0.5));
+                score += idf * tf * (K1 + 1) / (tf + lengthNorm);
+            }
+        }
+        return score;
+    }
+
+    private static void escape(StringBuilder html, String text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<' -> html.append("&lt;");
+                case '>' -> html.append("&gt;");
+                case '&' -> html.append("&amp;");
+                case '"' -> html.append("&quot;");
+                case '\'' -> html.append("&#39;");
+                default -> html.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.searchservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Base URL of another service: a random instance registered in Eureka, or the configured
+ * fallback URL when discovery is off or knows no instance.
+ */
+@Component
+@Slf4j
+public class ServiceLocator {
+
+    private final ObjectProvider<DiscoveryClient> discoveryClient;
+
+    public ServiceLocator(ObjectProvider<DiscoveryClient> discoveryClient) {
+        this.discoveryClient = discoveryClient;
+    }
+
+    public String baseUrl(String serviceId, String fallbackUrl) {
+        DiscoveryClient discovery = discoveryClient.getIfAvailable();
+        if (discovery != null) {
+            try {
+                List<ServiceInstance> instances = discovery.getInstances(serviceId);
+                if (!instances.isEmpty()) {
+                    ServiceInstance instance = instances.get(ThreadLocalRandom.current().nextInt(instances.size()));
+                    return instance.getUri().toString();
+                }
+            } catch (RuntimeException ex) {
+                log.debug("Discovery lookup of {} failed: {}", serviceId, ex.getMessage());
+            }
+        }
+        return fallbackUrl;
+    }
+}
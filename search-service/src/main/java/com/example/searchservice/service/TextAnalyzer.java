@@ -0,0 +1,109 @@
+package com.example.searchservice.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Turns product text and queries into index terms: lower case, accents removed, split on
+ * anything that is not a letter or digit, common French/English stop words dropped and a
+ * light plural folding (chaises -> chaise, claviers -> clavier). Index and queries must go
+ * through the same analyzer.
+ */
+public final class TextAnalyzer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "le", "la", "les", "un", "une", "des", "de", "du", "et", "ou", "en", "au", "aux",
+            "pour", "avec", "sans", "sur", "par", "the", "a", "an", "and", "or", "of", "for",
+            "with", "to", "in", "on");
+
+    /**
+     * A word of the original text: its index term (null for a stop word), its position among all
+     * words (stop words included, so phrases keep their gaps) and its character range.
+     */
+    public record Token(String term, int position, int start, int end) {
+    }
+
+    private TextAnalyzer() {
+    }
+
+    public static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+
+        String folded = fold(text);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String term = normalize(folded.substring(start, i));
+                if (term != null) {
+                    terms.add(term);
+                }
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    // Same terms as terms(), with positions and offsets in the original text (phrases, highlighting)
+    public static List<Token> tokens(String text) {
+        List<Token> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+
+        int position = 0;
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && isWordChar(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String word = fold(text.substring(start, i));
+                tokens.add(new Token(word.isEmpty() ? null : normalize(word), position++, start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    // Letters, digits and the accents of a decomposed letter belong to the word
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || Character.getType(c) == Character.NON_SPACING_MARK;
+    }
+
+    // Lower case without diacritics ("Écran" -> "ecran")
+    public static String fold(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                folded.append(c);
+            }
+        }
+        return folded.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static String normalize(String token) {
+        if (STOP_WORDS.contains(token)) {
+            return null;
+        }
+        if (token.length() == 1 && !Character.isDigit(token.charAt(0))) {
+            return null;
+        }
+        int last = token.length() - 1;
+        if (token.length() > 3 && (token.charAt(last) == 's' || token.charAt(last) == 'x')
+                && Character.isLetter(token.charAt(last - 1)) && token.charAt(last - 1) != 's') {
+            return token.substring(0, last);
+        }
+        return token;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.searchservice.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Small concurrent cache whose entries expire `ttlMillis` after they were put. A null value is
+ * a cached "not found". Bounded: when full, expired entries are dropped, and if that is not
+ * enough the cache starts over.
+ */
+public final class TtlCache<K, V> {
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final LongSupplier clock;
+
+    public TtlCache(long ttlMillis, int maxEntries) {
+        this(ttlMillis, maxEntries, System::currentTimeMillis);
+    }
+
+    TtlCache(long ttlMillis, int maxEntries, LongSupplier clock) {
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    /**
+     * Live values of `keys` (null values included); keys without a live entry are added to `missing`.
+     */
+    public Map<K, V> getAll(Collection<K> keys, Collection<K> missing) {
+        long now = clock.getAsLong();
+        Map<K, V> found = new HashMap<>();
+        for (K key : keys) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.expiresAt > now) {
+                found.put(key, entry.value);
+            } else {
+                missing.add(key);
+            }
+        }
+        return found;
+    }
+
+    public void put(K key, V value) {
+        long now = clock.getAsLong();
+        if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+            entries.values().removeIf(entry -> entry.expiresAt <= now);
+            if (entries.size() >= maxEntries) {
+                entries.clear();
+            }
+        }
+        entries.put(key, new Entry<>(value, now + ttlMillis));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
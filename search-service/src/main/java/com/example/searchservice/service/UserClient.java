@@ -0,0 +1,76 @@
+package com.example.searchservice.service;
+
+import com.example.searchservice.dto.UserNameDto;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Component
+@Slf4j
+public class UserClient {
+
+    private final RestTemplate restTemplate;
+    private final ServiceLocator serviceLocator;
+
+    @Value("${user.service.id:USER-SERVICE}")
+    private String userServiceId = "USER-SERVICE";
+
+    @Value("${user.service.url:http://localhost:8089}")
+    private String userServiceUrl = "http://localhost:8089";
+
+    // User-Service only serves names to signed-in users or to services holding this token
+    @Value("${user.service.token:}")
+    private String serviceToken = "";
+
+    public UserClient(ServiceLocator serviceLocator,
+                      @Value("${review.enrichment.connect-timeout-ms:500}") long connectTimeoutMs,
+                      @Value("${review.enrichment.read-timeout-ms:1500}") long readTimeoutMs) {
+        this.serviceLocator = serviceLocator;
+        // Names are a nicety: a slow User-Service must not hold a review listing for long
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(Duration.ofMillis(connectTimeoutMs));
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+        this.restTemplate = new RestTemplate(requestFactory);
+    }
+
+    // User-Service refuses every call without the token: lookups are switched off instead
+    public boolean isEnabled() {
+        return serviceToken != null && !serviceToken.isBlank();
+    }
+
+    @PostConstruct
+    void warnWhenDisabled() {
+        if (!isEnabled()) {
+            log.warn("⚠️ USER_LOOKUP_TOKEN is not set: review user names will not be looked up");
+        }
+    }
+
+    // Usernames of many users in one call (unknown ids are absent)
+    public Map<Long, String> fetchUsernames(Collection<Long> userIds) {
+        String ids = userIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Service-Token", serviceToken);
+        UserNameDto[] names = restTemplate.exchange(
+                serviceLocator.baseUrl(userServiceId, userServiceUrl) + "/api/users/names?ids=" + ids,
+                HttpMethod.GET, new HttpEntity<>(headers), UserNameDto[].class).getBody();
+        Map<Long, String> byId = new HashMap<>();
+        if (names != null) {
+            for (UserNameDto name : names) {
+                byId.put(name.getId(), name.getUsername());
+            }
+        }
+        return byId;
+    }
+}
@@ -0,0 +1,18 @@
+-- Reviews submitted twice before (user_id, product_id) was unique: keep the first of each pair,
+-- take the removed ones out of the product rating aggregates, then create the index
+WITH removed AS (
+    DELETE FROM review r USING review kept
+    WHERE r.user_id = kept.user_id AND r.product_id = kept.product_id AND r.id > kept.id
+    RETURNING r.product_id, r.rating
+), totals AS (
+    SELECT product_id, COUNT(*) AS n, SUM(rating) AS s,
+           COUNT(*) FILTER (WHERE rating = 1) AS s1, COUNT(*) FILTER (WHERE rating = 2) AS s2,
+           COUNT(*) FILTER (WHERE rating = 3) AS s3, COUNT(*) FILTER (WHERE rating = 4) AS s4,
+           COUNT(*) FILTER (WHERE rating = 5) AS s5
+    FROM removed GROUP BY product_id
+)
+UPDATE product_rating p SET review_count = p.review_count - t.n, rating_sum = p.rating_sum - t.s,
+    stars_1 = p.stars_1 - t.s1, stars_2 = p.stars_2 - t.s2, stars_3 = p.stars_3 - t.s3,
+    stars_4 = p.stars_4 - t.s4, stars_5 = p.stars_5 - t.s5, updated_at = CURRENT_TIMESTAMP
+FROM totals t WHERE p.product_id = t.product_id;
+CREATE UNIQUE INDEX IF NOT EXISTS uk_review_user_product ON review (user_id, product_id);
@@ -0,0 +1,3 @@
+-- Ids used to come from IDENTITY columns: move each pooled sequence past the existing rows
+-- (runs after Hibernate's schema update; never moves a sequence backwards)
+SELECT setval('review_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM review) + 50, (SELECT last_value FROM review_seq)));
@@ -0,0 +1,47 @@
+package com.example.searchservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompletionIndexTest {
+
+    private final CompletionIndex index = new CompletionIndex.Builder()
+            .add("Souris sans fil", CompletionIndex.Source.PRODUCT, 2L, 50)
+            .add("Souris gaming", CompletionIndex.Source.PRODUCT, 3L, 80)
+            .add("Écran 4K", CompletionIndex.Source.PRODUCT, 4L, 10)
+            .add("souris", CompletionIndex.Source.QUERY, null, 5)
+            .add("sac à dos", CompletionIndex.Source.QUERY, null, 100)
+            .build();
+
+    private static List<String> texts(List<CompletionIndex.Suggestion> suggestions) {
+        return suggestions.stream().map(CompletionIndex.Suggestion::text).toList();
+    }
+
+    @Test
+    void heaviestCompletionsOfThePrefixComeFirst() {
+        assertEquals(List.of("Souris gaming", "Souris sans fil", "souris"), texts(index.complete("sou", 10)));
+        assertEquals(List.of("sac à dos", "Souris gaming"), texts(index.complete("s", 2)));
+    }
+
+    @Test
+    void completesFromAnyWordStartWithoutDuplicates() {
+        assertEquals(List.of("Souris sans fil"), texts(index.complete("sans f", 10)));
+        assertEquals(List.of("Écran 4K"), texts(index.complete("ECR", 10)));
+        assertEquals(List.of("Écran 4K"), texts(index.complete("4k", 10)));
+    }
+
+    @Test
+    void trailingSpaceRequiresTheWholeWord() {
+        assertEquals(List.of("Souris gaming", "Souris sans fil"), texts(index.complete("souris ", 10)));
+    }
+
+    @Test
+    void unknownOrEmptyPrefixHasNoSuggestions() {
+        assertTrue(index.complete("zz", 10).isEmpty());
+        assertTrue(index.complete("  ", 10).isEmpty());
+        assertTrue(CompletionIndex.empty().complete("a", 10).isEmpty());
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.searchservice.service;
+
+import com.example.searchservice.dto.ProductDocument;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductIndexTest {
+
+    private static ProductDocument product(long id, String name, String description, String category) {
+        return ProductDocument.builder().id(id).name(name).description(description).category(category).build();
+    }
+
+    private final ProductIndex index = ProductIndex.build(List.of(
+            product(1, "Clavier mécanique", "Switches bleus, rétroéclairage RGB", "Périphériques"),
+            product(2, "Souris sans fil", "Capteur 16000 DPI, compatible avec tout clavier", "Périphériques"),
+            product(3, "Écran 4K 27 pouces", "Dalle IPS 144Hz", "Électronique"),
+            ProductDocument.builder().id(4L).name("Clavier ancien").active(false).build()));
+
+    @Test
+    void nameMatchRanksAboveDescriptionMatch() {
+        ProductIndex.Result result = index.search("clavier", null, 0, 10);
+
+        assertEquals(2, result.totalHits());
+        assertEquals(1L, result.hits().get(0).product().getId());
+        assertEquals(2L, result.hits().get(1).product().getId());
+    }
+
+    @Test
+    void accentsCaseAndPluralsAreFolded() {
+        assertEquals(3L, index.search("ECRANS", null, 0, 10).hits().get(0).product().getId());
+        assertEquals(1L, index.search("claviers mecaniques", null, 0, 10).hits().get(0).product().getId());
+    }
+
+    @Test
+    void categoryFilterAndPagination() {
+        assertEquals(0, index.search("clavier", "Électronique", 0, 10).totalHits());
+
+        ProductIndex.Result secondPage = index.search("clavier", "peripheriques", 1, 1);
+        assertEquals(2, secondPage.totalHits());
+        assertEquals(List.of(2L), secondPage.hits().stream().map(hit -> hit.product().getId()).toList());
+    }
+
+    @Test
+    void inactiveProductsAndStopWordsAreNotIndexed() {
+        assertEquals(3, index.size());
+        assertEquals(0, index.search("avec les", null, 0, 10).totalHits());
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.searchservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RatingLeaderboardTest {
+
+    private static List<Long> ids(List<RatingLeaderboard.Ranked> ranked) {
+        return ranked.stream().map(RatingLeaderboard.Ranked::productId).toList();
+    }
+
+    @Test
+    void fewPerfectReviewsDoNotOutrankManyGoodOnes() {
+        // product 1: two 5-star reviews, product 2: 200 reviews averaging 4.5, product 3: 50 at 3.0
+        RatingLeaderboard leaderboard = RatingLeaderboard.build(Map.of(
+                1L, new long[] {2, 10},
+                2L, new long[] {200, 900},
+                3L, new long[] {50, 150}), 10);
+
+        assertEquals(List.of(2L, 1L, 3L), ids(leaderboard.topRated(null, 10)));
+        assertEquals(List.of(2L, 3L, 1L), ids(leaderboard.mostReviewed(null, 10)));
+        assertEquals(4.5, leaderboard.topRated(null, 1).get(0).average(), 1e-9);
+        assertEquals(List.of(2L), ids(leaderboard.topRated(null, 1)));
+    }
+
+    @Test
+    void newReviewsMoveTheProduct() {
+        RatingLeaderboard leaderboard = new RatingLeaderboard(3.0, 5);
+        leaderboard.record(1L, 4);
+        leaderboard.record(2L, 3);
+        assertEquals(List.of(1L, 2L), ids(leaderboard.topRated(null, 10)));
+
+        for (int i = 0; i < 10; i++) {
+            leaderboard.record(2L, 5);
+        }
+        assertEquals(List.of(2L, 1L), ids(leaderboard.topRated(null, 10)));
+        assertEquals(11, leaderboard.mostReviewed(null, 1).get(0).reviewCount());
+        assertEquals(2, leaderboard.size());
+    }
+
+    @Test
+    void categoriesHaveTheirOwnRankings() {
+        RatingLeaderboard leaderboard = new RatingLeaderboard(3.0, 5);
+        leaderboard.add(1L, 10, 45);
+        leaderboard.add(2L, 10, 40);
+        leaderboard.add(3L, 10, 48);
+        leaderboard.assignCategories(Map.of(1L, "audio", 2L, "audio", 3L, "gaming"));
+
+        assertEquals(List.of(1L, 2L), ids(leaderboard.topRated("audio", 10)));
+        assertEquals(List.of(3L), ids(leaderboard.topRated("gaming", 10)));
+        assertEquals(List.of(), leaderboard.topRated("unknown", 10));
+
+        leaderboard.assignCategories(Map.of(2L, "gaming"));
+        leaderboard.record(2L, 5);
+        assertEquals(List.of(1L), ids(leaderboard.mostReviewed("audio", 10)));
+        assertEquals(List.of(2L, 3L), ids(leaderboard.mostReviewed("gaming", 10)));
+        assertEquals(List.of(3L, 1L, 2L), ids(leaderboard.topRated(null, 10)));
+    }
+}
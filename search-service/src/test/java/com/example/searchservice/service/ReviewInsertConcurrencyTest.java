@@ -0,0 +1,151 @@
+package com.example.searchservice.service;
+
+import com.example.searchservice.dto.ReviewRequest;
+import com.example.searchservice.dto.ReviewResponse;
+import com.example.searchservice.entity.ProductRating;
+import com.example.searchservice.entity.Review;
+import com.example.searchservice.repository.ProductRatingRepository;
+import com.example.searchservice.repository.ReviewRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * The same review submitted from many threads at once (double clicks, retries) against a real
+ * Postgres: the unique (user_id, product_id) index lets exactly one insert through, every other
+ * submission is told it was already reviewed, and the product aggregate counts it once.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.sql.init.mode=never"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // each submission commits on its own
+@Testcontainers(disabledWithoutDocker = true)
+class ReviewInsertConcurrencyTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:16-alpine");
+
+    private static final long USER = 7L;
+    private static final long PRODUCT = 42L;
+    private static final int SUBMISSIONS = 200;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private ProductRatingRepository productRatingRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ReviewSearchService reviewSearchService;
+    private LeaderboardService leaderboardService;
+    private ReviewService reviewService;
+
+    @BeforeEach
+    void setUp() {
+        reviewRepository.deleteAllInBatch();
+        productRatingRepository.deleteAllInBatch();
+
+        reviewSearchService = mock(ReviewSearchService.class);
+        leaderboardService = mock(LeaderboardService.class);
+        OrderClient orderClient = mock(OrderClient.class);
+        when(orderClient.canUserReview(anyLong(), anyLong())).thenReturn(true);
+
+        reviewService = new ReviewService(reviewRepository, productRatingRepository, reviewSearchService,
+                leaderboardService, mock(ReviewEnricher.class), orderClient,
+                new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    void sameReviewFromManyThreadsIsCreatedOnce() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger duplicates = new AtomicInteger();
+        Set<Long> createdIds = ConcurrentHashMap.newKeySet();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < SUBMISSIONS; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    ReviewResponse response = reviewService.addReview(request(PRODUCT, 4));
+                    createdIds.add(response.getId());
+                    created.incrementAndGet();
+                } catch (RuntimeException ex) {
+                    assertEquals("Already reviewed", ex.getMessage());
+                    duplicates.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(1, created.get());
+        assertEquals(SUBMISSIONS - 1, duplicates.get());
+
+        // Exactly one row, the one handed back to the winning submission
+        List<Review> rows = reviewRepository.findAll();
+        assertEquals(1, rows.size());
+        assertEquals(Set.of(rows.get(0).getId()), createdIds);
+
+        // Exactly one rating update: the aggregate holds that single review
+        ProductRating rating = productRatingRepository.findById(PRODUCT).orElseThrow();
+        assertEquals(1, rating.getReviewCount());
+        assertEquals(4, rating.getRatingSum());
+        assertEquals(1, rating.getStars4());
+
+        verify(reviewSearchService, times(1)).indexAfterCommit(any(Review.class));
+        verify(leaderboardService, times(1)).recordAfterCommit(any(Review.class));
+    }
+
+    @Test
+    void differentProductsAreNotDuplicates() {
+        for (long product = 1; product <= 3; product++) {
+            reviewService.addReview(request(product, 5));
+        }
+
+        assertEquals(3, reviewRepository.count());
+        assertEquals(3, productRatingRepository.count());
+        productRatingRepository.findAll().forEach(rating -> assertEquals(1, rating.getReviewCount()));
+    }
+
+    private static ReviewRequest request(long productId, int rating) {
+        ReviewRequest request = new ReviewRequest();
+        request.setUserId(USER);
+        request.setProductId(productId);
+        request.setRating(rating);
+        request.setComment("Great sound");
+        return request;
+    }
+}
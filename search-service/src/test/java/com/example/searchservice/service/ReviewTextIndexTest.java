@@ -0,0 +1,108 @@
+package com.example.searchservice.service;
+
+import com.example.searchservice.service.ReviewTextIndex.Order;
+import com.example.searchservice.service.ReviewTextIndex.Query;
+import com.example.searchservice.service.ReviewTextIndex.ReviewDocument;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReviewTextIndexTest {
+
+    private static ReviewDocument review(long id, long productId, int rating, String comment) {
+        return new ReviewDocument(id, 100L + id, productId, rating, comment, null);
+    }
+
+    private static ReviewTextIndex index() {
+        ReviewTextIndex index = new ReviewTextIndex();
+        index.add(review(1, 10, 2, "Battery dies after two hours, very disappointed"));
+        index.add(review(2, 10, 5, "Great battery life and fast delivery"));
+        index.add(review(3, 20, 1, "Late delivery, the box was damaged"));
+        index.add(review(4, 20, 4, "Delivery was late but the product is fine"));
+        index.add(review(5, 30, 3, "Batterie faible, livraison en retard"));
+        return index;
+    }
+
+    private static List<Long> ids(ReviewTextIndex.Result result) {
+        return result.hits().stream().map(hit -> hit.review().reviewId()).toList();
+    }
+
+    private static List<Long> search(ReviewTextIndex index, String query) {
+        return ids(index.search(Query.parse(query), null, null, null, Order.NEWEST, 0, 10));
+    }
+
+    @Test
+    void wordsMustAllMatch() {
+        ReviewTextIndex index = index();
+        assertEquals(List.of(2L, 1L), search(index, "battery"));
+        assertEquals(List.of(2L), search(index, "battery delivery"));
+        assertEquals(List.of(), search(index, "battery missing"));
+    }
+
+    @Test
+    void phraseRequiresAdjacentWordsInOrder() {
+        ReviewTextIndex index = index();
+        assertEquals(List.of(3L), search(index, "\"late delivery\""));
+        assertEquals(List.of(4L, 3L), search(index, "late delivery"));
+        // Stop words keep their slot: "life and fast" is not "life fast"
+        assertEquals(List.of(2L), search(index, "\"life and fast\""));
+        assertEquals(List.of(), search(index, "\"life fast\""));
+    }
+
+    @Test
+    void orAndExclusions() {
+        ReviewTextIndex index = index();
+        assertEquals(List.of(5L, 3L), search(index, "\"late delivery\" OR batterie"));
+        assertEquals(List.of(1L), search(index, "battery -delivery"));
+        assertEquals(List.of(1L), search(index, "battery NOT \"fast delivery\""));
+        assertTrue(Query.parse("-battery").isEmpty());
+    }
+
+    @Test
+    void filtersByProductAndRating() {
+        ReviewTextIndex index = index();
+        assertEquals(List.of(4L, 3L), ids(index.search(Query.parse("delivery"), 20L, null, null, Order.NEWEST, 0, 10)));
+        assertEquals(List.of(3L), ids(index.search(Query.parse("delivery"), null, null, 2, Order.NEWEST, 0, 10)));
+        assertEquals(List.of(2L), ids(index.search(Query.parse("delivery"), null, 5, null, Order.NEWEST, 0, 10)));
+    }
+
+    @Test
+    void relevanceRanksAndPages() {
+        ReviewTextIndex index = new ReviewTextIndex();
+        index.add(review(1, 10, 3, "ok, battery is fine, nothing else to say about this product really"));
+        index.add(review(2, 10, 1, "battery battery battery"));
+        index.add(review(3, 10, 4, "charger"));
+
+        ReviewTextIndex.Result first = index.search(Query.parse("battery"), null, null, null, Order.RELEVANCE, 0, 1);
+        assertEquals(2, first.totalHits());
+        assertEquals(List.of(2L), ids(first));
+        assertEquals(List.of(1L), ids(index.search(Query.parse("battery"), null, null, null, Order.RELEVANCE, 1, 1)));
+    }
+
+    @Test
+    void mergeSkipsReviewsAlreadyIndexed() {
+        ReviewTextIndex live = new ReviewTextIndex();
+        live.add(review(3, 20, 1, "Late delivery, the box was damaged"));
+
+        ReviewTextIndex partial = index();
+        assertEquals(4, live.merge(partial));
+        assertEquals(5, live.size());
+        assertFalse(live.add(review(2, 10, 5, "duplicate")));
+        assertEquals(List.of(4L, 3L), search(live, "late delivery"));
+        assertEquals(List.of(3L), search(live, "\"late delivery\""));
+    }
+
+    @Test
+    void highlightsEscapedMatchesInAWindow() {
+        assertEquals("<mark>Late</mark> &amp; slow <mark>delivery</mark>",
+                ReviewTextIndex.highlight("Late & slow delivery", Set.of("late", "delivery"), 100));
+
+        String longComment = "a".repeat(300) + " battery " + "b".repeat(300);
+        String snippet = ReviewTextIndex.highlight(longComment, Set.of("battery"), 100);
+        assertTrue(snippet.startsWith("…") && snippet.endsWith("…"));
+        assertTrue(snippet.contains("<mark>battery</mark>"));
+    }
+}